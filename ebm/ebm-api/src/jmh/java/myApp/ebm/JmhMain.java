@@ -0,0 +1,159 @@
+package myApp.ebm;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Runs JMH like org.openjdk.jmh.Main, then compares every result with the
+ * stored baseline (-Djmh.baseline, a JMH -rf json file).
+ *
+ * For each benchmark and parameter set it prints the baseline and current
+ * score, the change, and the allocation per operation when the gc profiler
+ * ran. A change larger than both runs' error margins, in the slower
+ * direction, is marked REGRESSION.
+ *
+ * Scores only compare on the same hardware and JDK, so the baseline must be
+ * regenerated on the machine doing the comparison before its verdicts mean
+ * anything. -Djmh.accept=true writes the run's results file to the baseline
+ * instead of comparing, minus the fields that only describe the machine it
+ * ran on (the java binary and JVM arguments, which hold local paths).
+ */
+public class JmhMain {
+
+    private static final String ALLOC = "gc.alloc.rate.norm";
+
+    /** Fields of a JMH json result that hold local paths rather than results */
+    private static final List<String> MACHINE_FIELDS = List.of("jvm", "jvmArgs");
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions options;
+        try {
+            options = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        String baselinePath = System.getProperty("jmh.baseline", "");
+        File baseline = new File(baselinePath);
+        if (Boolean.getBoolean("jmh.accept")) {
+            accept(options, baseline);
+            return;
+        }
+        if (baselinePath.isEmpty() || !baseline.isFile()) {
+            System.out.println("No baseline at '" + baselinePath + "': nothing to compare with");
+            return;
+        }
+        compare(readBaseline(baseline), results, baseline);
+    }
+
+    /** Writes this run's results file to the baseline without its machine-specific fields */
+    private static void accept(CommandLineOptions options, File baseline) throws IOException {
+        if (!options.getResult().hasValue() || baseline.getPath().isEmpty()) {
+            System.err.println("-Djmh.accept needs -rff <results file> and -Djmh.baseline");
+            System.exit(1);
+            return;
+        }
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        JsonNode runs = mapper.readTree(new File(options.getResult().get()));
+        for (JsonNode run : runs) {
+            ((ObjectNode) run).remove(MACHINE_FIELDS);
+        }
+        mapper.writeValue(baseline, runs);
+        System.out.printf("%nWrote %d results to %s%n", runs.size(), baseline);
+    }
+
+    /** Baseline entries keyed like {@link #key(BenchmarkParams)} */
+    private static Map<String, JsonNode> readBaseline(File file) throws IOException {
+        Map<String, JsonNode> byKey = new HashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            byKey.put(key(run.path("benchmark").asText(), params), run);
+        }
+        return byKey;
+    }
+
+    private static void compare(Map<String, JsonNode> baseline, Collection<RunResult> results, File file) {
+        int regressions = 0;
+        System.out.printf("%nCompared with %s%n", file);
+        System.out.printf("%-70s %14s %14s %9s %14s %14s%n",
+                "Benchmark", "Baseline", "Now", "Change", "B/op before", "B/op now");
+        for (RunResult r : results) {
+            String key = key(r.getParams());
+            Result<?> now = r.getPrimaryResult();
+            JsonNode before = baseline.get(key);
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  (new)%n", key, "-", now.getScore(), "");
+                continue;
+            }
+            double was = before.path("primaryMetric").path("score").asDouble();
+            double wasError = before.path("primaryMetric").path("scoreError").asDouble();
+            double change = was == 0 ? 0 : (now.getScore() - was) / was * 100;
+            boolean slower = r.getParams().getMode() == Mode.Throughput ? now.getScore() < was : now.getScore() > was;
+            boolean regression = slower
+                    && Math.abs(now.getScore() - was) > Math.max(errorOf(now), errorOf(wasError));
+
+            Result<?> allocNow = r.getSecondaryResults().get(ALLOC);
+            JsonNode allocWas = before.path("secondaryMetrics").path(ALLOC).path("score");
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %14s %14s %s %s%n",
+                    key, was, now.getScore(), change,
+                    allocWas.isMissingNode() ? "-" : String.format("%.1f", allocWas.asDouble()),
+                    allocNow == null ? "-" : String.format("%.1f", allocNow.getScore()),
+                    now.getScoreUnit(), regression ? "REGRESSION" : "");
+            if (regression) {
+                regressions++;
+            }
+        }
+        System.out.printf("%d regression(s)%n", regressions);
+    }
+
+    private static double errorOf(Result<?> r) {
+        return errorOf(r.getScoreError());
+    }
+
+    /** JMH reports NaN when there are too few iterations for an error margin */
+    private static double errorOf(double error) {
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String key(BenchmarkParams params) {
+        Map<String, String> values = new TreeMap<>();
+        for (String name : params.getParamsKeys()) {
+            values.put(name, params.getParam(name));
+        }
+        return key(params.getBenchmark(), values);
+    }
+
+    private static String key(String benchmark, Map<String, String> params) {
+        String name = benchmark.startsWith("myApp.ebm.") ? benchmark.substring("myApp.ebm.".length()) : benchmark;
+        return params.isEmpty() ? name : name + params;
+    }
+}
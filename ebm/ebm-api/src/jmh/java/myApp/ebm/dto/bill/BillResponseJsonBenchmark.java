@@ -0,0 +1,91 @@
+package myApp.ebm.dto.bill;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Writing a List&lt;BillResponse&gt; as JSON, as the bill list endpoints do.
+ * The mapper comes from the same builder Spring Boot uses (dates as ISO
+ * strings). Output goes to a counting stream, so only serialization is
+ * measured, not buffer growth.
+ *
+ * mvn test-compile exec:exec -Pjmh -Djmh.args="BillResponseJsonBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillResponseJsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<BillResponse> bills;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(List.class);
+        bills = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boolean paid = i % 3 == 0;
+            bills.add(new BillResponse("ebm" + (1000000 + i), "2025-" + String.format("%02d", i % 12 + 1),
+                    BigDecimal.valueOf(50000 + i, 2), LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 16),
+                    paid ? "PAID" : "PENDING", paid ? "ebmp" + (1000000 + i) : null,
+                    paid ? LocalDate.of(2025, 3, 10) : null));
+        }
+    }
+
+    @Benchmark
+    public long serialize(Blackhole bh) throws IOException {
+        CountingStream out = new CountingStream(bh);
+        writer.writeValue(out, bills);
+        return out.bytes;
+    }
+
+    /** Counts bytes and hands them to the blackhole */
+    private static final class CountingStream extends OutputStream {
+
+        private final Blackhole bh;
+        private long bytes;
+
+        CountingStream(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            bh.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            bh.consume(b);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package myApp.ebm.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import myApp.ebm.dto.bill.BillResponse;
+import myApp.ebm.dto.complaint.ComplaintResponse;
+import myApp.ebm.model.Bill;
+import myApp.ebm.model.Complaint;
+import myApp.ebm.model.Customer;
+
+/**
+ * Entity to response mapping on the write paths: {@link BillService#toDto(Bill)}
+ * and {@link ComplaintService#toDto(Complaint)}. Entities come from a fixed
+ * pool so every call maps a different object.
+ *
+ * mvn test-compile exec:exec -Pjmh -Djmh.args="DtoMappingBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final int POOL = 1024;
+
+    private Bill[] bills;
+    private Complaint[] complaints;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        bills = new Bill[POOL];
+        complaints = new Complaint[POOL];
+        LocalDateTime created = LocalDateTime.of(2025, 3, 1, 9, 30);
+        for (int i = 0; i < POOL; i++) {
+            Customer customer = new Customer();
+            customer.setConsumerId(String.valueOf(7000000000000L + i));
+            customer.setName("Customer " + i);
+
+            Bill b = new Bill();
+            b.setBillId("ebm" + (1000000 + i));
+            b.setCustomer(customer);
+            b.setBillingMonth("2025-" + String.format("%02d", i % 12 + 1));
+            b.setAmountDue(BigDecimal.valueOf(50000 + i, 2));
+            b.setIssueDate(LocalDate.of(2025, 3, 1));
+            b.setDueDate(LocalDate.of(2025, 3, 16));
+            b.setStatus(i % 3 == 0 ? "PAID" : "PENDING");
+            if (i % 3 == 0) {
+                b.setPaymentId("ebmp" + (1000000 + i));
+                b.setPaymentDate(LocalDate.of(2025, 3, 10));
+            }
+            bills[i] = b;
+
+            Complaint c = new Complaint();
+            c.setComplaintId("ebmc" + (1000000 + i));
+            c.setCustomer(customer);
+            c.setType("Supply");
+            c.setCategory("Outage");
+            c.setProblem("No power since morning");
+            c.setLandmark("Near the substation");
+            c.setStatus("OPEN");
+            c.setCreatedAt(created);
+            c.setUpdatedAt(created);
+            complaints[i] = c;
+        }
+    }
+
+    @Benchmark
+    public BillResponse billToDto() {
+        return BillService.toDto(bills[next++ & (POOL - 1)]);
+    }
+
+    @Benchmark
+    public ComplaintResponse complaintToDto() {
+        return ComplaintService.toDto(complaints[next++ & (POOL - 1)]);
+    }
+}
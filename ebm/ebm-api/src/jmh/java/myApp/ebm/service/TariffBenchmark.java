@@ -0,0 +1,81 @@
+package myApp.ebm.service;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import myApp.ebm.model.Tariff;
+import myApp.ebm.model.TariffSlab;
+import myApp.ebm.model.TariffTouBand;
+
+/**
+ * Cost of pricing one bill with a {@link CompiledTariff}.
+ * Uses the DOMESTIC tariff seeded by V5__tariffs.sql; consumption is drawn
+ * from a fixed pool so the JIT cannot fold the result.
+ *
+ * mvn test-compile exec:exec -Pjmh -Djmh.args="TariffBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TariffBenchmark {
+
+    private static final int POOL = 4096;
+
+    private CompiledTariff tariff;
+    private long[] units;
+    private long[][] hourly;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Tariff t = new Tariff();
+        t.setCode("DOMESTIC");
+        t.setVersion(1);
+        t.setEffectiveFrom(LocalDate.of(2000, 1, 1));
+        t.setFixedChargePaise(5000);
+        t.getSlabs().add(new TariffSlab(100L, 300));
+        t.getSlabs().add(new TariffSlab(300L, 500));
+        t.getSlabs().add(new TariffSlab(500L, 700));
+        t.getSlabs().add(new TariffSlab(null, 850));
+        t.getTouBands().add(new TariffTouBand(0, 6, -50));
+        t.getTouBands().add(new TariffTouBand(18, 22, 100));
+        tariff = CompiledTariff.compile(t);
+
+        SplittableRandom rnd = new SplittableRandom(42);
+        units = new long[POOL];
+        hourly = new long[POOL][24];
+        for (int i = 0; i < POOL; i++) {
+            units[i] = rnd.nextLong(0, 1200);
+            for (int h = 0; h < 24; h++) {
+                hourly[i][h] = rnd.nextLong(0, 40);
+            }
+        }
+    }
+
+    /** Monthly total only: fixed charge + slabs */
+    @Benchmark
+    public long slabs() {
+        return tariff.amountPaise(units[next++ & (POOL - 1)]);
+    }
+
+    /** Hourly profile: slabs on the total + time-of-use adjustments */
+    @Benchmark
+    public long timeOfUse() {
+        return tariff.amountPaise(hourly[next++ & (POOL - 1)]);
+    }
+}
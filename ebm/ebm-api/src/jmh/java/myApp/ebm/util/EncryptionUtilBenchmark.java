@@ -0,0 +1,55 @@
+package myApp.ebm.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link EncryptionUtil} on password-sized strings, as used to check
+ * legacy passwords at login (new ones are BCrypt, see PasswordService).
+ *
+ * mvn test-compile exec:exec -Pjmh -Djmh.args="EncryptionUtilBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptionUtilBenchmark {
+
+    private static final int POOL = 256;
+
+    private String[] plain;
+    private String[] cipher;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        plain = new String[POOL];
+        cipher = new String[POOL];
+        for (int i = 0; i < POOL; i++) {
+            plain[i] = "password-" + i + "-Secret!";
+            cipher[i] = EncryptionUtil.encrypt(plain[i]);
+        }
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return EncryptionUtil.encrypt(plain[next++ & (POOL - 1)]);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return EncryptionUtil.decrypt(cipher[next++ & (POOL - 1)]);
+    }
+}
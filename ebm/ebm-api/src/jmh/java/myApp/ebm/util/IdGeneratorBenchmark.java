@@ -0,0 +1,60 @@
+package myApp.ebm.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link IdGenerator#generateBillId()} with the database sequence replaced by
+ * an in-memory one: measures the hi/lo allocator and the string building,
+ * plus one refill per {@value IdGenerator#BLOCK_SIZE} ids. The contended
+ * variant shares one generator between 4 threads.
+ *
+ * mvn test-compile exec:exec -Pjmh -Djmh.args="IdGeneratorBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private IdGenerator ids;
+
+    @Setup
+    public void setUp() {
+        ids = new IdGenerator(new JdbcTemplate() {
+            private long sequence = 1000000 - IdGenerator.BLOCK_SIZE;
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public synchronized <T> T queryForObject(String sql, Class<T> requiredType) {
+                sequence += IdGenerator.BLOCK_SIZE;
+                return (T) Long.valueOf(sequence);
+            }
+        });
+    }
+
+    @Benchmark
+    public String generateBillId() {
+        return ids.generateBillId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateBillIdContended() {
+        return ids.generateBillId();
+    }
+}
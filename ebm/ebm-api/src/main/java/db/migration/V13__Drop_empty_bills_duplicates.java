@@ -0,0 +1,38 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * V4 always creates bills_duplicates to hold the bills it moved aside, even
+ * on databases that had none. Drops the table when it is empty; one that
+ * holds bills is left for review, as V4 describes. A table already dropped
+ * by hand is skipped.
+ *
+ * Java rather than SQL because the drop depends on the table's contents.
+ */
+public class V13__Drop_empty_bills_duplicates extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement st = context.getConnection().createStatement()) {
+            if (count(st, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'BILLS_DUPLICATES'") == 0) {
+                return;
+            }
+            if (count(st, "SELECT COUNT(*) FROM bills_duplicates") == 0) {
+                st.execute("DROP TABLE bills_duplicates");
+            }
+        }
+    }
+
+    private static long count(Statement st, String sql) throws Exception {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
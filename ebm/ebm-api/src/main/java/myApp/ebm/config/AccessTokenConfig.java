@@ -0,0 +1,29 @@
+package myApp.ebm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import myApp.ebm.service.AccessTokenService;
+
+/**
+ * Access tokens on /api requests.
+ *
+ * Login returns a signed token ({@link AccessTokenService});
+ * {@link AccessTokenFilter} verifies it without a database lookup and
+ * hands its claims to the request. While the frontends still send ids in
+ * paths, ebm.auth.tokens-required=false (the default) lets requests
+ * without a token through; a token that is sent must be valid either way.
+ */
+@Configuration
+public class AccessTokenConfig {
+
+    @Bean
+    public FilterRegistrationBean<AccessTokenFilter> accessTokenFilter(AccessTokenService tokens,
+            @Value("${ebm.auth.tokens-required:false}") boolean required) {
+        FilterRegistrationBean<AccessTokenFilter> reg = new FilterRegistrationBean<>(new AccessTokenFilter(tokens, required));
+        reg.addUrlPatterns("/api/*");
+        return reg;
+    }
+}
@@ -0,0 +1,73 @@
+package myApp.ebm.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import myApp.ebm.exception.InvalidTokenException;
+import myApp.ebm.service.AccessTokenService;
+
+/**
+ * Checks the "Authorization: Bearer" access token of /api requests and
+ * stores its claims as the {@link #CLAIMS} request attribute. A bad or
+ * expired token gets 401. A request without one gets 401 only when tokens
+ * are required; /api/auth/** (login, registration) and CORS preflights
+ * never need one.
+ */
+public class AccessTokenFilter extends OncePerRequestFilter {
+
+    /** Request attribute holding the caller's {@link AccessTokenService.Claims} */
+    public static final String CLAIMS = AccessTokenFilter.class.getName() + ".claims";
+
+    private static final String BEARER = "Bearer ";
+
+    private final AccessTokenService tokens;
+    private final boolean required;
+
+    public AccessTokenFilter(AccessTokenService tokens, boolean required) {
+        this.tokens = tokens;
+        this.required = required;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/api/auth/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            if (required) {
+                reject(response, "Access token required");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            request.setAttribute(CLAIMS, tokens.verify(header.substring(BEARER.length()).trim()));
+        } catch (InvalidTokenException e) {
+            reject(response, e.getMessage());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // messages are our own constants, nothing to escape
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
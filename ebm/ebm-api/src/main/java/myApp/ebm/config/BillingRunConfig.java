@@ -0,0 +1,29 @@
+package myApp.ebm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded worker pool for billing-run partitions.
+ * Size it at or below the Hikari pool size: every worker holds a connection
+ * while it commits a chunk.
+ */
+@Configuration
+public class BillingRunConfig {
+
+    @Bean(name = "billingRunExecutor")
+    public ThreadPoolTaskExecutor billingRunExecutor(
+            @Value("${ebm.billing-run.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // partitions wait here: room for several runs of BillingRunRequest.MAX_PARTITIONS
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("billing-run-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
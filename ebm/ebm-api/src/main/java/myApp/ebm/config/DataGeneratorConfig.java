@@ -0,0 +1,41 @@
+package myApp.ebm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import myApp.ebm.service.DataGeneratorService;
+
+/**
+ * Synthetic data command. With ebm.generate.customers set, the app fills its
+ * database through {@link DataGeneratorService} once it has started, then
+ * exits (ebm.generate.exit=false keeps it running):
+ *
+ * java -jar ebm-api.jar --spring.main.web-application-type=none
+ *     --spring.datasource.url=jdbc:h2:file:./data/ebm-large
+ *     --ebm.generate.customers=1000000 [--ebm.generate.seed=42]
+ *     [--ebm.generate.first-consumer-id=2000000000000]
+ *     [--ebm.generate.months=36] [--ebm.generate.until=2026-09]
+ */
+@Configuration
+public class DataGeneratorConfig {
+
+    @Bean
+    @ConditionalOnProperty("ebm.generate.customers")
+    public ApplicationRunner dataGenerator(DataGeneratorService generator, ConfigurableApplicationContext context,
+                                           @Value("${ebm.generate.customers}") int customers,
+                                           @Value("${ebm.generate.seed:42}") long seed,
+                                           @Value("${ebm.generate.first-consumer-id:2000000000000}") long firstConsumerId,
+                                           @Value("${ebm.generate.exit:true}") boolean exit) {
+        return args -> {
+            generator.generate(customers, seed, firstConsumerId);
+            if (exit) {
+                System.exit(SpringApplication.exit(context));
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package myApp.ebm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded worker pool for meter-reading import chunks.
+ * Each worker parses one mapped region and commits it on its own connection,
+ * so keep it at or below the Hikari pool size.
+ */
+@Configuration
+public class MeterImportConfig {
+
+    @Bean(name = "meterImportExecutor")
+    public ThreadPoolTaskExecutor meterImportExecutor(
+            @Value("${ebm.meter-import.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // chunks wait here; a 10 GB file at the default chunk size is ~2,500 chunks
+        executor.setQueueCapacity(100_000);
+        executor.setThreadNamePrefix("meter-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package myApp.ebm.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Single worker for overdue sweeps, so a long sweep never holds the shared
+ * scheduler thread that the other @Scheduled jobs run on. Only one sweep
+ * runs at a time; the queue just covers the moment between one sweep
+ * releasing its flag and its thread going idle.
+ */
+@Configuration
+public class OverdueSweepConfig {
+
+    @Bean(name = "overdueSweepExecutor")
+    public ThreadPoolTaskExecutor overdueSweepExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("overdue-sweep-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
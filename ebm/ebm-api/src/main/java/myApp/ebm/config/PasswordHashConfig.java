@@ -0,0 +1,36 @@
+package myApp.ebm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded pool for password hashing at login.
+ * BCrypt is CPU work by design; running it here instead of on the Tomcat
+ * thread means a login storm queues for these threads and, once
+ * ebm.auth.hash-queue logins are waiting, gets 503 instead of taking every
+ * request thread. ebm.auth.hash-threads defaults to half the cores, so
+ * such a storm also leaves CPU for the other requests.
+ */
+@Configuration
+public class PasswordHashConfig {
+
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${ebm.auth.hash-threads:0}") int threads,
+            @Value("${ebm.auth.hash-queue:32}") int queue) {
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // full queue: execute throws TaskRejectedException
+        executor.setQueueCapacity(queue);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
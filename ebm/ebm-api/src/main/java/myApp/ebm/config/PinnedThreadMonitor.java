@@ -0,0 +1,89 @@
+package myApp.ebm.config;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, usually by
+ * blocking inside a synchronized block or a native frame.
+ *
+ * Streams the JDK's jdk.VirtualThreadPinned JFR event for pins longer than
+ * the threshold. Every pin is counted; each distinct blocking site is
+ * logged once with its top frames, so a hot path does not flood the log.
+ * The count is also the ebm.threads.pinned meter.
+ */
+public class PinnedThreadMonitor implements AutoCloseable, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int FRAMES = 6;
+
+    private final RecordingStream stream = new RecordingStream();
+
+    private final LongAdder pinned = new LongAdder();
+
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    public PinnedThreadMonitor(Duration threshold) {
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ebm.threads.pinned", pinned, LongAdder::sum)
+                .description("Virtual threads pinned longer than the threshold")
+                .register(registry);
+    }
+
+    /** Pins seen since startup */
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    private void onPinned(RecordedEvent e) {
+        pinned.increment();
+        String site = topFrames(e);
+        if (reported.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at{}", e.getDuration().toMillis(), site);
+        }
+    }
+
+    private static String topFrames(RecordedEvent e) {
+        if (e.getStackTrace() == null) {
+            return " (no stack trace)";
+        }
+        StringBuilder sb = new StringBuilder();
+        int n = 0;
+        for (RecordedFrame f : e.getStackTrace().getFrames()) {
+            if (n++ == FRAMES) {
+                break;
+            }
+            sb.append("\n\tat ").append(f.getMethod().getType().getName())
+              .append('.').append(f.getMethod().getName())
+              .append(':').append(f.getLineNumber());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
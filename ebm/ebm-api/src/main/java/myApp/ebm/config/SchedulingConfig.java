@@ -0,0 +1,12 @@
+package myApp.ebm.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on @Scheduled jobs (e.g. the nightly overdue sweep).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
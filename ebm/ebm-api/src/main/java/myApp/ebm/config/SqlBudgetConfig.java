@@ -0,0 +1,36 @@
+package myApp.ebm.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request SQL statement budget.
+ *
+ * Hibernate reports every statement it prepares to {@link SqlStatementCounter};
+ * {@link SqlBudgetFilter} counts them per /api request and warns about
+ * requests that run more than ebm.sql.request-budget. Repeated statements
+ * in the warning usually point at a LAZY association read in a loop.
+ * ebm.sql.request-budget=-1 turns the filter off; the counter stays
+ * available to tests.
+ */
+@Configuration
+public class SqlBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(
+            @Value("${ebm.sql.request-budget:20}") int budget) {
+        FilterRegistrationBean<SqlBudgetFilter> reg = new FilterRegistrationBean<>(new SqlBudgetFilter(budget));
+        reg.addUrlPatterns("/api/*");
+        reg.setEnabled(budget >= 0);
+        return reg;
+    }
+}
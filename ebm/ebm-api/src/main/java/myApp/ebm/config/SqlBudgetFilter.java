@@ -0,0 +1,39 @@
+package myApp.ebm.config;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements each request runs and logs a warning, with the
+ * statements, when a request goes over the budget.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final int budget;
+
+    public SqlBudgetFilter(int budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            chain.doFilter(request, response);
+            if (sql.count() > budget) {
+                log.warn("{} {} went over its SQL budget of {}: {}",
+                        request.getMethod(), request.getRequestURI(), budget, sql.report());
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package myApp.ebm.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ *
+ * Counting happens only inside a {@link Scope}: {@link SqlBudgetFilter}
+ * opens one per HTTP request, and tests open their own around the code
+ * they want to pin, then call {@link Scope#assertMaxQueries(int)}. Scopes
+ * nest, and a statement counts in every open scope on the thread. Outside
+ * a scope the inspector is a ThreadLocal read. Work handed to other
+ * threads (payment pipeline, billing run, meter import, streamed exports)
+ * is not counted against the request.
+ *
+ * Statements run through JdbcTemplate bypass Hibernate and are not seen.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /** Statement texts kept per scope; the count itself is exact */
+    static final int KEPT = 200;
+
+    @Override
+    public String inspect(String sql) {
+        for (Scope s = CURRENT.get(); s != null; s = s.outer) {
+            s.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Start counting on this thread. Close the scope (try-with-resources)
+     * on the same thread.
+     */
+    public static Scope open() {
+        Scope s = new Scope(CURRENT.get());
+        CURRENT.set(s);
+        return s;
+    }
+
+    /** Statements seen by one scope */
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope outer;
+
+        private final List<String> statements = new ArrayList<>();
+
+        private int count;
+
+        private Scope(Scope outer) {
+            this.outer = outer;
+        }
+
+        private void add(String sql) {
+            count++;
+            if (statements.size() < KEPT) {
+                statements.add(sql);
+            }
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /** The first {@value SqlStatementCounter#KEPT} statements, in order */
+        public List<String> statements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        /**
+         * Statements prepared more than once, with how often, most repeated
+         * first. The same SQL run once per row of an earlier result is the
+         * usual sign of an N+1 (a LAZY association read in a loop).
+         */
+        public Map<String, Integer> repeated() {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (String sql : statements) {
+                counts.merge(sql, 1, Integer::sum);
+            }
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                    .filter(e -> e.getValue() > 1)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(e -> repeated.put(e.getKey(), e.getValue()));
+            return repeated;
+        }
+
+        /**
+         * @throws AssertionError listing the statements if more than max ran
+         */
+        public void assertMaxQueries(int max) {
+            if (count > max) {
+                throw new AssertionError("Expected at most " + max + " SQL statements but " + report());
+            }
+        }
+
+        /** Count, repeated statements and the statement list, for logs and assertion messages */
+        public String report() {
+            StringBuilder sb = new StringBuilder().append(count).append(" ran");
+            Map<String, Integer> repeated = repeated();
+            if (!repeated.isEmpty()) {
+                sb.append("\nRepeated (possible N+1):");
+                repeated.forEach((sql, n) -> sb.append("\n\t").append(n).append("x ").append(sql));
+            }
+            sb.append("\nStatements:");
+            for (int i = 0; i < statements.size(); i++) {
+                sb.append("\n\t").append(i + 1).append(". ").append(statements.get(i));
+            }
+            if (count > statements.size()) {
+                sb.append("\n\t... ").append(count - statements.size()).append(" more");
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public void close() {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package myApp.ebm.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Request threading mode.
+ *
+ * With spring.threads.virtual.enabled=true on Java 21+, Spring Boot runs
+ * every Tomcat request, and so every @Transactional service call made from
+ * it, on its own virtual thread. Requests then no longer queue for one of
+ * server.tomcat.threads.max platform threads. The limit on concurrent
+ * database work is the Hikari pool (spring.datasource.hikari.*): requests
+ * wait up to its connection-timeout for a connection and then get 503.
+ * A blocked virtual thread normally frees its carrier, but not while it
+ * holds a monitor (before JDK 24). So code that does I/O under a lock uses
+ * ReentrantLock, and {@link PinnedThreadMonitor} reports what still pins.
+ *
+ * On older JVMs the property is ignored and requests stay on platform
+ * threads; a warning says so at startup. The meter-import and billing-run
+ * pools stay bounded platform pools in both modes: they are sized to the
+ * Hikari pool on purpose.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            @Value("${ebm.threads.pinned-threshold-ms:20}") long thresholdMs) {
+        return new PinnedThreadMonitor(Duration.ofMillis(thresholdMs));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logMode(ApplicationReadyEvent event) {
+        Environment env = event.getApplicationContext().getEnvironment();
+        boolean requested = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(env)) {
+            log.info("Requests run on virtual threads; database concurrency is capped by the Hikari pool ({} connections)",
+                    env.getProperty("spring.datasource.hikari.maximum-pool-size", "10"));
+        } else if (requested) {
+            log.warn("spring.threads.virtual.enabled=true needs Java 21+, running on Java {}: requests stay on platform threads",
+                    Runtime.version().feature());
+        } else {
+            log.info("Requests run on up to {} platform threads",
+                    env.getProperty("server.tomcat.threads.max", "200"));
+        }
+    }
+}
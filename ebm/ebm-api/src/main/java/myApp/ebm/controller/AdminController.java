@@ -9,6 +9,7 @@ import myApp.ebm.service.RegistrationService;
 import myApp.ebm.service.UserService;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
@@ -50,6 +51,14 @@ public class AdminController {
         return ResponseEntity.ok(customers);
     }
 
+    /**
+     * Hit and miss counts of the customer lookup cache
+     */
+    @GetMapping("/customers/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCustomerCacheStats() {
+        return ResponseEntity.ok(customerService.getLookupCacheStats());
+    }
+
     /**
      * Get all users (admin and customers)
      */
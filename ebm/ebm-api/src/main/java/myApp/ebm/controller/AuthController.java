@@ -5,12 +5,15 @@ import myApp.ebm.dto.CustomerRegistrationRequest;
 import myApp.ebm.dto.LoginRequest;
 import myApp.ebm.dto.LoginResponse;
 import myApp.ebm.dto.MessageResponse;
+import myApp.ebm.exception.LoginBusyException;
 import myApp.ebm.service.LoginService;
 import myApp.ebm.service.RegistrationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -23,18 +26,27 @@ public class AuthController {
 
     /**
      * Validates login credentials.
+     * The password check runs on the password hash pool; the response is
+     * sent once it is done.
      *
      * @param request contains username and password
-     * @return 200 OK with userType and userId on success,
+     * @return 200 OK with userType, userId and an access token on success,
      *         401 Unauthorized for invalid credentials,
-     *         403 Forbidden if account is inactive
+     *         403 Forbidden if account is inactive,
+     *         503 Service Unavailable if too many logins are in progress
      */
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(
             @RequestBody LoginRequest request) {
 
-        LoginResponse response = loginService.validateLogin(request);
-        return ResponseEntity.ok(response);
+        return loginService.login(request).thenApply(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler(LoginBusyException.class)
+    public ResponseEntity<MessageResponse> loginBusy(LoginBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponse(e.getMessage()));
     }
 
     /**
@@ -1,16 +1,33 @@
 package myApp.ebm.controller;
 
 import jakarta.validation.Valid;
+import myApp.ebm.dto.CursorPage;
+import myApp.ebm.dto.MessageResponse;
 import myApp.ebm.dto.bill.*;
+import myApp.ebm.exception.BadRequestException;
+import myApp.ebm.service.BillBatchService;
+import myApp.ebm.service.BillExportService;
 import myApp.ebm.service.BillService;
+import myApp.ebm.service.CustomerVersionService;
+import myApp.ebm.service.OverdueSweepService;
+import myApp.ebm.service.PaymentPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Tag(name = "Bill Controller", description = "APIs for bill operations")
 @RestController
@@ -18,6 +35,15 @@ import java.util.Map;
 public class BillController {
 
     @Autowired private BillService billService;
+    @Autowired private BillExportService billExportService;
+    @Autowired private BillBatchService billBatchService;
+    @Autowired private OverdueSweepService overdueSweepService;
+    @Autowired private PaymentPipeline paymentPipeline;
+    @Autowired private CustomerVersionService customerVersions;
+
+    /** How long clients may cache a PAID bill, which no longer changes */
+    @Value("${ebm.bills.paid-max-age-days:30}")
+    private long paidMaxAgeDays;
     
     @PostMapping
     public ResponseEntity<BillResponse>createBill(@Valid @RequestBody CreateBillRequest req){
@@ -26,6 +52,17 @@ public class BillController {
     	    		  .status(HttpStatus.CREATED).body(resp);
     }
     
+    /**
+     * Create many bills in one call (admin only).
+     * Body is a JSON array of CreateBillRequest; it is parsed as a stream and
+     * inserted in JDBC batches. Returns a result for every row.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchBillResponse> createBills(InputStream body) throws IOException {
+        BatchBillResponse resp = billBatchService.createBills(body);
+        return ResponseEntity.ok(resp);
+    }
+    
     /**
      * View all bills (admin only).
      */
@@ -35,49 +72,84 @@ public class BillController {
         return ResponseEntity.ok(bills);
     }
 
+    /**
+     * View all bills one page at a time (admin only), newest first.
+     * Pass the returned nextCursor back as ?cursor= to get the following page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<BillResponse>> getBillsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        CursorPage<BillResponse> page = billService.getBillsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     /**
      * View all bills for a customer.
+     * Sends an ETag; a matching If-None-Match gets 304 without the query.
      */
     @GetMapping("/customer/{consumerId}")
     public ResponseEntity<List<BillResponse>> getAllBills(
-            @PathVariable String consumerId) {
-
-        List<BillResponse> bills = billService.viewAllBills(consumerId);
-        return ResponseEntity.ok(bills);
+            @PathVariable String consumerId, WebRequest request) {
+        return customerList(consumerId, request, () -> billService.viewAllBills(consumerId));
     }
 
     /**
-     * View pending bills for a customer.
+     * View pending bills for a customer (conditional, like the full list).
      */
     @GetMapping("/customer/{consumerId}/pending")
     public ResponseEntity<List<BillResponse>> getPendingBills(
-            @PathVariable String consumerId) {
-
-        List<BillResponse> bills = billService.viewPendingBills(consumerId);
-        return ResponseEntity.ok(bills);
+            @PathVariable String consumerId, WebRequest request) {
+        return customerList(consumerId, request, () -> billService.viewPendingBills(consumerId));
     }
     
     /**
-     * View paid bills (history) for a customer.
+     * View paid bills (history) for a customer (conditional, like the full list).
      */
     @GetMapping("/customer/{consumerId}/paid")
     public ResponseEntity<List<BillResponse>> getPaidBills(
-            @PathVariable String consumerId) {
-        List<BillResponse> bills = billService.viewPaidBills(consumerId);
-        return ResponseEntity.ok(bills);
+            @PathVariable String consumerId, WebRequest request) {
+        return customerList(consumerId, request, () -> billService.viewPaidBills(consumerId));
+    }
+
+    /**
+     * 304 if the client's ETag still matches the customer's version stamp,
+     * else the list with the current ETag. The stamp is read first, so the
+     * list is never older than its ETag.
+     */
+    private <T> ResponseEntity<T> customerList(String consumerId, WebRequest request, Supplier<T> query) {
+        String etag = customerVersions.etag(consumerId);
+        if (etag == null) {
+            return ResponseEntity.ok(query.get());
+        }
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already set on the response
+        }
+        return ResponseEntity.ok().eTag(etag).body(query.get());
     }
 
     
 
     /**
-     * Pay a bill.
+     * Pay a bill. Retries carrying the same idempotency key (body field or
+     * Idempotency-Key header) get the first response back and pay nothing.
+     * With ebm.payments.pipeline.enabled the payment is group-committed and
+     * the response is sent once its batch commits.
      */
     @PostMapping("/pay")
-    public ResponseEntity<PaymentResponse> payBill(
-            @Valid @RequestBody PaymentRequest req) {
+    public CompletableFuture<ResponseEntity<PaymentResponse>> payBill(
+            @Valid @RequestBody PaymentRequest req,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
+        if (req.getIdempotencyKey() == null) {
+            req.setIdempotencyKey(idempotencyKey);
+        }
+        if (paymentPipeline.isEnabled()) {
+            return paymentPipeline.submit(req).thenApply(ResponseEntity::ok);
+        }
         PaymentResponse resp = billService.payBill(req);
-        return ResponseEntity.ok(resp);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(resp));
     }
 
     /**
@@ -95,9 +167,22 @@ public class BillController {
     @GetMapping("/{billId}")
     public ResponseEntity<BillResponse> getBillById(@PathVariable String billId) {
         BillResponse bill = billService.getBillById(billId);
+        if ("PAID".equals(bill.getStatus())) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(paidMaxAgeDays, TimeUnit.DAYS).cachePrivate())
+                    .body(bill);
+        }
         return ResponseEntity.ok(bill);
     }
 
+    /**
+     * Every payment made against a bill, oldest first, with the balance after each.
+     */
+    @GetMapping("/{billId}/payments")
+    public ResponseEntity<List<PaymentRecordResponse>> getBillPayments(@PathVariable String billId) {
+        return ResponseEntity.ok(billService.getBillPayments(billId));
+    }
+
     /**
      * Update a bill (admin only)
      */
@@ -127,6 +212,34 @@ public class BillController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Rebuild bill statistics from a full scan of the bills table (admin only).
+     * Only needed if the running totals are suspected to have drifted.
+     */
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileBillStats() {
+        Map<String, Object> stats = billService.reconcileBillStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Mark PENDING bills past their due date as OVERDUE now (admin only).
+     * Also runs nightly; returns 202 Accepted, poll GET /overdue-sweep for progress.
+     */
+    @PostMapping("/overdue-sweep")
+    public ResponseEntity<OverdueSweepResponse> startOverdueSweep() {
+        OverdueSweepResponse resp = overdueSweepService.startSweep();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(resp);
+    }
+
+    /**
+     * Metrics of the running or most recent overdue sweep (admin only).
+     */
+    @GetMapping("/overdue-sweep")
+    public ResponseEntity<OverdueSweepResponse> getOverdueSweep() {
+        return ResponseEntity.ok(overdueSweepService.getLastSweep());
+    }
+
     /**
      * Get payment history for all customers (admin)
      */
@@ -136,6 +249,62 @@ public class BillController {
         return ResponseEntity.ok(payments);
     }
 
+    /**
+     * Payment ledger for all customers (admin), newest first, one page at a time.
+     * Every partial payment is its own entry.
+     * Pass the returned nextCursor back as ?cursor= to get the following page.
+     */
+    @GetMapping("/payments/ledger")
+    public ResponseEntity<CursorPage<PaymentRecordResponse>> getPaymentLedger(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<PaymentRecordResponse> payments = billService.getPaymentLedger(cursor, size);
+        return ResponseEntity.ok(payments);
+    }
+
+    /**
+     * Export bills (admin) as NDJSON or CSV, streamed row by row.
+     * Optionally filtered by status.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBills(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String status) {
+
+        BillExportService.Format fmt = exportFormat(format);
+        StreamingResponseBody body = out -> billExportService.exportBills(status, fmt, out);
+        return exportResponse(body, fmt, "bills");
+    }
+
+    /**
+     * Export payment history for all customers (admin) as NDJSON or CSV.
+     */
+    @GetMapping("/payments/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        BillExportService.Format fmt = exportFormat(format);
+        StreamingResponseBody body = out -> billExportService.exportPayments(fmt, out);
+        return exportResponse(body, fmt, "payments");
+    }
+
+    private static BillExportService.Format exportFormat(String format) {
+        try {
+            return BillExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported export format: " + format, e);
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> exportResponse(
+            StreamingResponseBody body, BillExportService.Format fmt, String name) {
+        String fileName = name + "." + fmt.name().toLowerCase(Locale.ROOT);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fmt.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     /**
      * Get payment history for a specific customer
      */
@@ -144,4 +313,25 @@ public class BillController {
         List<PaymentResponse> payments = billService.getCustomerPaymentHistory(consumerId);
         return ResponseEntity.ok(payments);
     }
+
+    /**
+     * Payment ledger for a specific customer, newest first, one page at a time.
+     */
+    @GetMapping("/payments/customer/{consumerId}/ledger")
+    public ResponseEntity<CursorPage<PaymentRecordResponse>> getCustomerPaymentLedger(
+            @PathVariable String consumerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<PaymentRecordResponse> payments = billService.getCustomerPaymentLedger(consumerId, cursor, size);
+        return ResponseEntity.ok(payments);
+    }
+
+    /**
+     * 400 for request input the client got wrong: a cursor it did not get
+     * from us, an unknown export format or a batch body that is not an array.
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<MessageResponse> badRequest(BadRequestException e) {
+        return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package myApp.ebm.controller;
+
+import jakarta.validation.Valid;
+import myApp.ebm.dto.billing.BillingRunRequest;
+import myApp.ebm.dto.billing.BillingRunResponse;
+import myApp.ebm.service.BillingRunService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Billing Run Controller", description = "APIs for monthly billing runs")
+@RestController
+@RequestMapping("/api/billing-runs")
+public class BillingRunController {
+
+    @Autowired private BillingRunService billingRunService;
+
+    /**
+     * Start a billing run for a month (admin only).
+     * Returns 202 Accepted immediately; poll GET /{runId} for progress.
+     */
+    @PostMapping
+    public ResponseEntity<BillingRunResponse> startRun(@Valid @RequestBody BillingRunRequest req) {
+        BillingRunResponse resp = billingRunService.startRun(req);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(resp);
+    }
+
+    /**
+     * Progress and throughput of a billing run.
+     */
+    @GetMapping("/{runId}")
+    public ResponseEntity<BillingRunResponse> getRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(billingRunService.getRun(runId));
+    }
+
+    /**
+     * Resume an interrupted or failed run from its checkpoints (admin only).
+     */
+    @PostMapping("/{runId}/resume")
+    public ResponseEntity<BillingRunResponse> resumeRun(@PathVariable Long runId) {
+        BillingRunResponse resp = billingRunService.resumeRun(runId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(resp);
+    }
+}
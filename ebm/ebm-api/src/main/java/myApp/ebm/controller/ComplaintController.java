@@ -3,13 +3,16 @@ package myApp.ebm.controller;
 import myApp.ebm.dto.complaint.*; //ComplaintResponse,RegisterComplaintRequest,UpdateComplaintStatusRequest
 
 import myApp.ebm.service.ComplaintService;
+import myApp.ebm.service.CustomerVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 //REST endpoints for managing complaints.
 
@@ -20,9 +23,12 @@ public class ComplaintController {
 
     private ComplaintService complaintService;
 
+    private CustomerVersionService customerVersions;
+
     @Autowired
-    public ComplaintController(ComplaintService complaintService) {
+    public ComplaintController(ComplaintService complaintService, CustomerVersionService customerVersions) {
         this.complaintService = complaintService;
+        this.customerVersions = customerVersions;
     }
 
     /**
@@ -46,22 +52,33 @@ public class ComplaintController {
     }
     /**
      * Get all complaints for a customer.
+     * Sends an ETag; a matching If-None-Match gets 304 without the query.
      */
     @GetMapping("/customer/{consumerId}")
     public ResponseEntity<List<ComplaintResponse>> getByCustomer(
-            @PathVariable String consumerId) {
-        List<ComplaintResponse> list = complaintService.viewCustomerComplaints(consumerId);
-        return new ResponseEntity<>(list, HttpStatus.OK);
+            @PathVariable String consumerId, WebRequest request) {
+        return customerList(consumerId, request, () -> complaintService.viewCustomerComplaints(consumerId));
     }
 
     /**
-     * Get only OPEN complaints for a customer.
+     * Get only OPEN complaints for a customer (conditional, like the full list).
      */
     @GetMapping("/customer/{consumerId}/open")
     public ResponseEntity<List<ComplaintResponse>> getOpenByCustomer(
-            @PathVariable String consumerId) {
-        List<ComplaintResponse> list = complaintService.viewOpenComplaints(consumerId);
-        return new ResponseEntity<>(list, HttpStatus.OK);
+            @PathVariable String consumerId, WebRequest request) {
+        return customerList(consumerId, request, () -> complaintService.viewOpenComplaints(consumerId));
+    }
+
+    /** 304 if the customer's version stamp still matches, else the list with its ETag */
+    private <T> ResponseEntity<T> customerList(String consumerId, WebRequest request, Supplier<T> query) {
+        String etag = customerVersions.etag(consumerId);
+        if (etag == null) {
+            return new ResponseEntity<>(query.get(), HttpStatus.OK);
+        }
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already set on the response
+        }
+        return ResponseEntity.ok().eTag(etag).body(query.get());
     }
 
     /**
@@ -0,0 +1,33 @@
+package myApp.ebm.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import myApp.ebm.dto.MessageResponse;
+
+/**
+ * 503 + Retry-After when no database connection could be had within the
+ * Hikari connection-timeout. The pool is what limits concurrent database
+ * work (see ThreadingConfig), so running out of it means overload, not a
+ * server bug.
+ */
+@RestControllerAdvice
+public class DatabaseBusyHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBusyHandler.class);
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<MessageResponse> databaseBusy(RuntimeException e) {
+        log.warn("No database connection available: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponse("Server is busy, please retry"));
+    }
+}
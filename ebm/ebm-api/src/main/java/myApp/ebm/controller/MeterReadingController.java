@@ -0,0 +1,63 @@
+package myApp.ebm.controller;
+
+import jakarta.validation.Valid;
+import myApp.ebm.dto.meter.MeterImportRequest;
+import myApp.ebm.dto.meter.MeterImportResponse;
+import myApp.ebm.dto.meter.MeterReadingResponse;
+import myApp.ebm.service.MeterReadingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Tag(name = "Meter Reading Controller", description = "APIs for meter-reading imports and lookups")
+@RestController
+@RequestMapping("/api/meter-readings")
+public class MeterReadingController {
+
+    @Autowired private MeterReadingService meterReadingService;
+
+    /**
+     * Import a meter-reading CSV file from the server's import directory (admin only).
+     * Returns 202 Accepted immediately; poll GET /imports/{importId} for progress.
+     */
+    @PostMapping("/imports")
+    public ResponseEntity<MeterImportResponse> startImport(@Valid @RequestBody MeterImportRequest req) {
+        MeterImportResponse resp = meterReadingService.startImport(req);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(resp);
+    }
+
+    /**
+     * Progress and throughput of an import.
+     */
+    @GetMapping("/imports/{importId}")
+    public ResponseEntity<MeterImportResponse> getImport(@PathVariable Long importId) {
+        return ResponseEntity.ok(meterReadingService.getImport(importId));
+    }
+
+    /**
+     * Resume an interrupted or failed import from its committed offset (admin only).
+     */
+    @PostMapping("/imports/{importId}/resume")
+    public ResponseEntity<MeterImportResponse> resumeImport(@PathVariable Long importId) {
+        MeterImportResponse resp = meterReadingService.resumeImport(importId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(resp);
+    }
+
+    /**
+     * A customer's daily readings; defaults to the last 31 days.
+     */
+    @GetMapping("/{consumerId}")
+    public ResponseEntity<List<MeterReadingResponse>> getReadings(
+            @PathVariable String consumerId,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(meterReadingService.getReadings(consumerId, start, end));
+    }
+}
@@ -0,0 +1,61 @@
+package myApp.ebm.controller;
+
+import jakarta.validation.Valid;
+import myApp.ebm.dto.tariff.TariffRequest;
+import myApp.ebm.dto.tariff.TariffResponse;
+import myApp.ebm.service.TariffService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Tag(name = "Tariff Controller", description = "APIs for versioned slab and time-of-use tariffs")
+@RestController
+@RequestMapping("/api/tariffs")
+public class TariffController {
+
+    @Autowired private TariffService tariffService;
+
+    /**
+     * Publish a new tariff version (admin only).
+     */
+    @PostMapping
+    public ResponseEntity<TariffResponse> createVersion(@Valid @RequestBody TariffRequest req) {
+        TariffResponse resp = tariffService.createVersion(req);
+        return ResponseEntity.status(HttpStatus.CREATED).body(resp);
+    }
+
+    /**
+     * List every version of every tariff.
+     */
+    @GetMapping
+    public ResponseEntity<List<TariffResponse>> getAllTariffs() {
+        return ResponseEntity.ok(tariffService.getAllTariffs());
+    }
+
+    /**
+     * List the versions of one tariff.
+     */
+    @GetMapping("/{code}")
+    public ResponseEntity<List<TariffResponse>> getVersions(@PathVariable String code) {
+        return ResponseEntity.ok(tariffService.getVersions(code));
+    }
+
+    /**
+     * Price a month's consumption without creating a bill.
+     */
+    @GetMapping("/{code}/quote")
+    public ResponseEntity<Map<String, Object>> quote(
+            @PathVariable String code,
+            @RequestParam long units,
+            @RequestParam(required = false) LocalDate date) {
+        BigDecimal amount = tariffService.computeAmountDue(code, units, date);
+        return ResponseEntity.ok(Map.of("code", code.toUpperCase(), "units", units, "amountDue", amount));
+    }
+}
@@ -12,6 +12,8 @@ public class LoginResponse {
 	    private Long userId;
 	    private String name;
 	    private String consumerId; // For customer users
+	    private String accessToken; // send as "Authorization: Bearer <token>"
+	    private Long expiresIn; // token lifetime in seconds
 	    
 	    
 	    public LoginResponse() {}
@@ -78,6 +80,22 @@ public class LoginResponse {
 		public void setConsumerId(String consumerId) {
 			this.consumerId = consumerId;
 		}
+
+		public String getAccessToken() {
+			return accessToken;
+		}
+
+		public void setAccessToken(String accessToken) {
+			this.accessToken = accessToken;
+		}
+
+		public Long getExpiresIn() {
+			return expiresIn;
+		}
+
+		public void setExpiresIn(Long expiresIn) {
+			this.expiresIn = expiresIn;
+		}
 	      
 		  
 	      
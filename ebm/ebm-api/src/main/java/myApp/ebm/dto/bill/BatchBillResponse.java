@@ -0,0 +1,32 @@
+package myApp.ebm.dto.bill;
+
+import java.util.List;
+
+/**
+ * Response for POST /api/bills/batch: totals plus one result per input row.
+ */
+public class BatchBillResponse {
+
+    private int created;
+    private int rejected;
+    private List<BatchBillResult> results;
+
+    public BatchBillResponse() {
+    }
+
+    public BatchBillResponse(int created, int rejected, List<BatchBillResult> results) {
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    // Getters & setters
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public List<BatchBillResult> getResults() { return results; }
+    public void setResults(List<BatchBillResult> results) { this.results = results; }
+}
@@ -0,0 +1,51 @@
+package myApp.ebm.dto.bill;
+
+/**
+ * Outcome of one row of a POST /api/bills/batch request.
+ */
+public class BatchBillResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;          // position of the row in the request array (0-based)
+    private String consumerId;
+    private String billId;      // set when CREATED
+    private String status;      // CREATED or REJECTED
+    private String error;       // set when REJECTED
+
+    public BatchBillResult() {
+    }
+
+    public BatchBillResult(int index, String consumerId, String billId, String status, String error) {
+        this.index = index;
+        this.consumerId = consumerId;
+        this.billId = billId;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BatchBillResult created(int index, String consumerId, String billId) {
+        return new BatchBillResult(index, consumerId, billId, CREATED, null);
+    }
+
+    public static BatchBillResult rejected(int index, String consumerId, String error) {
+        return new BatchBillResult(index, consumerId, null, REJECTED, error);
+    }
+
+    // Getters & setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getConsumerId() { return consumerId; }
+    public void setConsumerId(String consumerId) { this.consumerId = consumerId; }
+
+    public String getBillId() { return billId; }
+    public void setBillId(String billId) { this.billId = billId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
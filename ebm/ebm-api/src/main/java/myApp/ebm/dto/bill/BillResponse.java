@@ -13,7 +13,23 @@ public class BillResponse {
     private String status;
     private String paymentId;
     private LocalDate paymentDate;
-    
+
+    public BillResponse() {
+    }
+
+    /** Used by the JPQL constructor expressions in BillRepository */
+    public BillResponse(String billId, String billingMonth, BigDecimal amountDue,
+                        LocalDate issueDate, LocalDate dueDate, String status,
+                        String paymentId, LocalDate paymentDate) {
+        this.billId = billId;
+        this.billingMonth = billingMonth;
+        this.amountDue = amountDue;
+        this.issueDate = issueDate;
+        this.dueDate = dueDate;
+        this.status = status;
+        this.paymentId = paymentId;
+        this.paymentDate = paymentDate;
+    }
     
  // getters & setters
 	public String getBillId() {
@@ -1,8 +1,11 @@
 package myApp.ebm.dto.bill;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Payload for creating a new bill for a customer.
@@ -16,10 +19,33 @@ public class CreateBillRequest {
     @Pattern(regexp = "^\\d{4}-\\d{2}$", message = "Billing month must be YYYY-MM")
     private String billingMonth;
 
-    @NotNull(message = "Amount due is required")
+    /**
+     * Flat amount; optional when unitsConsumed is given.
+     */
     @DecimalMin(value = "0.0", inclusive = false, message = "Amount due must be positive")
     private BigDecimal amountDue;
 
+    /**
+     * Units consumed this month; when present, amountDue is priced from the tariff.
+     */
+    @PositiveOrZero(message = "Units consumed cannot be negative")
+    private Long unitsConsumed;
+
+    /**
+     * Optional: the month's units split by hour of day (24 values, hour 0 first).
+     * When present, amountDue is priced from these, including the tariff's
+     * time-of-use bands, and unitsConsumed is not used.
+     */
+    @Size(min = 24, max = 24, message = "Units by hour must have 24 values")
+    private List<@NotNull(message = "Units by hour cannot contain nulls")
+                 @PositiveOrZero(message = "Units by hour cannot be negative") Long> unitsByHour;
+
+    /**
+     * Optional: tariff to price unitsConsumed with; defaults to ebm.tariff.default-code.
+     */
+    @Size(max = 30, message = "Tariff code must be at most 30 characters")
+    private String tariffCode;
+
     /**
      * Bill issue date
      */
@@ -40,9 +66,24 @@ public class CreateBillRequest {
     public BigDecimal getAmountDue() { return amountDue; }
     public void setAmountDue(BigDecimal amountDue) { this.amountDue = amountDue; }
 
+    public Long getUnitsConsumed() { return unitsConsumed; }
+    public void setUnitsConsumed(Long unitsConsumed) { this.unitsConsumed = unitsConsumed; }
+
+    public List<Long> getUnitsByHour() { return unitsByHour; }
+    public void setUnitsByHour(List<Long> unitsByHour) { this.unitsByHour = unitsByHour; }
+
+    public String getTariffCode() { return tariffCode; }
+    public void setTariffCode(String tariffCode) { this.tariffCode = tariffCode; }
+
     public LocalDate getIssueDate() { return issueDate; }
     public void setIssueDate(LocalDate issueDate) { this.issueDate = issueDate; }
 
     public LocalDate getDueDate() { return dueDate; }
     public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
-}
\ No newline at end of file
+
+    @JsonIgnore
+    @AssertTrue(message = "Amount due or units consumed is required")
+    public boolean isAmountOrUnitsPresent() {
+        return amountDue != null || unitsConsumed != null || unitsByHour != null;
+    }
+}
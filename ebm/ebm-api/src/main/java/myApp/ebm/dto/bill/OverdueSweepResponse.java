@@ -0,0 +1,51 @@
+package myApp.ebm.dto.bill;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Metrics of one overdue sweep.
+ */
+public class OverdueSweepResponse {
+
+    /** Bills due before this date were eligible */
+    private LocalDate dueBefore;
+    // RUNNING, COMPLETED, FAILED, or NONE when nothing has run yet
+    private String status;
+    private long billsMarked;
+    private int chunks;
+    /** Longest single chunk transaction */
+    private long maxChunkMillis;
+    private double billsPerSecond;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // Getters & setters
+    public LocalDate getDueBefore() { return dueBefore; }
+    public void setDueBefore(LocalDate dueBefore) { this.dueBefore = dueBefore; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getBillsMarked() { return billsMarked; }
+    public void setBillsMarked(long billsMarked) { this.billsMarked = billsMarked; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public long getMaxChunkMillis() { return maxChunkMillis; }
+    public void setMaxChunkMillis(long maxChunkMillis) { this.maxChunkMillis = maxChunkMillis; }
+
+    public double getBillsPerSecond() { return billsPerSecond; }
+    public void setBillsPerSecond(double billsPerSecond) { this.billsPerSecond = billsPerSecond; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
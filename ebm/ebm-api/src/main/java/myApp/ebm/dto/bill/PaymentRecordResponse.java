@@ -0,0 +1,69 @@
+package myApp.ebm.dto.bill;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One payment ledger entry.
+ * amount is null for payments recorded before the ledger existed.
+ */
+public class PaymentRecordResponse {
+    private String paymentId;
+    private String billId;
+    private BigDecimal amount;
+    private BigDecimal balanceAfter;
+    private LocalDateTime paidAt;
+
+    public PaymentRecordResponse() {
+    }
+
+    public PaymentRecordResponse(String paymentId, String billId, BigDecimal amount,
+                                 BigDecimal balanceAfter, LocalDateTime paidAt) {
+        this.paymentId = paymentId;
+        this.billId = billId;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.paidAt = paidAt;
+    }
+
+    // getters & setters
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public String getBillId() {
+        return billId;
+    }
+
+    public void setBillId(String billId) {
+        this.billId = billId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(BigDecimal balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+
+    public LocalDateTime getPaidAt() {
+        return paidAt;
+    }
+
+    public void setPaidAt(LocalDateTime paidAt) {
+        this.paidAt = paidAt;
+    }
+}
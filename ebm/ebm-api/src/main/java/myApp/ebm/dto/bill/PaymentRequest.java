@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class PaymentRequest {
 	       
@@ -13,6 +14,14 @@ public class PaymentRequest {
 	       
 	       @NotNull(message="Payment amount is required")
 	       private  BigDecimal amountPaid;
+
+	       /**
+	        * Client-chosen key, the same on every retry of one payment.
+	        * A repeated key returns the first response instead of paying again.
+	        * Optional; may also be sent as the Idempotency-Key header.
+	        */
+	       @Size(max = 64, message = "Idempotency key must be at most 64 characters")
+	       private String idempotencyKey;
 	       
 	       
 		   public String getBillId() {
@@ -30,6 +39,14 @@ public class PaymentRequest {
 		   public void setAmountPaid(BigDecimal amountPaid) {
 			   this.amountPaid = amountPaid;
 		   }
+
+		   public String getIdempotencyKey() {
+			   return idempotencyKey;
+		   }
+
+		   public void setIdempotencyKey(String idempotencyKey) {
+			   this.idempotencyKey = idempotencyKey;
+		   }
 	       
 	       
 	       
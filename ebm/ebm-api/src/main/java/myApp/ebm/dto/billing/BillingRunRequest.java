@@ -0,0 +1,47 @@
+package myApp.ebm.dto.billing;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Payload for starting a monthly billing run.
+ */
+public class BillingRunRequest {
+
+    /** Every partition is queued on billingRunExecutor at once; keep well under its queue capacity */
+    public static final int MAX_PARTITIONS = 1000;
+
+    @NotBlank(message = "Billing month is required")
+    @Pattern(regexp = "^\\d{4}-\\d{2}$", message = "Billing month must be YYYY-MM")
+    private String billingMonth;
+
+    @NotNull(message = "Amount due is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Amount due must be positive")
+    private BigDecimal amountDue;
+
+    /**
+     * Optional: if omitted, each bill defaults to 15 days after its issue date.
+     */
+    private LocalDate dueDate;
+
+    /**
+     * Optional: number of customer-id ranges to split the run into.
+     */
+    @Min(value = 1, message = "Partitions must be at least 1")
+    @Max(value = MAX_PARTITIONS, message = "Partitions must be at most " + MAX_PARTITIONS)
+    private Integer partitions;
+
+    // Getters & setters
+    public String getBillingMonth() { return billingMonth; }
+    public void setBillingMonth(String billingMonth) { this.billingMonth = billingMonth; }
+
+    public BigDecimal getAmountDue() { return amountDue; }
+    public void setAmountDue(BigDecimal amountDue) { this.amountDue = amountDue; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+
+    public Integer getPartitions() { return partitions; }
+    public void setPartitions(Integer partitions) { this.partitions = partitions; }
+}
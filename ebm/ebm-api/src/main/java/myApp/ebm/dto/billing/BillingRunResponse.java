@@ -0,0 +1,51 @@
+package myApp.ebm.dto.billing;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress and throughput of a billing run.
+ */
+public class BillingRunResponse {
+
+    private Long runId;
+    private String billingMonth;
+    private String status;
+    private int partitions;
+    private int partitionsCompleted;
+    private long customersProcessed;
+    private long billsCreated;
+    private double billsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // Getters & setters
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+
+    public String getBillingMonth() { return billingMonth; }
+    public void setBillingMonth(String billingMonth) { this.billingMonth = billingMonth; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+
+    public int getPartitionsCompleted() { return partitionsCompleted; }
+    public void setPartitionsCompleted(int partitionsCompleted) { this.partitionsCompleted = partitionsCompleted; }
+
+    public long getCustomersProcessed() { return customersProcessed; }
+    public void setCustomersProcessed(long customersProcessed) { this.customersProcessed = customersProcessed; }
+
+    public long getBillsCreated() { return billsCreated; }
+    public void setBillsCreated(long billsCreated) { this.billsCreated = billsCreated; }
+
+    public double getBillsPerSecond() { return billsPerSecond; }
+    public void setBillsPerSecond(double billsPerSecond) { this.billsPerSecond = billsPerSecond; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
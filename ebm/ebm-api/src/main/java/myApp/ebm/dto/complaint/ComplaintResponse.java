@@ -20,6 +20,27 @@ public class ComplaintResponse {
     // Admin response message
     private String adminResponse;
 
+    public ComplaintResponse() {
+    }
+
+    // Used by the JPQL constructor expressions in ComplaintRepository
+    public ComplaintResponse(String complaintId, String consumerId, String customerName,
+                             String type, String category, String problem, String landmark,
+                             String status, LocalDateTime createdAt, LocalDateTime updatedAt,
+                             String adminResponse) {
+        this.complaintId = complaintId;
+        this.consumerId = consumerId;
+        this.customerName = customerName;
+        this.type = type;
+        this.category = category;
+        this.problem = problem;
+        this.landmark = landmark;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.adminResponse = adminResponse;
+    }
+
     // Getters and Setters
     public String getComplaintId() {
         return complaintId;
@@ -0,0 +1,28 @@
+package myApp.ebm.dto.meter;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * Payload for starting a meter-reading import from a file on the server.
+ */
+public class MeterImportRequest {
+
+    /** CSV file in the server's ebm.meter-import.dir, relative to it */
+    @NotBlank(message = "File path is required")
+    private String path;
+
+    /**
+     * Optional: byte offset to start from (0 by default).
+     * An offset inside a line skips to the start of the next line.
+     */
+    @PositiveOrZero(message = "Start offset cannot be negative")
+    private Long startOffset;
+
+    // Getters & setters
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public Long getStartOffset() { return startOffset; }
+    public void setStartOffset(Long startOffset) { this.startOffset = startOffset; }
+}
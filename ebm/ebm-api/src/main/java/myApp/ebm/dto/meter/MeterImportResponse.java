@@ -0,0 +1,59 @@
+package myApp.ebm.dto.meter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress and throughput of a meter-reading import.
+ */
+public class MeterImportResponse {
+
+    private Long importId;
+    private String filePath;
+    private String rejectsPath;
+    private String status;
+    private long fileSize;
+    private long committedOffset;
+    private long rowsImported;
+    private long rowsRejected;
+    private double rowsPerSecond;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // Getters & setters
+    public Long getImportId() { return importId; }
+    public void setImportId(Long importId) { this.importId = importId; }
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+
+    public String getRejectsPath() { return rejectsPath; }
+    public void setRejectsPath(String rejectsPath) { this.rejectsPath = rejectsPath; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+    public long getCommittedOffset() { return committedOffset; }
+    public void setCommittedOffset(long committedOffset) { this.committedOffset = committedOffset; }
+
+    public long getRowsImported() { return rowsImported; }
+    public void setRowsImported(long rowsImported) { this.rowsImported = rowsImported; }
+
+    public long getRowsRejected() { return rowsRejected; }
+    public void setRowsRejected(long rowsRejected) { this.rowsRejected = rowsRejected; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,26 @@
+package myApp.ebm.dto.meter;
+
+import java.time.LocalDate;
+
+/**
+ * One daily meter reading.
+ */
+public class MeterReadingResponse {
+
+    private LocalDate readingDate;
+    private long units;
+
+    public MeterReadingResponse() {
+    }
+
+    public MeterReadingResponse(LocalDate readingDate, long units) {
+        this.readingDate = readingDate;
+        this.units = units;
+    }
+
+    public LocalDate getReadingDate() { return readingDate; }
+    public void setReadingDate(LocalDate readingDate) { this.readingDate = readingDate; }
+
+    public long getUnits() { return units; }
+    public void setUnits(long units) { this.units = units; }
+}
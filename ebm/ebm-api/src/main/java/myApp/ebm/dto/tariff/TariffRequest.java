@@ -0,0 +1,48 @@
+package myApp.ebm.dto.tariff;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payload for publishing a new version of a tariff.
+ */
+public class TariffRequest {
+
+    @NotBlank(message = "Tariff code is required")
+    @Size(max = 30, message = "Tariff code must be at most 30 characters")
+    private String code;
+
+    @NotNull(message = "Effective-from date is required")
+    private LocalDate effectiveFrom;
+
+    @NotNull(message = "Fixed charge is required")
+    @PositiveOrZero(message = "Fixed charge cannot be negative")
+    private BigDecimal fixedCharge;
+
+    @NotEmpty(message = "At least one slab is required")
+    @Valid
+    private List<TariffSlabDto> slabs = new ArrayList<>();
+
+    @Valid
+    private List<TariffTouBandDto> touBands = new ArrayList<>();
+
+    // Getters & setters
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public LocalDate getEffectiveFrom() { return effectiveFrom; }
+    public void setEffectiveFrom(LocalDate effectiveFrom) { this.effectiveFrom = effectiveFrom; }
+
+    public BigDecimal getFixedCharge() { return fixedCharge; }
+    public void setFixedCharge(BigDecimal fixedCharge) { this.fixedCharge = fixedCharge; }
+
+    public List<TariffSlabDto> getSlabs() { return slabs; }
+    public void setSlabs(List<TariffSlabDto> slabs) { this.slabs = slabs; }
+
+    public List<TariffTouBandDto> getTouBands() { return touBands; }
+    public void setTouBands(List<TariffTouBandDto> touBands) { this.touBands = touBands; }
+}
@@ -0,0 +1,37 @@
+package myApp.ebm.dto.tariff;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A stored tariff version.
+ */
+public class TariffResponse {
+
+    private String code;
+    private int version;
+    private LocalDate effectiveFrom;
+    private BigDecimal fixedCharge;
+    private List<TariffSlabDto> slabs;
+    private List<TariffTouBandDto> touBands;
+
+    // Getters & setters
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public LocalDate getEffectiveFrom() { return effectiveFrom; }
+    public void setEffectiveFrom(LocalDate effectiveFrom) { this.effectiveFrom = effectiveFrom; }
+
+    public BigDecimal getFixedCharge() { return fixedCharge; }
+    public void setFixedCharge(BigDecimal fixedCharge) { this.fixedCharge = fixedCharge; }
+
+    public List<TariffSlabDto> getSlabs() { return slabs; }
+    public void setSlabs(List<TariffSlabDto> slabs) { this.slabs = slabs; }
+
+    public List<TariffTouBandDto> getTouBands() { return touBands; }
+    public void setTouBands(List<TariffTouBandDto> touBands) { this.touBands = touBands; }
+}
@@ -0,0 +1,32 @@
+package myApp.ebm.dto.tariff;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+
+/**
+ * One energy slab: units up to uptoUnits (cumulative) at ratePerUnit rupees.
+ * Leave uptoUnits empty on the last slab; a bound there is rejected.
+ */
+public class TariffSlabDto {
+
+    private Long uptoUnits;
+
+    @NotNull(message = "Rate per unit is required")
+    @PositiveOrZero(message = "Rate per unit cannot be negative")
+    private BigDecimal ratePerUnit;
+
+    public TariffSlabDto() {
+    }
+
+    public TariffSlabDto(Long uptoUnits, BigDecimal ratePerUnit) {
+        this.uptoUnits = uptoUnits;
+        this.ratePerUnit = ratePerUnit;
+    }
+
+    public Long getUptoUnits() { return uptoUnits; }
+    public void setUptoUnits(Long uptoUnits) { this.uptoUnits = uptoUnits; }
+
+    public BigDecimal getRatePerUnit() { return ratePerUnit; }
+    public void setRatePerUnit(BigDecimal ratePerUnit) { this.ratePerUnit = ratePerUnit; }
+}
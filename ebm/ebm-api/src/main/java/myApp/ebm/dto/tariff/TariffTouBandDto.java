@@ -0,0 +1,42 @@
+package myApp.ebm.dto.tariff;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+/**
+ * Time-of-use band: units used in hours [startHour, endHour) carry
+ * adjustmentPerUnit rupees extra (negative for a rebate).
+ */
+public class TariffTouBandDto {
+
+    @Min(value = 0, message = "Start hour must be 0-23")
+    @Max(value = 23, message = "Start hour must be 0-23")
+    private int startHour;
+
+    @Min(value = 1, message = "End hour must be 1-24")
+    @Max(value = 24, message = "End hour must be 1-24")
+    private int endHour;
+
+    @NotNull(message = "Adjustment per unit is required")
+    private BigDecimal adjustmentPerUnit;
+
+    public TariffTouBandDto() {
+    }
+
+    public TariffTouBandDto(int startHour, int endHour, BigDecimal adjustmentPerUnit) {
+        this.startHour = startHour;
+        this.endHour = endHour;
+        this.adjustmentPerUnit = adjustmentPerUnit;
+    }
+
+    public int getStartHour() { return startHour; }
+    public void setStartHour(int startHour) { this.startHour = startHour; }
+
+    public int getEndHour() { return endHour; }
+    public void setEndHour(int endHour) { this.endHour = endHour; }
+
+    public BigDecimal getAdjustmentPerUnit() { return adjustmentPerUnit; }
+    public void setAdjustmentPerUnit(BigDecimal adjustmentPerUnit) { this.adjustmentPerUnit = adjustmentPerUnit; }
+}
@@ -0,0 +1,16 @@
+package myApp.ebm.exception;
+
+/**
+ * Thrown when request input the client sent cannot be used: a cursor it did
+ * not get from us, an unknown export format or a malformed batch body
+ **/
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
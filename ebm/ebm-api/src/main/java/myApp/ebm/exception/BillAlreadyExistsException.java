@@ -0,0 +1,10 @@
+package myApp.ebm.exception;
+
+/**
+ * Thrown when a customer already has a bill for the requested billing month.
+ */
+public class BillAlreadyExistsException extends RuntimeException {
+    public BillAlreadyExistsException(String consumerId, String billingMonth) {
+        super("Bill already exists for consumerId " + consumerId + " and month " + billingMonth);
+    }
+}
@@ -0,0 +1,10 @@
+package myApp.ebm.exception;
+
+/**
+ * Thrown when a billing run cannot be started or resumed.
+ */
+public class BillingRunException extends RuntimeException {
+    public BillingRunException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package myApp.ebm.exception;
+
+/**
+ * Thrown when synthetic data cannot be generated into the current database.
+ */
+public class DataGeneratorException extends RuntimeException {
+    public DataGeneratorException(String message) {
+        super(message);
+    }
+}
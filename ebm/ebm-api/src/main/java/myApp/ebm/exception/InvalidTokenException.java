@@ -0,0 +1,11 @@
+package myApp.ebm.exception;
+
+/**
+ * Thrown when an access token is malformed, wrongly signed or expired
+ **/
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
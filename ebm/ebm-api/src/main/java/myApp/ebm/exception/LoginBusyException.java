@@ -0,0 +1,11 @@
+package myApp.ebm.exception;
+
+/**
+ * Thrown when too many logins are already waiting for password checks
+ **/
+public class LoginBusyException extends RuntimeException {
+
+    public LoginBusyException() {
+        super("Too many logins in progress, please retry");
+    }
+}
@@ -0,0 +1,10 @@
+package myApp.ebm.exception;
+
+/**
+ * Thrown when a meter-reading import cannot be started or resumed.
+ */
+public class MeterImportException extends RuntimeException {
+    public MeterImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package myApp.ebm.exception;
+
+/**
+ * Thrown when an overdue sweep is requested while another one is running.
+ */
+public class OverdueSweepException extends RuntimeException {
+    public OverdueSweepException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package myApp.ebm.exception;
+
+/**
+ * Thrown when a tariff is missing, invalid or cannot price a bill.
+ */
+public class TariffException extends RuntimeException {
+    public TariffException(String message) {
+        super(message);
+    }
+}
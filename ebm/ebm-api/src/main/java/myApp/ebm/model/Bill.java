@@ -2,7 +2,6 @@ package myApp.ebm.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import myApp.ebm.util.IdGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -11,15 +10,29 @@ import java.time.LocalDate;
  * Represents an electricity bill for a customer.
  */
 @Entity
-@Table(name = "bills")
+@Table(name = "bills",
+       uniqueConstraints = @UniqueConstraint(name = "uk_bills_customer_month",
+                                             columnNames = {"customer_id", "billing_month"}),
+       indexes = {
+    // kept in sync with db/migration/V2__hot_query_indexes.sql and V8__overdue_sweep.sql
+    @Index(name = "idx_bills_customer_status_issue", columnList = "customer_id, status, issue_date"),
+    @Index(name = "idx_bills_status_issue", columnList = "status, issue_date"),
+    @Index(name = "idx_bills_issue_id", columnList = "issue_date, id"),
+    @Index(name = "idx_bills_status_id", columnList = "status, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Bill {
 
-    /** Internal primary key */
+    /**
+     * Internal primary key.
+     * Pooled sequence (not IDENTITY) so Hibernate can batch inserts;
+     * allocationSize must match INCREMENT BY in V3__bills_id_sequence.sql.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bills_seq")
+    @SequenceGenerator(name = "bills_seq", sequenceName = "bills_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -29,8 +42,11 @@ public class Bill {
     @Column(name = "bill_id", nullable = false, unique = true, length = 32)
     private String billId;
 
-    /** Customer who owns this bill */
-    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    /**
+     * Customer who owns this bill.
+     * LAZY: read paths select BillResponse directly and never need it.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "customer_id", nullable = false,
                 foreignKey = @ForeignKey(name = "fk_bill_customer"))
     private Customer customer;
@@ -65,28 +81,27 @@ public class Bill {
     private LocalDate paymentDate;
 
     /**
-     * Business key for the payment transaction.
-     * Generated when the bill is paid.
-     * Format: ebmp + sequential number (e.g. ebmp000001)
+     * Business key of the latest payment; every payment, partial or
+     * not, is a row in the payments ledger (Payment).
+     * Format: ebmp + sequential number (e.g. ebmp1000042)
      */
     @Column(name = "payment_id", unique = true, length = 32)
     private String paymentId;
 
     /**
-     * Before first insert, auto‑generate billId and default dates.
+     * Optimistic lock: a payment that read a stale bill fails on commit
+     * and is retried by BillService.payBill.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Before first insert, default the dates.
+     * billId is assigned by the services from IdGenerator.
      */
-    
-    
-    
     @PrePersist
     public void prePersist() {
-        if (this.billId == null) {
-             String id;
-             do {
-            	 id =IdGenerator.generateBillId();
-             }while(/* inject a static BillRepository or check via a helper*/false);
-             this.billId=id;
-        }
         if (this.issueDate == null) {
             this.issueDate = LocalDate.now();
         }
@@ -176,6 +191,10 @@ public class Bill {
 	public void setPaymentId(String paymentId) {
 		this.paymentId = paymentId;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
     
      
     
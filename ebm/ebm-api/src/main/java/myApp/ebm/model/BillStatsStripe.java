@@ -0,0 +1,53 @@
+package myApp.ebm.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * One stripe of the running bill statistics.
+ * The statistics are the sum over all stripes; writers add their
+ * deltas to one stripe chosen by thread, so they rarely contend.
+ */
+@Entity
+@Table(name = "bill_stats")
+public class BillStatsStripe {
+
+    @Id
+    private int stripe;
+
+    @Column(name = "total_bills", nullable = false)
+    private long totalBills;
+
+    @Column(name = "pending_bills", nullable = false)
+    private long pendingBills;
+
+    @Column(name = "paid_bills", nullable = false)
+    private long paidBills;
+
+    @Column(name = "overdue_bills", nullable = false)
+    private long overdueBills;
+
+    /** Sum of amountDue over PAID bills */
+    @Column(name = "paid_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal paidAmount;
+
+    // Getters & setters
+    public int getStripe() { return stripe; }
+    public void setStripe(int stripe) { this.stripe = stripe; }
+
+    public long getTotalBills() { return totalBills; }
+    public void setTotalBills(long totalBills) { this.totalBills = totalBills; }
+
+    public long getPendingBills() { return pendingBills; }
+    public void setPendingBills(long pendingBills) { this.pendingBills = pendingBills; }
+
+    public long getPaidBills() { return paidBills; }
+    public void setPaidBills(long paidBills) { this.paidBills = paidBills; }
+
+    public long getOverdueBills() { return overdueBills; }
+    public void setOverdueBills(long overdueBills) { this.overdueBills = overdueBills; }
+
+    public BigDecimal getPaidAmount() { return paidAmount; }
+    public void setPaidAmount(BigDecimal paidAmount) { this.paidAmount = paidAmount; }
+}
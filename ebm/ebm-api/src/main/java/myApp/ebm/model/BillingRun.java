@@ -0,0 +1,77 @@
+package myApp.ebm.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One monthly billing run over the whole customer base.
+ * The work is split into {@link BillingRunPartition}s by customer id range.
+ */
+@Entity
+@Table(name = "billing_runs")
+public class BillingRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Billing period in YYYY-MM format */
+    @Column(name = "billing_month", nullable = false, length = 7)
+    private String billingMonth;
+
+    /** Amount charged on every bill of this run */
+    @Column(name = "amount_due", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amountDue;
+
+    /** Optional due date; bills default to issue date + 15 days */
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    // RUNNING, COMPLETED, FAILED
+    @Column(nullable = false, length = 10)
+    private String status = "RUNNING";
+
+    @Column(nullable = false)
+    private int partitions;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.startedAt == null) {
+            this.startedAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getBillingMonth() { return billingMonth; }
+    public void setBillingMonth(String billingMonth) { this.billingMonth = billingMonth; }
+
+    public BigDecimal getAmountDue() { return amountDue; }
+    public void setAmountDue(BigDecimal amountDue) { this.amountDue = amountDue; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,72 @@
+package myApp.ebm.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A customer-id range of a {@link BillingRun}.
+ * lastCustomerId is the checkpoint: it is committed together with each
+ * chunk of bills, so a resumed partition continues right after it.
+ */
+@Entity
+@Table(name = "billing_run_partitions")
+public class BillingRunPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    /** Inclusive customer id range */
+    @Column(name = "from_customer_id", nullable = false)
+    private long fromCustomerId;
+
+    @Column(name = "to_customer_id", nullable = false)
+    private long toCustomerId;
+
+    /** Highest customer id already billed (fromCustomerId - 1 before the first chunk) */
+    @Column(name = "last_customer_id", nullable = false)
+    private long lastCustomerId;
+
+    @Column(name = "customers_processed", nullable = false)
+    private long customersProcessed;
+
+    @Column(name = "bills_created", nullable = false)
+    private long billsCreated;
+
+    // PENDING, RUNNING, COMPLETED, FAILED
+    @Column(nullable = false, length = 10)
+    private String status = "PENDING";
+
+    // Getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+
+    public int getPartitionNo() { return partitionNo; }
+    public void setPartitionNo(int partitionNo) { this.partitionNo = partitionNo; }
+
+    public long getFromCustomerId() { return fromCustomerId; }
+    public void setFromCustomerId(long fromCustomerId) { this.fromCustomerId = fromCustomerId; }
+
+    public long getToCustomerId() { return toCustomerId; }
+    public void setToCustomerId(long toCustomerId) { this.toCustomerId = toCustomerId; }
+
+    public long getLastCustomerId() { return lastCustomerId; }
+    public void setLastCustomerId(long lastCustomerId) { this.lastCustomerId = lastCustomerId; }
+
+    public long getCustomersProcessed() { return customersProcessed; }
+    public void setCustomersProcessed(long customersProcessed) { this.customersProcessed = customersProcessed; }
+
+    public long getBillsCreated() { return billsCreated; }
+    public void setBillsCreated(long billsCreated) { this.billsCreated = billsCreated; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
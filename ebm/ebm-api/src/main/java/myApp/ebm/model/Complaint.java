@@ -1,7 +1,6 @@
 package myApp.ebm.model;
 
 import jakarta.persistence.*;
-import myApp.ebm.util.IdGenerator;
 
 import java.time.LocalDateTime;
 
@@ -9,7 +8,10 @@ import java.time.LocalDateTime;
  * Represents a customer service complaint.
  */
 @Entity
-@Table(name = "complaints")
+@Table(name = "complaints", indexes = {
+    // kept in sync with db/migration/V2__hot_query_indexes.sql
+    @Index(name = "idx_complaints_customer_status", columnList = "customer_id, status")
+})
 public class Complaint {
 
     @Id
@@ -58,7 +60,6 @@ public class Complaint {
 
     @PrePersist
     protected void onCreate() {
-        this.complaintId = IdGenerator.generateComplaintId();
         this.createdAt   = LocalDateTime.now();
         this.updatedAt   = this.createdAt;
     }
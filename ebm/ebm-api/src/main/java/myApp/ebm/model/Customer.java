@@ -46,6 +46,10 @@ public class Customer {
     @Column(nullable = true, length = 10)
     private String pincode;
 
+    /** ETag stamp of the bill and complaint lists; only written by CustomerRepository.bumpListVersions */
+    @Column(name = "list_version", nullable = false, insertable = false, updatable = false)
+    private long listVersion;
+
     //Setters and Getters
     
     public Long getId() {
@@ -124,10 +128,11 @@ public class Customer {
     public void setState(String state) { this.state = state; }
     public String getPincode() { return pincode; }
     public void setPincode(String pincode) { this.pincode = pincode; }
+    public long getListVersion() { return listVersion; }
 
 
-    /** One‑to‑one link to login credentials */
-    @OneToOne(cascade = CascadeType.ALL)
+    /** One‑to‑one link to login credentials (LAZY so customer reads don't pull in User + roles) */
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "user_id", nullable = false, 
                 foreignKey = @ForeignKey(name = "fk_customer_user"))
     @JsonBackReference // This is the "child" side, it will be ignored
@@ -0,0 +1,92 @@
+package myApp.ebm.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One import of a meter-reading CSV file.
+ * committedOffset is the checkpoint: every line that starts before it has
+ * been stored or written to the rejects file, so a resumed import continues there.
+ */
+@Entity
+@Table(name = "meter_imports")
+public class MeterImport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_path", nullable = false, length = 1024)
+    private String filePath;
+
+    /** Bad rows go here as: byte offset, reason, original line */
+    @Column(name = "rejects_path", nullable = false, length = 1024)
+    private String rejectsPath;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Column(name = "committed_offset", nullable = false)
+    private long committedOffset;
+
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+
+    @Column(name = "rows_rejected", nullable = false)
+    private long rowsRejected;
+
+    // RUNNING, COMPLETED, FAILED
+    @Column(nullable = false, length = 10)
+    private String status = "RUNNING";
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.startedAt == null) {
+            this.startedAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+
+    public String getRejectsPath() { return rejectsPath; }
+    public void setRejectsPath(String rejectsPath) { this.rejectsPath = rejectsPath; }
+
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+    public long getCommittedOffset() { return committedOffset; }
+    public void setCommittedOffset(long committedOffset) { this.committedOffset = committedOffset; }
+
+    public long getRowsImported() { return rowsImported; }
+    public void setRowsImported(long rowsImported) { this.rowsImported = rowsImported; }
+
+    public long getRowsRejected() { return rowsRejected; }
+    public void setRowsRejected(long rowsRejected) { this.rowsRejected = rowsRejected; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
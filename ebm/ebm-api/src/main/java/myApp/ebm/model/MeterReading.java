@@ -0,0 +1,52 @@
+package myApp.ebm.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Units a customer's meter recorded for one day.
+ * Written in bulk by the CSV importer; see {@link MeterImport}.
+ */
+@Entity
+@Table(
+    name = "meter_readings",
+    uniqueConstraints = @UniqueConstraint(name = "uk_meter_readings_customer_date",
+            columnNames = {"customer_id", "reading_date"})
+)
+public class MeterReading {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customer;
+
+    @Column(name = "reading_date", nullable = false)
+    private LocalDate readingDate;
+
+    @Column(nullable = false)
+    private long units;
+
+    /** Import that last wrote this reading */
+    @Column(name = "import_id")
+    private Long importId;
+
+    // Getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Customer getCustomer() { return customer; }
+    public void setCustomer(Customer customer) { this.customer = customer; }
+
+    public LocalDate getReadingDate() { return readingDate; }
+    public void setReadingDate(LocalDate readingDate) { this.readingDate = readingDate; }
+
+    public long getUnits() { return units; }
+    public void setUnits(long units) { this.units = units; }
+
+    public Long getImportId() { return importId; }
+    public void setImportId(Long importId) { this.importId = importId; }
+}
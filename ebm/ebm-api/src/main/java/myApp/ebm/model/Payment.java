@@ -0,0 +1,75 @@
+package myApp.ebm.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only payment ledger.
+ * Written once when a payment is applied and never changed; the bill's
+ * amountDue is the cached balance, balanceAfter is its value after this entry.
+ */
+@Entity
+@Table(name = "payments", indexes = {
+    // kept in sync with db/migration/V11__payment_ledger.sql
+    @Index(name = "idx_payments_bill_created", columnList = "bill_id, created_at"),
+    @Index(name = "idx_payments_customer_created_id", columnList = "customer_id, created_at, id"),
+    @Index(name = "idx_payments_created_id", columnList = "created_at, id")
+})
+public class Payment {
+
+    /** Pooled sequence; allocationSize must match INCREMENT BY in V11 */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false, unique = true, length = 32, updatable = false)
+    private String paymentId;
+
+    /** Business key of the bill paid */
+    @Column(name = "bill_id", nullable = false, length = 32, updatable = false)
+    private String billId;
+
+    @Column(name = "customer_id", nullable = false, updatable = false)
+    private Long customerId;
+
+    /** Null only for entries migrated from before the ledger existed */
+    @Column(precision = 10, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after", nullable = false, precision = 10, scale = 2, updatable = false)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters & setters
+    public Long getId() { return id; }
+
+    public String getPaymentId() { return paymentId; }
+    public void setPaymentId(String paymentId) { this.paymentId = paymentId; }
+
+    public String getBillId() { return billId; }
+    public void setBillId(String billId) { this.billId = billId; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(BigDecimal balanceAfter) { this.balanceAfter = balanceAfter; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,80 @@
+package myApp.ebm.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One version of a named tariff (e.g. DOMESTIC v3).
+ * Versions are never edited; a change is a new version with a later effectiveFrom.
+ */
+@Entity
+@Table(name = "tariffs")
+public class Tariff {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 30)
+    private String code;
+
+    @Column(nullable = false)
+    private int version;
+
+    /** First day this version applies to (by bill issue date) */
+    @Column(name = "effective_from", nullable = false)
+    private LocalDate effectiveFrom;
+
+    /** Flat monthly charge, in paise */
+    @Column(name = "fixed_charge_paise", nullable = false)
+    private long fixedChargePaise;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Energy slabs in ascending order */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "tariff_slabs", joinColumns = @JoinColumn(name = "tariff_id"))
+    @OrderColumn(name = "slab_no")
+    private List<TariffSlab> slabs = new ArrayList<>();
+
+    /** Optional time-of-use bands */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "tariff_tou_bands", joinColumns = @JoinColumn(name = "tariff_id"))
+    @OrderColumn(name = "band_no")
+    private List<TariffTouBand> touBands = new ArrayList<>();
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public LocalDate getEffectiveFrom() { return effectiveFrom; }
+    public void setEffectiveFrom(LocalDate effectiveFrom) { this.effectiveFrom = effectiveFrom; }
+
+    public long getFixedChargePaise() { return fixedChargePaise; }
+    public void setFixedChargePaise(long fixedChargePaise) { this.fixedChargePaise = fixedChargePaise; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public List<TariffSlab> getSlabs() { return slabs; }
+    public void setSlabs(List<TariffSlab> slabs) { this.slabs = slabs; }
+
+    public List<TariffTouBand> getTouBands() { return touBands; }
+    public void setTouBands(List<TariffTouBand> touBands) { this.touBands = touBands; }
+}
@@ -0,0 +1,32 @@
+package myApp.ebm.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * One energy slab of a {@link Tariff}: units up to uptoUnits (cumulative)
+ * are charged at ratePaisePerUnit. uptoUnits == null marks the open-ended last slab.
+ */
+@Embeddable
+public class TariffSlab {
+
+    @Column(name = "upto_units")
+    private Long uptoUnits;
+
+    @Column(name = "rate_paise_per_unit", nullable = false)
+    private long ratePaisePerUnit;
+
+    public TariffSlab() {
+    }
+
+    public TariffSlab(Long uptoUnits, long ratePaisePerUnit) {
+        this.uptoUnits = uptoUnits;
+        this.ratePaisePerUnit = ratePaisePerUnit;
+    }
+
+    public Long getUptoUnits() { return uptoUnits; }
+    public void setUptoUnits(Long uptoUnits) { this.uptoUnits = uptoUnits; }
+
+    public long getRatePaisePerUnit() { return ratePaisePerUnit; }
+    public void setRatePaisePerUnit(long ratePaisePerUnit) { this.ratePaisePerUnit = ratePaisePerUnit; }
+}
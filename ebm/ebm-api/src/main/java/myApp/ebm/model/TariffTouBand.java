@@ -0,0 +1,39 @@
+package myApp.ebm.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Time-of-use band of a {@link Tariff}: units consumed in hours
+ * [startHour, endHour) carry an extra per-unit charge (negative = rebate).
+ */
+@Embeddable
+public class TariffTouBand {
+
+    @Column(name = "start_hour", nullable = false)
+    private int startHour;
+
+    @Column(name = "end_hour", nullable = false)
+    private int endHour;
+
+    @Column(name = "adjustment_paise_per_unit", nullable = false)
+    private long adjustmentPaisePerUnit;
+
+    public TariffTouBand() {
+    }
+
+    public TariffTouBand(int startHour, int endHour, long adjustmentPaisePerUnit) {
+        this.startHour = startHour;
+        this.endHour = endHour;
+        this.adjustmentPaisePerUnit = adjustmentPaisePerUnit;
+    }
+
+    public int getStartHour() { return startHour; }
+    public void setStartHour(int startHour) { this.startHour = startHour; }
+
+    public int getEndHour() { return endHour; }
+    public void setEndHour(int endHour) { this.endHour = endHour; }
+
+    public long getAdjustmentPaisePerUnit() { return adjustmentPaisePerUnit; }
+    public void setAdjustmentPaisePerUnit(long adjustmentPaisePerUnit) { this.adjustmentPaisePerUnit = adjustmentPaisePerUnit; }
+}
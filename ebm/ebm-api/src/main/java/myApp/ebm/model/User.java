@@ -32,7 +32,7 @@ public class User {
     @Column(nullable = true, length = 100)
     private String name; 
     
-    /** Encrypted via EncryptionUtil */
+    /** BCrypt hash (PasswordService); older rows hold EncryptionUtil Base64 until their next login */
     @Column(nullable = false)
     private String password;
 
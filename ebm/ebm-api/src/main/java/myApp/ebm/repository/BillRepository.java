@@ -1,17 +1,41 @@
 package myApp.ebm.repository;
 
+import myApp.ebm.dto.bill.BillResponse;
 import myApp.ebm.model.Bill;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 public interface BillRepository extends JpaRepository<Bill, Long> {
     Optional<Bill> findByBillId(String billId);
 
+    /** Bills for a batch of payments (PaymentPipeline), one IN query */
+    List<Bill> findByBillIdIn(Collection<String> billIds);
+
+    /** First page of all bills, newest first (keyset paging) */
+    List<Bill> findAllByOrderByIssueDateDescIdDesc(Limit limit);
+
+    /** Next page of all bills strictly after the (issueDate, id) cursor */
+    @Query("SELECT b FROM Bill b "
+         + "WHERE b.issueDate < :issueDate OR (b.issueDate = :issueDate AND b.id < :id) "
+         + "ORDER BY b.issueDate DESC, b.id DESC")
+    List<Bill> findPageAfter(@Param("issueDate") LocalDate issueDate,
+                             @Param("id") Long id,
+                             Limit limit);
+
     /** All bills for a given customer */
     List<Bill> findByCustomerConsumerId(String consumerId);
 
@@ -28,7 +52,88 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
     @Query("SELECT COALESCE(SUM(b.amountDue), 0) FROM Bill b WHERE b.status = :status")
     BigDecimal sumAmountDueByStatus(@Param("status") String status);
 
-	boolean existsByBillId(String billId);
+    /** [min id, max id] of bills with a status and due before a date; both null if none */
+    @Query("SELECT MIN(b.id), MAX(b.id) FROM Bill b WHERE b.status = :status AND b.dueDate < :before")
+    List<Object[]> findIdRangeByStatusAndDueDateBefore(@Param("status") String status,
+                                                       @Param("before") LocalDate before);
+
+    /**
+     * Bulk status change for one id range of the overdue sweep.
+     * Bypasses the persistence context; run in a short transaction of its own.
+     * Bumps version so a payment holding one of these bills retries.
+     */
+    @Modifying
+    @Query("UPDATE Bill b SET b.status = :to, b.version = b.version + 1 "
+            + "WHERE b.id BETWEEN :fromId AND :toId "
+            + "AND b.status = :from AND b.dueDate < :before")
+    int updateStatusInIdRange(@Param("fromId") long fromId,
+                              @Param("toId") long toId,
+                              @Param("from") String from,
+                              @Param("to") String to,
+                              @Param("before") LocalDate before);
+
+    /** Full scan: [status, count, sum of amountDue] per status, for rebuilding the stats */
+    @Query("SELECT b.status, COUNT(b), COALESCE(SUM(b.amountDue), 0) FROM Bill b GROUP BY b.status")
+    List<Object[]> countAndSumByStatus();
+
+    // --- Read-only projections: select straight into BillResponse, no entity hydration ---
+
+    String BILL_RESPONSE = "SELECT new myApp.ebm.dto.bill.BillResponse("
+            + "b.billId, b.billingMonth, b.amountDue, b.issueDate, b.dueDate, "
+            + "b.status, b.paymentId, b.paymentDate) FROM Bill b ";
+
+    @Query(BILL_RESPONSE + "WHERE b.billId = :billId")
+    Optional<BillResponse> findResponseByBillId(@Param("billId") String billId);
+
+    @Query(BILL_RESPONSE + "ORDER BY b.issueDate DESC, b.id DESC")
+    List<BillResponse> findAllResponses();
+
+    @Query(BILL_RESPONSE + "WHERE b.status = :status ORDER BY b.issueDate DESC, b.id DESC")
+    List<BillResponse> findResponsesByStatus(@Param("status") String status);
+
+    /** Customer bill history, newest first */
+    @Query(BILL_RESPONSE + "WHERE b.customer.consumerId = :consumerId "
+         + "ORDER BY b.issueDate DESC, b.id DESC")
+    List<BillResponse> findResponsesByConsumerId(@Param("consumerId") String consumerId);
+
+    /** Customer bills in one status, newest first */
+    @Query(BILL_RESPONSE + "WHERE b.customer.consumerId = :consumerId AND b.status = :status "
+         + "ORDER BY b.issueDate DESC, b.id DESC")
+    List<BillResponse> findResponsesByConsumerIdAndStatus(@Param("consumerId") String consumerId,
+                                                          @Param("status") String status);
+
+    /** Customer paid bills, most recently paid first */
+    @Query(BILL_RESPONSE + "WHERE b.customer.consumerId = :consumerId AND b.status = 'PAID' "
+         + "ORDER BY b.paymentDate DESC, b.id DESC")
+    List<BillResponse> findPaidResponsesByConsumerId(@Param("consumerId") String consumerId);
+
+    // --- Streaming reads for exports: must be consumed inside a read-only transaction ---
+
+    /** JDBC fetch size used by the streaming export queries */
+    String EXPORT_FETCH_SIZE = "1000";
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Bill b ORDER BY b.id")
+    Stream<Bill> streamAll();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Bill b WHERE b.status = :status ORDER BY b.id")
+    Stream<Bill> streamByStatus(@Param("status") String status);
+
+    boolean existsByCustomerIdAndBillingMonth(Long customerId, String billingMonth);
+
+    /** Another bill than id already holds this customer and month */
+    boolean existsByCustomerIdAndBillingMonthAndIdNot(Long customerId, String billingMonth, Long id);
 
-	boolean existsByPaymentId(String paymentId);
+    /** Which of the given customers already have a bill for the month */
+    @Query("SELECT b.customer.id FROM Bill b "
+         + "WHERE b.billingMonth = :billingMonth AND b.customer.id IN :customerIds")
+    List<Long> findBilledCustomerIds(@Param("billingMonth") String billingMonth,
+                                     @Param("customerIds") Collection<Long> customerIds);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package myApp.ebm.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import myApp.ebm.model.BillStatsStripe;
+
+public interface BillStatsRepository extends JpaRepository<BillStatsStripe, Integer> {
+
+    /** Add a delta to one stripe, in the caller's transaction */
+    @Modifying
+    @Query("UPDATE BillStatsStripe s SET s.totalBills = s.totalBills + :total, "
+            + "s.pendingBills = s.pendingBills + :pending, s.paidBills = s.paidBills + :paid, "
+            + "s.overdueBills = s.overdueBills + :overdue, s.paidAmount = s.paidAmount + :paidAmount "
+            + "WHERE s.stripe = :stripe")
+    int addToStripe(@Param("stripe") int stripe,
+                    @Param("total") long total,
+                    @Param("pending") long pending,
+                    @Param("paid") long paid,
+                    @Param("overdue") long overdue,
+                    @Param("paidAmount") BigDecimal paidAmount);
+
+    /** All stripes, locked so no delta lands while they are rebuilt */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BillStatsStripe s ORDER BY s.stripe")
+    List<BillStatsStripe> lockAll();
+}
@@ -0,0 +1,12 @@
+package myApp.ebm.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import myApp.ebm.model.BillingRunPartition;
+
+public interface BillingRunPartitionRepository extends JpaRepository<BillingRunPartition, Long> {
+
+    List<BillingRunPartition> findByRunIdOrderByPartitionNo(Long runId);
+}
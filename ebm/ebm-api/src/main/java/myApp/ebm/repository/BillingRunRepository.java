@@ -0,0 +1,12 @@
+package myApp.ebm.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import myApp.ebm.model.BillingRun;
+
+public interface BillingRunRepository extends JpaRepository<BillingRun, Long> {
+
+    Optional<BillingRun> findFirstByBillingMonthAndStatus(String billingMonth, String status);
+}
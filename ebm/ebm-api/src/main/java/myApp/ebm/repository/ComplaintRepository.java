@@ -2,12 +2,18 @@ package myApp.ebm.repository;
 
 import java.util.*; // Optional , List
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import myApp.ebm.dto.complaint.ComplaintResponse;
 import myApp.ebm.model.Complaint;
 
 public interface ComplaintRepository extends JpaRepository<Complaint,Long>{
 	       
+	       // Write paths map the result with toDto, which reads customer: fetch it in the same query
+	       @EntityGraph(attributePaths = "customer")
 	       Optional<Complaint>findByComplaintId(String complaintId);
 	       
 	       List<Complaint>findByCustomerConsumerIdAndStatus(String consumerId, String status);
@@ -17,4 +23,24 @@ public interface ComplaintRepository extends JpaRepository<Complaint,Long>{
 	       // --- THIS IS THE FIX ---
 	       // Change the return type from Optional<Complaint> to List<Complaint>
 	       List<Complaint> findByCustomerConsumerId(String consumerId);
+
+	       // --- Read-only projections: select straight into ComplaintResponse ---
+
+	       String COMPLAINT_RESPONSE = "SELECT new myApp.ebm.dto.complaint.ComplaintResponse("
+	               + "c.complaintId, cu.consumerId, cu.name, c.type, c.category, c.problem, "
+	               + "c.landmark, c.status, c.createdAt, c.updatedAt, c.adminResponse) "
+	               + "FROM Complaint c JOIN c.customer cu ";
+
+	       @Query(COMPLAINT_RESPONSE + "WHERE c.complaintId = :complaintId")
+	       Optional<ComplaintResponse> findResponseByComplaintId(@Param("complaintId") String complaintId);
+
+	       @Query(COMPLAINT_RESPONSE + "ORDER BY c.id")
+	       List<ComplaintResponse> findAllResponses();
+
+	       @Query(COMPLAINT_RESPONSE + "WHERE cu.consumerId = :consumerId ORDER BY c.id")
+	       List<ComplaintResponse> findResponsesByConsumerId(@Param("consumerId") String consumerId);
+
+	       @Query(COMPLAINT_RESPONSE + "WHERE cu.consumerId = :consumerId AND c.status = :status ORDER BY c.id")
+	       List<ComplaintResponse> findResponsesByConsumerIdAndStatus(@Param("consumerId") String consumerId,
+	                                                                  @Param("status") String status);
 }
@@ -3,19 +3,63 @@ package myApp.ebm.repository;
 import myApp.ebm.model.Customer;
 import myApp.ebm.model.User;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 public interface CustomerRepository extends JpaRepository<Customer,Long> {
 	        
 	         Optional<Customer>findByConsumerId(String consumerId);
 	         
+	         /** Bulk lookup: one IN query for a whole chunk of consumer IDs */
+	         List<Customer>findByConsumerIdIn(Collection<String> consumerIds);
+	         
 	         boolean existsByConsumerId(String consumerId);
 	         
 	         boolean existsByEmail(String email);
 	         
 	         Customer findByUser(User user);
+	         
+	         /** Id bounds of billable (CUSTOMER-type) accounts, for partitioning billing runs */
+	         @Query("SELECT MIN(c.id) FROM Customer c WHERE c.user.userType = 'CUSTOMER'")
+	         Long findMinBillableId();
+	         
+	         @Query("SELECT MAX(c.id) FROM Customer c WHERE c.user.userType = 'CUSTOMER'")
+	         Long findMaxBillableId();
+	         
+	         /** Next chunk of billable customer ids in (afterId, toId], ascending */
+	         @Query("SELECT c.id FROM Customer c "
+	              + "WHERE c.id > :afterId AND c.id <= :toId AND c.user.userType = 'CUSTOMER' "
+	              + "ORDER BY c.id")
+	         List<Long> findBillableIdsInRange(@Param("afterId") long afterId,
+	                                           @Param("toId") long toId,
+	                                           Limit limit);
+	         
+	         /** [id, listVersion] of the customer with this consumerId; empty if none */
+	         @Query("SELECT c.id, c.listVersion FROM Customer c WHERE c.consumerId = :consumerId")
+	         List<Object[]> findListVersion(@Param("consumerId") String consumerId);
+	         
+	         /** Bump the list stamps of these customers; holds their rows until commit */
+	         @Modifying
+	         @Query("UPDATE Customer c SET c.listVersion = c.listVersion + 1 WHERE c.id IN :ids")
+	         int bumpListVersions(@Param("ids") Collection<Long> ids);
+	         
+	         /** Bump the list stamps of the owners of one id range of the overdue sweep, before it marks them */
+	         @Modifying
+	         @Query("UPDATE Customer c SET c.listVersion = c.listVersion + 1 WHERE c.id IN ("
+	              + "SELECT b.customer.id FROM Bill b WHERE b.id BETWEEN :fromId AND :toId "
+	              + "AND b.status = :status AND b.dueDate < :before)")
+	         int bumpListVersionsOfBills(@Param("fromId") long fromId,
+	                                     @Param("toId") long toId,
+	                                     @Param("status") String status,
+	                                     @Param("before") LocalDate before);
 
 }
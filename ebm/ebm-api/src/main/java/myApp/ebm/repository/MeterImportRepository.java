@@ -0,0 +1,12 @@
+package myApp.ebm.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import myApp.ebm.model.MeterImport;
+
+public interface MeterImportRepository extends JpaRepository<MeterImport, Long> {
+
+    Optional<MeterImport> findFirstByFilePathAndStatus(String filePath, String status);
+}
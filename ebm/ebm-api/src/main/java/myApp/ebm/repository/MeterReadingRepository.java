@@ -0,0 +1,22 @@
+package myApp.ebm.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import myApp.ebm.dto.meter.MeterReadingResponse;
+import myApp.ebm.model.MeterReading;
+
+public interface MeterReadingRepository extends JpaRepository<MeterReading, Long> {
+
+    /** A customer's readings in [from, to], oldest first */
+    @Query("SELECT new myApp.ebm.dto.meter.MeterReadingResponse(r.readingDate, r.units) "
+            + "FROM MeterReading r WHERE r.customer.consumerId = :consumerId "
+            + "AND r.readingDate BETWEEN :from AND :to ORDER BY r.readingDate")
+    List<MeterReadingResponse> findResponsesByConsumerId(@Param("consumerId") String consumerId,
+                                                         @Param("from") LocalDate from,
+                                                         @Param("to") LocalDate to);
+}
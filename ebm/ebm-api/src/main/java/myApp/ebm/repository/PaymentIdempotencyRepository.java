@@ -0,0 +1,17 @@
+package myApp.ebm.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import myApp.ebm.model.PaymentIdempotency;
+
+public interface PaymentIdempotencyRepository extends JpaRepository<PaymentIdempotency, String> {
+
+    @Modifying
+    @Query("DELETE FROM PaymentIdempotency p WHERE p.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
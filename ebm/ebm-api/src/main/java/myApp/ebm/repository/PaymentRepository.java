@@ -0,0 +1,73 @@
+package myApp.ebm.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
+import myApp.ebm.dto.bill.PaymentResponse;
+import myApp.ebm.model.Payment;
+
+/**
+ * The payment ledger is insert-only: there are no update or delete queries.
+ */
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    /** One bill's payments in the order they were applied */
+    List<Payment> findByBillIdOrderByCreatedAtAscIdAsc(String billId);
+
+    /** First page of all payments, newest first (keyset paging) */
+    List<Payment> findAllByOrderByCreatedAtDescIdDesc(Limit limit);
+
+    /** Next page of all payments strictly after the (createdAt, id) cursor */
+    @Query("SELECT p FROM Payment p "
+         + "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) "
+         + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Limit limit);
+
+    /** First page of a customer's payments, newest first */
+    List<Payment> findByCustomerIdOrderByCreatedAtDescIdDesc(Long customerId, Limit limit);
+
+    /** Next page of a customer's payments strictly after the cursor */
+    @Query("SELECT p FROM Payment p WHERE p.customerId = :customerId "
+         + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+         + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findCustomerPageAfter(@Param("customerId") Long customerId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    // --- Payment history lists: one PaymentResponse per ledger entry, as payBill answered it ---
+
+    String PAYMENT_RESPONSE = "SELECT new myApp.ebm.dto.bill.PaymentResponse("
+            + "CASE WHEN p.balanceAfter = 0 THEN 'Bill fully paid' "
+            + "ELSE CONCAT('Partial payment received, remaining due: ', CAST(p.balanceAfter AS String)) END, "
+            + "p.paymentId, CASE WHEN p.balanceAfter = 0 THEN 'PAID' ELSE 'PARTIAL' END) FROM Payment p ";
+
+    /** Every payment, newest first */
+    @Query(PAYMENT_RESPONSE + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PaymentResponse> findAllResponses();
+
+    /** A customer's payments, newest first; empty for an unknown consumerId */
+    @Query(PAYMENT_RESPONSE + "WHERE p.customerId = "
+         + "(SELECT c.id FROM Customer c WHERE c.consumerId = :consumerId) "
+         + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PaymentResponse> findResponsesByConsumerId(@Param("consumerId") String consumerId);
+
+    /** Whole ledger for exports; consume inside a read-only transaction */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BillRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p ORDER BY p.createdAt, p.id")
+    Stream<Payment> streamAll();
+}
@@ -0,0 +1,20 @@
+package myApp.ebm.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import myApp.ebm.model.Tariff;
+
+public interface TariffRepository extends JpaRepository<Tariff, Long> {
+
+    /** All versions of all tariffs, for compiling the lookup tables */
+    List<Tariff> findAllByOrderByCodeAscEffectiveFromAscVersionAsc();
+
+    List<Tariff> findByCodeOrderByVersionAsc(String code);
+
+    @Query("SELECT COALESCE(MAX(t.version), 0) FROM Tariff t WHERE t.code = :code")
+    int findMaxVersion(@Param("code") String code);
+}
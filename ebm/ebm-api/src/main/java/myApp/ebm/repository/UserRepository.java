@@ -1,9 +1,13 @@
 package myApp.ebm.repository;
 import myApp.ebm.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 public interface UserRepository extends JpaRepository<User,Long> {
@@ -15,4 +19,19 @@ public interface UserRepository extends JpaRepository<User,Long> {
               boolean existsByUsername(String username);
     
              boolean existsByEmail(String email);
+
+    /**
+     * Everything login needs, in one query and without loading the entity:
+     * [id, username, name, password, status, userType, consumerId, role],
+     * one row per role. consumerId is null for admins; no rows if there is
+     * no such user.
+     */
+    @Query("SELECT u.id, u.username, u.name, u.password, u.status, u.userType, c.consumerId, r.name "
+            + "FROM User u LEFT JOIN u.customer c LEFT JOIN u.roles r WHERE u.username = :username")
+    List<Object[]> findLoginRows(@Param("username") String username);
+
+    /** Replace a stored password (rehash at login), in the caller's transaction */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") long id, @Param("password") String password);
 }
@@ -0,0 +1,188 @@
+package myApp.ebm.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import myApp.ebm.exception.InvalidTokenException;
+
+/**
+ * Issues and verifies the HMAC-SHA256 signed access tokens handed out at
+ * login. A token carries everything an authorization check needs (user id,
+ * user type, roles, consumerId, expiry), so verifying one never touches
+ * the database.
+ *
+ * Format: base64url(userId|userType|roles|consumerId|expiresAtEpochSecond)
+ * "." base64url(signature), where userType, roles (comma-joined) and
+ * consumerId are each base64url-encoded again: consumerId is chosen by the
+ * customer, and a raw "|" in it must not be able to forge a field. Tokens live ebm.auth.token-ttl-minutes and are
+ * signed with ebm.auth.token-secret (at least 32 bytes). Without a secret a
+ * random one is made at startup: tokens then stop working on restart and
+ * are not accepted by other instances.
+ *
+ * Verified tokens are cached (at most ebm.auth.token-cache-size), so a
+ * client repeating its token costs a map lookup instead of an HMAC. Only
+ * good tokens are cached; the entry is still checked against its expiry.
+ * The cache is published as the cache.* meters tagged cache=accessTokens.
+ */
+@Service
+public class AccessTokenService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /** What a verified token says about its holder */
+    public record Claims(long userId, String userType, Set<String> roles, String consumerId, Instant expiresAt) {
+
+        public boolean hasRole(String role) {
+            return roles.contains(role);
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Cache<String, Claims> verified;
+    /** Mac instances are not thread-safe */
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public AccessTokenService(@Value("${ebm.auth.token-secret:}") String secret,
+                              @Value("${ebm.auth.token-ttl-minutes:60}") long ttlMinutes,
+                              @Value("${ebm.auth.token-cache-size:10000}") long cacheSize) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secret.isEmpty()) {
+            log.warn("ebm.auth.token-secret is not set: signing access tokens with a random key, "
+                    + "they will not survive a restart");
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+        } else if (secretBytes.length < 32) {
+            throw new IllegalStateException("ebm.auth.token-secret must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        newMac();
+    }
+
+    /** Token lifetime, as reported to the client at login */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /** A token for this user, valid for the configured lifetime */
+    public String issue(long userId, String userType, Set<String> roles, String consumerId) {
+        return issue(userId, userType, roles, consumerId, Instant.now().plus(ttl));
+    }
+
+    public String issue(long userId, String userType, Set<String> roles, String consumerId, Instant expiresAt) {
+        String payload = userId + "|" + field(userType) + "|" + field(String.join(",", roles)) + "|"
+                + field(consumerId == null ? "" : consumerId) + "|" + expiresAt.getEpochSecond();
+        byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(body) + "." + ENCODER.encodeToString(sign(body));
+    }
+
+    /**
+     * The claims of a token this service issued that has not expired.
+     *
+     * @throws InvalidTokenException if the token is malformed, wrongly signed or expired
+     */
+    public Claims verify(String token) {
+        Claims claims = verified.getIfPresent(token);
+        if (claims == null) {
+            claims = parse(token);
+            verified.put(token, claims);
+        }
+        if (!claims.expiresAt().isAfter(Instant.now())) {
+            verified.invalidate(token);
+            throw new InvalidTokenException("Access token has expired");
+        }
+        return claims;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verified, "accessTokens");
+    }
+
+    private Claims parse(String token) {
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            throw new InvalidTokenException("Malformed access token");
+        }
+        byte[] body;
+        byte[] signature;
+        try {
+            body = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Malformed access token");
+        }
+        if (!MessageDigest.isEqual(sign(body), signature)) {
+            throw new InvalidTokenException("Access token signature does not match");
+        }
+        // checked anyway: a payload we signed is only as well-formed as what went into it
+        String[] f = new String(body, StandardCharsets.UTF_8).split("\\|", -1);
+        if (f.length != 5) {
+            throw new InvalidTokenException("Malformed access token");
+        }
+        try {
+            String roleList = unfield(f[2]);
+            String consumerId = unfield(f[3]);
+            Set<String> roles = roleList.isEmpty() ? Set.of() : Set.of(roleList.split(","));
+            return new Claims(Long.parseLong(f[0]), unfield(f[1]), roles, consumerId.isEmpty() ? null : consumerId,
+                    Instant.ofEpochSecond(Long.parseLong(f[4])));
+        } catch (IllegalArgumentException e) {
+            // also NumberFormatException
+            throw new InvalidTokenException("Malformed access token");
+        }
+    }
+
+    /** One string field of the payload, encoded so it cannot contain the "|" separator */
+    private static String field(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String unfield(String encoded) {
+        return new String(DECODER.decode(encoded), StandardCharsets.UTF_8);
+    }
+
+    private byte[] sign(byte[] body) {
+        return macs.get().doFinal(body);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign access tokens with " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package myApp.ebm.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import myApp.ebm.dto.bill.BatchBillResponse;
+import myApp.ebm.dto.bill.BatchBillResult;
+import myApp.ebm.dto.bill.CreateBillRequest;
+import myApp.ebm.exception.BadRequestException;
+import myApp.ebm.exception.BillAlreadyExistsException;
+import myApp.ebm.exception.TariffException;
+import myApp.ebm.model.Bill;
+import myApp.ebm.model.Customer;
+import myApp.ebm.repository.BillRepository;
+import myApp.ebm.repository.CustomerRepository;
+
+/**
+ * Bulk bill creation for POST /api/bills/batch.
+ *
+ * The request body (a JSON array of CreateBillRequest) is read with a
+ * streaming parser and processed in chunks. Each chunk resolves its
+ * consumer IDs and existing (customer, month) bills with IN queries,
+ * and is inserted in its own transaction through JDBC batching. If that
+ * transaction fails, the chunk's rows are retried one per transaction so
+ * that only the rows the database refuses are rejected.
+ */
+@Service
+public class BillBatchService {
+
+    /** Rows per chunk; matches spring.jpa.properties.hibernate.jdbc.batch_size */
+    static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private BillRepository billRepo;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private CustomerVersionService customerVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate tx;
+
+    public BillBatchService(PlatformTransactionManager txManager) {
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /**
+     * Create bills from a JSON array read off the given stream.
+     *
+     * @return one result per input row, in input order
+     * @throws BadRequestException if the body is not a JSON array
+     */
+    public BatchBillResponse createBills(InputStream body) throws IOException {
+        List<BatchBillResult> results = new ArrayList<>();
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Request body must be a JSON array of bills");
+            }
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode node = parser.readValueAsTree();
+                chunk.add(new Row(index++, node));
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(processChunk(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk(chunk));
+        }
+
+        int created = (int) results.stream()
+                .filter(r -> BatchBillResult.CREATED.equals(r.getStatus()))
+                .count();
+        return new BatchBillResponse(created, results.size() - created, results);
+    }
+
+    private List<BatchBillResult> processChunk(List<Row> rows) {
+        BatchBillResult[] out = new BatchBillResult[rows.size()];
+
+        // 1. bind + validate each row; rejected rows never reach the database
+        List<Integer> valid = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            try {
+                row.req = objectMapper.treeToValue(row.node, CreateBillRequest.class);
+            } catch (IOException | IllegalArgumentException e) {
+                out[i] = BatchBillResult.rejected(row.index, text(row.node, "consumerId"),
+                        "Malformed bill: " + e.getMessage());
+                continue;
+            }
+            Set<ConstraintViolation<CreateBillRequest>> violations = validator.validate(row.req);
+            if (!violations.isEmpty()) {
+                String msg = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                out[i] = BatchBillResult.rejected(row.index, row.req.getConsumerId(), msg);
+                continue;
+            }
+            valid.add(i);
+        }
+
+        if (!valid.isEmpty()) {
+            try {
+                tx.executeWithoutResult(status -> insertChunk(rows, valid, out));
+            } catch (RuntimeException e) {
+                // the whole chunk rolled back: retry its rows one by one so only the bad ones are rejected
+                for (int i : valid) {
+                    insertRow(rows, i, out);
+                }
+            }
+        }
+
+        List<BatchBillResult> results = new ArrayList<>(out.length);
+        for (BatchBillResult r : out) {
+            results.add(r);
+        }
+        return results;
+    }
+
+    /** One row in a transaction of its own, after its chunk failed as a whole */
+    private void insertRow(List<Row> rows, int i, BatchBillResult[] out) {
+        try {
+            tx.executeWithoutResult(status -> insertChunk(rows, List.of(i), out));
+        } catch (RuntimeException e) {
+            Row row = rows.get(i);
+            out[i] = BatchBillResult.rejected(row.index, row.req.getConsumerId(),
+                    "Insert failed: " + e.getMessage());
+        }
+    }
+
+    private void insertChunk(List<Row> rows, List<Integer> valid, BatchBillResult[] out) {
+        // 2. resolve all consumer IDs of the chunk in one IN query
+        Set<String> consumerIds = new HashSet<>();
+        for (int i : valid) {
+            consumerIds.add(rows.get(i).req.getConsumerId());
+        }
+        Map<String, Customer> customers = customerRepo.findByConsumerIdIn(consumerIds).stream()
+                .collect(Collectors.toMap(Customer::getConsumerId, Function.identity()));
+
+        // one bill per customer per month: drop rows already billed, in the DB or earlier in the chunk
+        Map<String, Set<Long>> billed = new HashMap<>();
+        for (int i : valid) {
+            billed.computeIfAbsent(rows.get(i).req.getBillingMonth(), m -> new HashSet<>());
+        }
+        List<Long> customerIds = customers.values().stream().map(Customer::getId).toList();
+        if (!customerIds.isEmpty()) {
+            billed.forEach((month, ids) -> ids.addAll(billRepo.findBilledCustomerIds(month, customerIds)));
+        }
+
+        List<Bill> bills = new ArrayList<>(valid.size());
+        List<Integer> billRows = new ArrayList<>(valid.size());
+        for (int i : valid) {
+            CreateBillRequest req = rows.get(i).req;
+            Customer customer = customers.get(req.getConsumerId());
+            if (customer == null) {
+                out[i] = BatchBillResult.rejected(rows.get(i).index, req.getConsumerId(),
+                        "Customer not found with consumerId: " + req.getConsumerId());
+                continue;
+            }
+            if (!billed.get(req.getBillingMonth()).add(customer.getId())) {
+                out[i] = BatchBillResult.rejected(rows.get(i).index, req.getConsumerId(),
+                        new BillAlreadyExistsException(req.getConsumerId(), req.getBillingMonth()).getMessage());
+                continue;
+            }
+            BigDecimal amountDue;
+            try {
+                amountDue = billService.amountDueFor(req);
+            } catch (TariffException e) {
+                billed.get(req.getBillingMonth()).remove(customer.getId());
+                out[i] = BatchBillResult.rejected(rows.get(i).index, req.getConsumerId(), e.getMessage());
+                continue;
+            }
+            Bill bill = new Bill();
+            bill.setCustomer(customer);
+            bill.setBillingMonth(req.getBillingMonth());
+            bill.setAmountDue(amountDue);
+            // issueDate and dueDate default in @PrePersist when omitted
+            bill.setIssueDate(req.getIssueDate());
+            bill.setDueDate(req.getDueDate());
+            bills.add(bill);
+            billRows.add(i);
+        }
+
+        // 3. billIds from the hi/lo allocator: no lookup needed
+        billService.assignBillIds(bills);
+
+        // 4. batched insert, then drop the chunk from the persistence context
+        billRepo.saveAll(bills);
+        BillStatsService.Delta delta = new BillStatsService.Delta();
+        Set<Long> billedIds = new HashSet<>();
+        for (Bill b : bills) {
+            delta.add(b.getStatus(), b.getAmountDue());
+            billedIds.add(b.getCustomer().getId());
+        }
+        statsService.record(delta);
+        customerVersions.bump(billedIds);
+        em.flush();
+        em.clear();
+
+        for (int k = 0; k < bills.size(); k++) {
+            int i = billRows.get(k);
+            out[i] = BatchBillResult.created(rows.get(i).index,
+                    rows.get(i).req.getConsumerId(), bills.get(k).getBillId());
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode v = node.get(field);
+        return v == null || v.isNull() ? null : v.asText();
+    }
+
+    /** One input row while its chunk is being processed */
+    private static final class Row {
+        final int index;
+        final JsonNode node;
+        CreateBillRequest req;
+
+        Row(int index, JsonNode node) {
+            this.index = index;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package myApp.ebm.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import myApp.ebm.dto.bill.BillResponse;
+import myApp.ebm.model.Bill;
+import myApp.ebm.model.Payment;
+import myApp.ebm.repository.BillRepository;
+import myApp.ebm.repository.PaymentRepository;
+
+/**
+ * Streams bills and payment ledger entries straight from a JPA cursor to
+ * the HTTP response. Rows are written and detached one at a time, so heap
+ * use stays flat however many rows are exported.
+ */
+@Service
+public class BillExportService {
+
+    /** Supported export encodings */
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    /** Flush to the client every this many rows so bytes keep flowing */
+    private static final int FLUSH_EVERY = 1000;
+
+    private static final String BILL_CSV_HEADER =
+            "billId,billingMonth,amountDue,issueDate,dueDate,status,paymentId,paymentDate";
+    private static final String PAYMENT_CSV_HEADER =
+            "paymentId,billId,amount,balanceAfter,paidAt";
+
+    @Autowired
+    private BillRepository billRepo;
+
+    @Autowired
+    private PaymentRepository paymentRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Write every bill, or only those in the given status, to out.
+     *
+     * @param status optional status filter; null exports all bills
+     */
+    @Transactional(readOnly = true)
+    public void exportBills(String status, Format format, OutputStream out) throws IOException {
+        try (Stream<Bill> bills = status == null
+                ? billRepo.streamAll()
+                : billRepo.streamByStatus(status)) {
+            Writer w = writer(out);
+            if (format == Format.CSV) {
+                w.write(BILL_CSV_HEADER);
+                w.write('\n');
+            }
+            write(bills, w, format, this::writeBill);
+        }
+    }
+
+    /**
+     * Write the whole payment ledger to out, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public void exportPayments(Format format, OutputStream out) throws IOException {
+        try (Stream<Payment> payments = paymentRepo.streamAll()) {
+            Writer w = writer(out);
+            if (format == Format.CSV) {
+                w.write(PAYMENT_CSV_HEADER);
+                w.write('\n');
+            }
+            write(payments, w, format, this::writePayment);
+        }
+    }
+
+    /** Writes one row in the given format */
+    private interface RowWriter<T> {
+        void write(T row, Writer w, Format format) throws IOException;
+    }
+
+    private <T> void write(Stream<T> entities, Writer w, Format format, RowWriter<T> rowWriter) throws IOException {
+        long[] rows = {0};
+        try {
+            entities.forEach(row -> {
+                try {
+                    rowWriter.write(row, w, format);
+                    em.detach(row);
+                    // first row goes out immediately, then in batches
+                    if (++rows[0] == 1 || rows[0] % FLUSH_EVERY == 0) {
+                        w.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        w.flush();
+    }
+
+    private void writeBill(Bill b, Writer w, Format format) throws IOException {
+        if (format == Format.NDJSON) {
+            BillResponse dto = BillService.toDto(b);
+            w.write(objectMapper.writeValueAsString(dto));
+        } else {
+            csv(w, b.getBillId()).write(',');
+            csv(w, b.getBillingMonth()).write(',');
+            csv(w, b.getAmountDue()).write(',');
+            csv(w, b.getIssueDate()).write(',');
+            csv(w, b.getDueDate()).write(',');
+            csv(w, b.getStatus()).write(',');
+            csv(w, b.getPaymentId()).write(',');
+            csv(w, b.getPaymentDate());
+        }
+        w.write('\n');
+    }
+
+    private void writePayment(Payment p, Writer w, Format format) throws IOException {
+        if (format == Format.NDJSON) {
+            w.write(objectMapper.writeValueAsString(BillService.toDto(p)));
+        } else {
+            csv(w, p.getPaymentId()).write(',');
+            csv(w, p.getBillId()).write(',');
+            csv(w, p.getAmount()).write(',');
+            csv(w, p.getBalanceAfter()).write(',');
+            csv(w, p.getCreatedAt());
+        }
+        w.write('\n');
+    }
+
+    /** Write one CSV field, quoting it only if it contains a delimiter, quote or newline */
+    private static Writer csv(Writer w, Object value) throws IOException {
+        if (value == null) {
+            return w;
+        }
+        String s = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char ch = s.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!quote) {
+            w.write(s);
+            return w;
+        }
+        w.write('"');
+        w.write(s.replace("\"", "\"\""));
+        w.write('"');
+        return w;
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+}
@@ -1,69 +1,169 @@
 
 package myApp.ebm.service;
 
+import myApp.ebm.dto.CursorPage;
 import myApp.ebm.dto.bill.*;
 import myApp.ebm.exception.*;
 import myApp.ebm.model.*;
 import myApp.ebm.repository.*;
+import myApp.ebm.util.BillCursor;
+import myApp.ebm.util.PaymentCursor;
 import myApp.ebm.util.IdGenerator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Map;
-import java.util.HashMap;
 
+@Timed(value = "ebm.service", histogram = true)
 @Service
 public class BillService {
 
+    /** Upper bound on a single keyset page */
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private BillRepository billRepo;
 
     @Autowired
-    private CustomerRepository customerRepo;
+    private CustomerLookupCache customerCache;
+
+    @Autowired
+    private TariffService tariffService;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private CustomerVersionService customerVersions;
+
+    @Autowired
+    private PaymentRepository paymentRepo;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private PaymentIdempotencyService idempotency;
+
+    /** Tries per payment when the bill keeps changing underneath it */
+    @Value("${ebm.payments.max-attempts:5}")
+    private int maxPaymentAttempts;
+
+    private final TransactionTemplate tx;
+
+    public BillService(PlatformTransactionManager txManager) {
+        this.tx = new TransactionTemplate(txManager);
+    }
 
     /**
      * Create a new bill for a customer.
      */
     @Transactional
     public BillResponse createBill(CreateBillRequest req) {
-        Customer customer = customerRepo.findByConsumerId(req.getConsumerId())
-                .orElseThrow(() -> new CustomerNotFoundException(req.getConsumerId()));
-        //Generate a unique billId
-        String billId;
-        do {
-        	billId=IdGenerator.generateBillId();
-        }while(billRepo.existsByBillId(billId));
-        
+        Customer customer = customerCache.require(req.getConsumerId());
+        // one bill per customer per month (uk_bills_customer_month)
+        if (billRepo.existsByCustomerIdAndBillingMonth(customer.getId(), req.getBillingMonth())) {
+            throw new BillAlreadyExistsException(req.getConsumerId(), req.getBillingMonth());
+        }
         Bill bill = new Bill();
-        bill.setBillId(billId);
+        bill.setBillId(idGenerator.generateBillId());
         bill.setCustomer(customer);
         bill.setBillingMonth(req.getBillingMonth());
-        bill.setAmountDue(req.getAmountDue());
-        // dueDate defaulted to 15 days after issueDate in @PrePersist
+        bill.setAmountDue(amountDueFor(req));
+        // priced on this date; issueDate and dueDate default in @PrePersist when omitted
+        bill.setIssueDate(req.getIssueDate());
         if (req.getDueDate() != null) {
             bill.setDueDate(req.getDueDate());
         }
 
         Bill saved = billRepo.save(bill);
+        statsService.billCreated(saved);
+        customerVersions.bump(customer.getId());
         return toDto(saved);
     }
 
+    /**
+     * Amount due for a bill request: priced from the tariff in force on the
+     * issue date when unitsByHour (with time-of-use bands) or unitsConsumed
+     * is given, else the flat amountDue.
+     *
+     * @throws TariffException if the tariff is unknown or not yet in force
+     */
+    public BigDecimal amountDueFor(CreateBillRequest req) {
+        if (req.getUnitsByHour() != null) {
+            long[] byHour = req.getUnitsByHour().stream().mapToLong(Long::longValue).toArray();
+            return tariffService.computeAmountDue(req.getTariffCode(), byHour, req.getIssueDate());
+        }
+        if (req.getUnitsConsumed() == null) {
+            return req.getAmountDue();
+        }
+        return tariffService.computeAmountDue(req.getTariffCode(), req.getUnitsConsumed(), req.getIssueDate());
+    }
+
+    /**
+     * Give every bill a fresh billId.
+     * Used by the bulk paths (batch endpoint, billing runs).
+     */
+    public void assignBillIds(Collection<Bill> bills) {
+        for (Bill b : bills) {
+            b.setBillId(idGenerator.generateBillId());
+        }
+    }
+
     /**
      * View all bills (admin only).
      */
     public List<BillResponse> getAllBills() {
-        List<Bill> bills = billRepo.findAll();
-        return bills.stream()
-                .sorted(Comparator.comparing(Bill::getIssueDate).reversed())
-                .map(this::toDto)
+        return billRepo.findAllResponses();
+    }
+
+    /**
+     * One page of all bills (admin), newest first.
+     * Ordered by (issueDate DESC, id DESC) in SQL and continued from the
+     * last row of the previous page, so every page costs the same.
+     *
+     * @param cursor token from the previous page, or null for the first page
+     * @param size   rows per page, clamped to 1..{@value #MAX_PAGE_SIZE}
+     */
+    public CursorPage<BillResponse> getBillsPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // fetch one extra row to learn whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Bill> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = billRepo.findAllByOrderByIssueDateDescIdDesc(limit);
+        } else {
+            BillCursor after = BillCursor.decode(cursor);
+            rows = billRepo.findPageAfter(after.getIssueDate(), after.getId(), limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Bill last = rows.get(pageSize - 1);
+            nextCursor = new BillCursor(last.getIssueDate(), last.getId()).encode();
+        }
+
+        List<BillResponse> items = rows.stream()
+                .map(BillService::toDto)
                 .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor);
     }
 
     /**
@@ -71,82 +171,133 @@ public class BillService {
      * sorted by issueDate descending.
      */
     public List<BillResponse> viewAllBills(String consumerId) {
-        List<Bill> bills = billRepo.findByCustomerConsumerId(consumerId);
-        return bills.stream()
-                .sorted(Comparator.comparing(Bill::getIssueDate).reversed())
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return billRepo.findResponsesByConsumerId(consumerId);
     }
 
     /**
      * View only pending bills for a customer.
      */
     public List<BillResponse> viewPendingBills(String consumerId) {
-        List<Bill> bills = billRepo.findByCustomerConsumerIdAndStatus(consumerId, "PENDING");
-        return bills.stream()
-                .sorted(Comparator.comparing(Bill::getIssueDate).reversed())
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return billRepo.findResponsesByConsumerIdAndStatus(consumerId, "PENDING");
     }
 
     /**
      * View only paid bills for a customer (bill history).
      */
     public List<BillResponse> viewPaidBills(String consumerId) {
-        List<Bill> bills = billRepo.findByCustomerConsumerIdAndStatus(consumerId, "PAID");
-        return bills.stream()
-                .sorted(Comparator.comparing(Bill::getPaymentDate).reversed())
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return billRepo.findPaidResponsesByConsumerId(consumerId);
     }
 
     /**
      * Pay (or partially pay) a bill by its billId.
+     *
+     * A request carrying an idempotency key that was seen before gets the
+     * stored response and leaves the bill alone. Otherwise the bill is
+     * updated under its @Version in a transaction of its own; if another
+     * writer changed it in between, the payment is re-applied to the fresh
+     * bill, up to ebm.payments.max-attempts times.
      */
-    @Transactional
     public PaymentResponse payBill(PaymentRequest req) {
+        String key = req.getIdempotencyKey();
+        checkIdempotencyKey(key);
+        for (int attempt = 1; ; attempt++) {
+            if (key != null) {
+                PaymentIdempotency stored = idempotency.find(key);
+                if (stored != null) {
+                    return idempotency.replay(stored, req);
+                }
+            }
+            try {
+                return tx.execute(status -> applyPayment(req));
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxPaymentAttempts) {
+                    throw new PaymentException("Bill " + req.getBillId()
+                            + " is being updated concurrently, please retry", e);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // same key committed by a concurrent request: loop to replay it
+                if (key == null || attempt >= maxPaymentAttempts) {
+                    throw new PaymentException("Failed to process payment", e);
+                }
+            }
+        }
+    }
+
+    /** Header-supplied keys skip bean validation, so check the column width here */
+    static void checkIdempotencyKey(String key) {
+        if (key != null && key.length() > 64) {
+            throw new PaymentException("Idempotency key must be at most 64 characters", null);
+        }
+    }
+
+    private PaymentResponse applyPayment(PaymentRequest req) {
         Bill bill = billRepo.findByBillId(req.getBillId())
                 .orElseThrow(() -> new BillNotFoundException(req.getBillId()));
+        BillStatsService.Delta delta = new BillStatsService.Delta();
+        PaymentResponse resp = applyPayment(bill, req, delta);
+        statsService.record(delta);
+        return resp;
+    }
 
+    /**
+     * Apply one payment to a managed bill in the current transaction:
+     * updates the balance, appends the ledger entry, stores the idempotency
+     * key and adds the stats change to delta. Throws before changing
+     * anything if the payment is rejected, so callers applying several
+     * payments in one transaction can carry on with the rest.
+     */
+    PaymentResponse applyPayment(Bill bill, PaymentRequest req, BillStatsService.Delta delta) {
         if ("PAID".equalsIgnoreCase(bill.getStatus())) {
             throw new PaymentException("Bill already paid", null);
         }
+        String oldStatus = bill.getStatus();
+        BigDecimal oldAmount = bill.getAmountDue();
+        PaymentResponse resp;
         try {
         BigDecimal paid = req.getAmountPaid();
+        // fail before touching the bill
         BigDecimal remaining = bill.getAmountDue().subtract(paid);
+        String paymentId = idGenerator.generatePaymentId();
+
         bill.setAmountDue(remaining.max(BigDecimal.ZERO));
         //Always record when a payment happens
         LocalDate now = LocalDate.now();
         bill.setPaymentDate(now);
         
-        //only generate payment id if not already set
-        if(bill.getPaymentId()==null) {
-        	 String paymentId; 
-        	 do {
-        		 paymentId = IdGenerator.generatePaymentId();
-        	 }while(billRepo.existsByPaymentId(paymentId));
-        	 
-        	 bill.setPaymentId(paymentId);
-        }
+        //every payment is its own ledger entry; the bill shows the latest
+        bill.setPaymentId(paymentId);
         
 
+        // a partial payment leaves the status alone: an OVERDUE bill stays OVERDUE
         if (remaining.compareTo(BigDecimal.ZERO) <= 0) {
             bill.setStatus("PAID");
-     
-        } else {
-            bill.setStatus("PENDING");
         }
 
-        billRepo.save(bill);
-
         String message = remaining.compareTo(BigDecimal.ZERO) <= 0
                 ? "Bill fully paid"
                 : "Partial payment received, remaining due: " + bill.getAmountDue();
 
-        return new PaymentResponse(message, bill.getPaymentId(), bill.getStatus());
+        resp = new PaymentResponse(message, bill.getPaymentId(), bill.getStatus());
         }catch(Exception e) {
         	 throw new PaymentException("Failed to process payment",e);
         }
+
+        // version check, ledger and key inserts happen at commit
+        billRepo.save(bill);
+        Payment entry = new Payment();
+        entry.setPaymentId(bill.getPaymentId());
+        entry.setBillId(bill.getBillId());
+        entry.setCustomerId(bill.getCustomer().getId());
+        entry.setAmount(req.getAmountPaid());
+        entry.setBalanceAfter(bill.getAmountDue());
+        paymentRepo.save(entry);
+        delta.remove(oldStatus, oldAmount);
+        delta.add(bill.getStatus(), bill.getAmountDue());
+        customerVersions.bump(bill.getCustomer().getId());
+        if (req.getIdempotencyKey() != null) {
+            idempotency.record(req, resp);
+        }
+        return resp;
     }
 
     /**
@@ -157,15 +308,16 @@ public class BillService {
         Bill bill = billRepo.findByBillId(billId)
             .orElseThrow(() -> new BillNotFoundException(billId));
         billRepo.delete(bill);
+        statsService.billDeleted(bill);
+        customerVersions.bump(bill.getCustomer().getId());
     }
 
     /**
      * Get bill by ID
      */
     public BillResponse getBillById(String billId) {
-        Bill bill = billRepo.findByBillId(billId)
+        return billRepo.findResponseByBillId(billId)
             .orElseThrow(() -> new BillNotFoundException(billId));
-        return toDto(bill);
     }
 
     /**
@@ -176,16 +328,24 @@ public class BillService {
         Bill bill = billRepo.findByBillId(billId)
             .orElseThrow(() -> new BillNotFoundException(billId));
         
-        Customer customer = customerRepo.findByConsumerId(req.getConsumerId())
-            .orElseThrow(() -> new CustomerNotFoundException(req.getConsumerId()));
-        
+        Customer customer = customerCache.require(req.getConsumerId());
+        // one bill per customer per month (uk_bills_customer_month)
+        if (billRepo.existsByCustomerIdAndBillingMonthAndIdNot(customer.getId(), req.getBillingMonth(), bill.getId())) {
+            throw new BillAlreadyExistsException(req.getConsumerId(), req.getBillingMonth());
+        }
+
+        String oldStatus = bill.getStatus();
+        BigDecimal oldAmount = bill.getAmountDue();
+        // the bill may move to another customer: both lists change
+        customerVersions.bump(List.of(bill.getCustomer().getId(), customer.getId()));
         bill.setCustomer(customer);
         bill.setBillingMonth(req.getBillingMonth());
-        bill.setAmountDue(req.getAmountDue());
+        bill.setAmountDue(amountDueFor(req));
         bill.setIssueDate(req.getIssueDate());
         bill.setDueDate(req.getDueDate());
         
         Bill updated = billRepo.save(bill);
+        statsService.billChanged(oldStatus, oldAmount, updated);
         return toDto(updated);
     }
 
@@ -193,64 +353,105 @@ public class BillService {
      * Get bills by status
      */
     public List<BillResponse> getBillsByStatus(String status) {
-        List<Bill> bills = billRepo.findByStatus(status);
-        return bills.stream()
-                .sorted(Comparator.comparing(Bill::getIssueDate).reversed())
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return billRepo.findResponsesByStatus(status);
     }
 
     /**
-     * Get bill statistics
+     * Get bill statistics, from the running totals kept by {@link BillStatsService}
      */
     public Map<String, Object> getBillStats() {
-        long totalBills = billRepo.count();
-        long pendingBills = billRepo.countByStatus("PENDING");
-        long paidBills = billRepo.countByStatus("PAID");
-        long overdueBills = billRepo.countByStatus("OVERDUE");
-        
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalBills", totalBills);
-        stats.put("pendingBills", pendingBills);
-        stats.put("paidBills", paidBills);
-        stats.put("overdueBills", overdueBills);
-        stats.put("totalRevenue", billRepo.sumAmountDueByStatus("PAID"));
-        
-        return stats;
+        return statsService.getStats();
+    }
+
+    /**
+     * Rebuild bill statistics from the bills table (admin only)
+     */
+    public Map<String, Object> reconcileBillStats() {
+        return statsService.reconcile();
     }
 
     /**
-     * Get all payment history (admin)
+     * Get payment history for all customers (admin) from the ledger, newest first.
+     * Every partial payment is its own entry: status PAID for the payment that
+     * cleared its bill, PARTIAL for the others.
      */
     public List<PaymentResponse> getAllPaymentHistory() {
-        List<Bill> paidBills = billRepo.findByStatus("PAID");
-        return paidBills.stream()
-                .sorted(Comparator.comparing(Bill::getPaymentDate).reversed())
-                .map(bill -> new PaymentResponse(
-                    "Payment completed",
-                    bill.getPaymentId(),
-                    bill.getStatus()
-                ))
-                .collect(Collectors.toList());
+        return paymentRepo.findAllResponses();
     }
 
     /**
-     * Get payment history for a specific customer
+     * Get payment history for a specific customer, like {@link #getAllPaymentHistory()}
      */
     public List<PaymentResponse> getCustomerPaymentHistory(String consumerId) {
-        List<Bill> paidBills = billRepo.findByCustomerConsumerIdAndStatus(consumerId, "PAID");
-        return paidBills.stream()
-                .sorted(Comparator.comparing(Bill::getPaymentDate).reversed())
-                .map(bill -> new PaymentResponse(
-                    "Payment completed",
-                    bill.getPaymentId(),
-                    bill.getStatus()
-                ))
+        return paymentRepo.findResponsesByConsumerId(consumerId);
+    }
+
+    /**
+     * One page of the payment ledger (admin), newest first.
+     * Every partial payment is its own entry.
+     *
+     * @param cursor token from the previous page, or null for the first page
+     * @param size   rows per page, clamped to 1..{@value #MAX_PAGE_SIZE}
+     */
+    public CursorPage<PaymentRecordResponse> getPaymentLedger(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+        List<Payment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = paymentRepo.findAllByOrderByCreatedAtDescIdDesc(limit);
+        } else {
+            PaymentCursor after = PaymentCursor.decode(cursor);
+            rows = paymentRepo.findPageAfter(after.getCreatedAt(), after.getId(), limit);
+        }
+        return paymentPage(rows, pageSize);
+    }
+
+    /**
+     * One page of a customer's payment ledger, newest first.
+     */
+    public CursorPage<PaymentRecordResponse> getCustomerPaymentLedger(String consumerId, String cursor, int size) {
+        Customer customer = customerCache.require(consumerId);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+        List<Payment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = paymentRepo.findByCustomerIdOrderByCreatedAtDescIdDesc(customer.getId(), limit);
+        } else {
+            PaymentCursor after = PaymentCursor.decode(cursor);
+            rows = paymentRepo.findCustomerPageAfter(customer.getId(), after.getCreatedAt(), after.getId(), limit);
+        }
+        return paymentPage(rows, pageSize);
+    }
+
+    /**
+     * Every payment made against one bill, oldest first, with the balance after each.
+     */
+    public List<PaymentRecordResponse> getBillPayments(String billId) {
+        return paymentRepo.findByBillIdOrderByCreatedAtAscIdAsc(billId).stream()
+                .map(BillService::toDto)
                 .collect(Collectors.toList());
     }
 
-    /** Helper to map entity → DTO */
-    private BillResponse toDto(Bill b) {
+    private static CursorPage<PaymentRecordResponse> paymentPage(List<Payment> rows, int pageSize) {
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Payment last = rows.get(pageSize - 1);
+            nextCursor = new PaymentCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<PaymentRecordResponse> items = rows.stream()
+                .map(BillService::toDto)
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    static PaymentRecordResponse toDto(Payment p) {
+        return new PaymentRecordResponse(p.getPaymentId(), p.getBillId(), p.getAmount(),
+                p.getBalanceAfter(), p.getCreatedAt());
+    }
+
+    /** Helper to map entity → DTO (static so other services in this package can share it) */
+    static BillResponse toDto(Bill b) {
         BillResponse dto = new BillResponse();
         dto.setBillId(b.getBillId());
         dto.setBillingMonth(b.getBillingMonth());
@@ -0,0 +1,250 @@
+package myApp.ebm.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import myApp.ebm.model.Bill;
+import myApp.ebm.model.BillStatsStripe;
+import myApp.ebm.repository.BillRepository;
+import myApp.ebm.repository.BillStatsRepository;
+
+/**
+ * Running bill statistics for GET /api/bills/stats.
+ *
+ * Every bill write records its delta in the same transaction, on one of
+ * {@value #STRIPES} stripe rows of bill_stats, and after commit on
+ * in-memory LongAdders. Reading the statistics is O(1) and never touches
+ * the bills table. {@link #reconcile()} rebuilds the stripes from a full
+ * scan to correct any drift.
+ */
+@Service
+public class BillStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(BillStatsService.class);
+
+    /** Number of stripe rows; must match V7__bill_stats.sql */
+    static final int STRIPES = 16;
+
+    @Autowired
+    private BillStatsRepository statsRepo;
+
+    @Autowired
+    private BillRepository billRepo;
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder pending = new LongAdder();
+    private final LongAdder paid = new LongAdder();
+    private final LongAdder overdue = new LongAdder();
+    /** Sum of amountDue over PAID bills, in paise */
+    private final LongAdder paidPaise = new LongAdder();
+
+    @PostConstruct
+    void load() {
+        Delta d = new Delta();
+        for (BillStatsStripe s : statsRepo.findAll()) {
+            d.add(s);
+        }
+        apply(d);
+    }
+
+    /**
+     * Current statistics, from memory.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalBills", total.sum());
+        stats.put("pendingBills", pending.sum());
+        stats.put("paidBills", paid.sum());
+        stats.put("overdueBills", overdue.sum());
+        stats.put("totalRevenue", BigDecimal.valueOf(paidPaise.sum(), 2));
+        return stats;
+    }
+
+    /** A new bill was saved */
+    public void billCreated(Bill b) {
+        Delta d = new Delta();
+        d.add(b.getStatus(), b.getAmountDue());
+        record(d);
+    }
+
+    /** A bill changed from (oldStatus, oldAmount) to its current state */
+    public void billChanged(String oldStatus, BigDecimal oldAmount, Bill b) {
+        Delta d = new Delta();
+        d.remove(oldStatus, oldAmount);
+        d.add(b.getStatus(), b.getAmountDue());
+        record(d);
+    }
+
+    /** A bill was deleted */
+    public void billDeleted(Bill b) {
+        Delta d = new Delta();
+        d.remove(b.getStatus(), b.getAmountDue());
+        record(d);
+    }
+
+    /**
+     * Record a change in the current transaction: the stripe row is updated
+     * now, the in-memory counters once the transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Delta d) {
+        if (d.isEmpty()) {
+            return;
+        }
+        int stripe = (int) (Thread.currentThread().getId() % STRIPES);
+        statsRepo.addToStripe(stripe, d.total, d.pending, d.paid, d.overdue, BigDecimal.valueOf(d.paidPaise, 2));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(d);
+            }
+        });
+    }
+
+    /**
+     * Rebuild the statistics from the bills table (admin only).
+     * Locks the stripes for the duration of the scan so no delta is lost,
+     * then brings the in-memory counters to the rebuilt values. That also
+     * picks up writes made by other application instances.
+     *
+     * @return the rebuilt statistics
+     */
+    @Transactional
+    public Map<String, Object> reconcile() {
+        List<BillStatsStripe> stripes = statsRepo.lockAll();
+        Delta stored = new Delta();
+        for (BillStatsStripe s : stripes) {
+            stored.add(s);
+        }
+
+        Delta actual = new Delta();
+        for (Object[] row : billRepo.countAndSumByStatus()) {
+            actual.add((String) row[0], ((Number) row[1]).longValue(), (BigDecimal) row[2]);
+        }
+
+        for (BillStatsStripe s : stripes) {
+            boolean first = s.getStripe() == 0;
+            s.setTotalBills(first ? actual.total : 0);
+            s.setPendingBills(first ? actual.pending : 0);
+            s.setPaidBills(first ? actual.paid : 0);
+            s.setOverdueBills(first ? actual.overdue : 0);
+            s.setPaidAmount(first ? BigDecimal.valueOf(actual.paidPaise, 2) : BigDecimal.ZERO);
+        }
+
+        Delta drift = actual.minus(stored);
+        if (!drift.isEmpty()) {
+            log.warn("Bill stats drift corrected: total {}, pending {}, paid {}, overdue {}, paidPaise {}",
+                    drift.total, drift.pending, drift.paid, drift.overdue, drift.paidPaise);
+        }
+        // A write whose afterCommit is still pending when this commits would be
+        // counted twice in memory; the window is microseconds and the stripes stay exact.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(actual.minus(current()));
+            }
+        });
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalBills", actual.total);
+        stats.put("pendingBills", actual.pending);
+        stats.put("paidBills", actual.paid);
+        stats.put("overdueBills", actual.overdue);
+        stats.put("totalRevenue", BigDecimal.valueOf(actual.paidPaise, 2));
+        return stats;
+    }
+
+    private Delta current() {
+        Delta d = new Delta();
+        d.total = total.sum();
+        d.pending = pending.sum();
+        d.paid = paid.sum();
+        d.overdue = overdue.sum();
+        d.paidPaise = paidPaise.sum();
+        return d;
+    }
+
+    private void apply(Delta d) {
+        total.add(d.total);
+        pending.add(d.pending);
+        paid.add(d.paid);
+        overdue.add(d.overdue);
+        paidPaise.add(d.paidPaise);
+    }
+
+    /**
+     * Change to the statistics from one or more bill writes.
+     * Bulk paths add every bill of a chunk and record once.
+     */
+    public static final class Delta {
+        long total;
+        long pending;
+        long paid;
+        long overdue;
+        long paidPaise;
+
+        public void add(String status, BigDecimal amount) {
+            add(status, 1, amount);
+        }
+
+        public void remove(String status, BigDecimal amount) {
+            add(status, -1, amount == null ? null : amount.negate());
+        }
+
+        /** count bills moved between two statuses other than PAID (amounts are not tracked) */
+        public void move(String from, String to, long count) {
+            add(from, -count, null);
+            add(to, count, null);
+        }
+
+        void add(String status, long count, BigDecimal amount) {
+            total += count;
+            if ("PENDING".equals(status)) {
+                pending += count;
+            } else if ("PAID".equals(status)) {
+                paid += count;
+                if (amount != null) {
+                    paidPaise += amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                }
+            } else if ("OVERDUE".equals(status)) {
+                overdue += count;
+            }
+        }
+
+        void add(BillStatsStripe s) {
+            total += s.getTotalBills();
+            pending += s.getPendingBills();
+            paid += s.getPaidBills();
+            overdue += s.getOverdueBills();
+            paidPaise += s.getPaidAmount().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+
+        Delta minus(Delta o) {
+            Delta d = new Delta();
+            d.total = total - o.total;
+            d.pending = pending - o.pending;
+            d.paid = paid - o.paid;
+            d.overdue = overdue - o.overdue;
+            d.paidPaise = paidPaise - o.paidPaise;
+            return d;
+        }
+
+        public boolean isEmpty() {
+            return total == 0 && pending == 0 && paid == 0 && overdue == 0 && paidPaise == 0;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package myApp.ebm.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import myApp.ebm.dto.billing.BillingRunRequest;
+import myApp.ebm.dto.billing.BillingRunResponse;
+import myApp.ebm.exception.BillingRunException;
+import myApp.ebm.model.Bill;
+import myApp.ebm.model.BillingRun;
+import myApp.ebm.model.BillingRunPartition;
+import myApp.ebm.model.Customer;
+import myApp.ebm.repository.BillRepository;
+import myApp.ebm.repository.BillingRunPartitionRepository;
+import myApp.ebm.repository.BillingRunRepository;
+import myApp.ebm.repository.CustomerRepository;
+
+/**
+ * Generates one month's bills for every customer.
+ *
+ * The customers table is split into id ranges (partitions) that run in
+ * parallel on the bounded billingRunExecutor. Each partition commits its
+ * bills in chunks together with a checkpoint (lastCustomerId), so after a
+ * crash {@link #resumeRun(Long)} continues from the last committed chunk.
+ * The unique (customer_id, billing_month) key makes reruns idempotent.
+ */
+@Service
+public class BillingRunService {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingRunService.class);
+
+    @Autowired
+    private BillingRunRepository runRepo;
+
+    @Autowired
+    private BillingRunPartitionRepository partitionRepo;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private BillRepository billRepo;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private CustomerVersionService customerVersions;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    @Qualifier("billingRunExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    /** Customers per committed chunk */
+    @Value("${ebm.billing-run.chunk-size:500}")
+    private int chunkSize;
+
+    /** Default partition count when the request does not give one */
+    @Value("${ebm.billing-run.partitions:16}")
+    private int defaultPartitions;
+
+    private final TransactionTemplate tx;
+
+    /** Live progress of runs executing in this JVM */
+    private final Map<Long, Progress> active = new ConcurrentHashMap<>();
+
+    public BillingRunService(PlatformTransactionManager txManager) {
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /**
+     * Create a run and its partitions, then start processing in the background.
+     *
+     * @throws BillingRunException if a run for the same month is already RUNNING
+     */
+    public BillingRunResponse startRun(BillingRunRequest req) {
+        int requested = req.getPartitions() != null ? req.getPartitions() : defaultPartitions;
+
+        BillingRun run = tx.execute(status -> {
+            runRepo.findFirstByBillingMonthAndStatus(req.getBillingMonth(), "RUNNING")
+                    .ifPresent(r -> {
+                        throw new BillingRunException("Billing run " + r.getId()
+                                + " for " + req.getBillingMonth() + " is already running");
+                    });
+
+            BillingRun r = new BillingRun();
+            r.setBillingMonth(req.getBillingMonth());
+            r.setAmountDue(req.getAmountDue());
+            r.setDueDate(req.getDueDate());
+
+            Long minId = customerRepo.findMinBillableId();
+            Long maxId = customerRepo.findMaxBillableId();
+            List<BillingRunPartition> parts = new ArrayList<>();
+            if (minId != null) {
+                long span = maxId - minId + 1;
+                int n = (int) Math.max(1, Math.min(requested, span));
+                long step = (span + n - 1) / n;
+                for (long from = minId; from <= maxId; from += step) {
+                    BillingRunPartition p = new BillingRunPartition();
+                    p.setPartitionNo(parts.size());
+                    p.setFromCustomerId(from);
+                    p.setToCustomerId(Math.min(from + step - 1, maxId));
+                    p.setLastCustomerId(from - 1);
+                    parts.add(p);
+                }
+            }
+            r.setPartitions(parts.size());
+            if (parts.isEmpty()) {
+                r.setStatus("COMPLETED");
+                r.setFinishedAt(LocalDateTime.now());
+            }
+            runRepo.save(r);
+            for (BillingRunPartition p : parts) {
+                p.setRunId(r.getId());
+            }
+            partitionRepo.saveAll(parts);
+            return r;
+        });
+
+        submit(run);
+        return getRun(run.getId());
+    }
+
+    /**
+     * Continue an interrupted or failed run from its partition checkpoints.
+     */
+    public BillingRunResponse resumeRun(Long runId) {
+        if (active.containsKey(runId)) {
+            throw new BillingRunException("Billing run " + runId + " is already running in this instance");
+        }
+        BillingRun run = tx.execute(status -> {
+            BillingRun r = runRepo.findById(runId)
+                    .orElseThrow(() -> new BillingRunException("Billing run not found: " + runId));
+            if ("COMPLETED".equals(r.getStatus())) {
+                throw new BillingRunException("Billing run " + runId + " is already completed");
+            }
+            r.setStatus("RUNNING");
+            r.setFinishedAt(null);
+            return r;
+        });
+        submit(run);
+        return getRun(runId);
+    }
+
+    /**
+     * Progress of a run: persisted checkpoints plus live throughput.
+     */
+    public BillingRunResponse getRun(Long runId) {
+        BillingRun run = runRepo.findById(runId)
+                .orElseThrow(() -> new BillingRunException("Billing run not found: " + runId));
+        List<BillingRunPartition> parts = partitionRepo.findByRunIdOrderByPartitionNo(runId);
+
+        BillingRunResponse resp = new BillingRunResponse();
+        resp.setRunId(run.getId());
+        resp.setBillingMonth(run.getBillingMonth());
+        resp.setStatus(run.getStatus());
+        resp.setPartitions(run.getPartitions());
+        resp.setStartedAt(run.getStartedAt());
+        resp.setFinishedAt(run.getFinishedAt());
+        long customers = 0;
+        long bills = 0;
+        int done = 0;
+        for (BillingRunPartition p : parts) {
+            customers += p.getCustomersProcessed();
+            bills += p.getBillsCreated();
+            if ("COMPLETED".equals(p.getStatus())) {
+                done++;
+            }
+        }
+        resp.setPartitionsCompleted(done);
+        resp.setCustomersProcessed(customers);
+        resp.setBillsCreated(bills);
+
+        Progress live = active.get(runId);
+        if (live != null) {
+            resp.setBillsPerSecond(live.billsPerSecond());
+        } else if (run.getFinishedAt() != null) {
+            double secs = Duration.between(run.getStartedAt(), run.getFinishedAt()).toMillis() / 1000.0;
+            resp.setBillsPerSecond(secs > 0 ? bills / secs : bills);
+        }
+        return resp;
+    }
+
+    private void submit(BillingRun run) {
+        List<BillingRunPartition> pending = partitionRepo.findByRunIdOrderByPartitionNo(run.getId())
+                .stream()
+                .filter(p -> !"COMPLETED".equals(p.getStatus()))
+                .toList();
+        if (pending.isEmpty()) {
+            finish(run.getId(), false);
+            return;
+        }
+        Progress progress = new Progress(pending.size());
+        active.put(run.getId(), progress);
+        int queued = 0;
+        try {
+            for (BillingRunPartition p : pending) {
+                executor.execute(() -> runPartition(run, p.getId(), progress));
+                queued++;
+            }
+        } catch (RejectedExecutionException e) {
+            // queue full: the partitions already queued still run, the rest never will
+            log.warn("Billing run {}: only {} of {} partitions could be queued, run will end FAILED; "
+                    + "resume it once the executor has room", run.getId(), queued, pending.size());
+            progress.failed = true;
+            if (progress.remaining.addAndGet(queued - pending.size()) == 0) {
+                finish(run.getId(), true);
+            }
+        }
+    }
+
+    private void runPartition(BillingRun run, Long partitionId, Progress progress) {
+        try {
+            while (processChunk(run, partitionId, progress)) {
+                // next chunk
+            }
+        } catch (RuntimeException e) {
+            log.error("Billing run {} partition {} failed", run.getId(), partitionId, e);
+            progress.failed = true;
+            tx.executeWithoutResult(status -> partitionRepo.findById(partitionId)
+                    .ifPresent(p -> p.setStatus("FAILED")));
+        } finally {
+            if (progress.remaining.decrementAndGet() == 0) {
+                finish(run.getId(), progress.failed);
+            }
+        }
+    }
+
+    /**
+     * Bill the next chunk of a partition and move its checkpoint, in one transaction.
+     *
+     * @return false once the partition is exhausted
+     */
+    private boolean processChunk(BillingRun run, Long partitionId, Progress progress) {
+        Boolean more = tx.execute(status -> {
+            BillingRunPartition p = partitionRepo.findById(partitionId).orElseThrow();
+            List<Long> ids = customerRepo.findBillableIdsInRange(
+                    p.getLastCustomerId(), p.getToCustomerId(), Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                p.setStatus("COMPLETED");
+                return false;
+            }
+            p.setStatus("RUNNING");
+
+            Set<Long> billed = new HashSet<>(billRepo.findBilledCustomerIds(run.getBillingMonth(), ids));
+            List<Bill> bills = new ArrayList<>(ids.size());
+            for (Long customerId : ids) {
+                if (billed.contains(customerId)) {
+                    continue; // billed by an earlier attempt: idempotent rerun
+                }
+                Bill bill = new Bill();
+                bill.setCustomer(em.getReference(Customer.class, customerId));
+                bill.setBillingMonth(run.getBillingMonth());
+                bill.setAmountDue(run.getAmountDue());
+                bill.setDueDate(run.getDueDate());
+                bills.add(bill);
+            }
+            billService.assignBillIds(bills);
+            billRepo.saveAll(bills);
+            BillStatsService.Delta delta = new BillStatsService.Delta();
+            List<Long> customerIds = new ArrayList<>(bills.size());
+            for (Bill b : bills) {
+                delta.add(b.getStatus(), b.getAmountDue());
+                customerIds.add(b.getCustomer().getId());
+            }
+            statsService.record(delta);
+            customerVersions.bump(customerIds);
+
+            p.setLastCustomerId(ids.get(ids.size() - 1));
+            p.setCustomersProcessed(p.getCustomersProcessed() + ids.size());
+            p.setBillsCreated(p.getBillsCreated() + bills.size());
+            em.flush();
+            em.clear();
+
+            progress.bills.add(bills.size());
+            progress.customers.add(ids.size());
+            return true;
+        });
+        return Boolean.TRUE.equals(more);
+    }
+
+    private void finish(Long runId, boolean failed) {
+        Progress progress = active.remove(runId);
+        tx.executeWithoutResult(status -> runRepo.findById(runId).ifPresent(r -> {
+            r.setStatus(failed ? "FAILED" : "COMPLETED");
+            r.setFinishedAt(LocalDateTime.now());
+        }));
+        if (progress != null) {
+            log.info("Billing run {} {}: {} bills for {} customers, {} bills/s",
+                    runId, failed ? "FAILED" : "COMPLETED",
+                    progress.bills.sum(), progress.customers.sum(),
+                    String.format("%.0f", progress.billsPerSecond()));
+        }
+    }
+
+    /** In-memory counters for a run executing in this JVM */
+    private static final class Progress {
+        final long startNanos = System.nanoTime();
+        final AtomicInteger remaining;
+        final LongAdder bills = new LongAdder();
+        final LongAdder customers = new LongAdder();
+        volatile boolean failed;
+
+        Progress(int partitions) {
+            this.remaining = new AtomicInteger(partitions);
+        }
+
+        double billsPerSecond() {
+            double secs = (System.nanoTime() - startNanos) / 1e9;
+            return secs > 0 ? bills.sum() / secs : 0;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package myApp.ebm.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import myApp.ebm.exception.TariffException;
+import myApp.ebm.model.Tariff;
+import myApp.ebm.model.TariffSlab;
+import myApp.ebm.model.TariffTouBand;
+
+/**
+ * A {@link Tariff} version flattened into primitive arrays for pricing.
+ *
+ * Slab charges are precomputed per slab boundary, so pricing a bill is a
+ * short scan over a long[] plus one multiply. Evaluation allocates nothing
+ * and works in integer paise; callers convert to BigDecimal once at the end.
+ * Arithmetic is overflow-checked: an amount too large for a long is
+ * reported as a {@link TariffException} rather than wrapping around.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class CompiledTariff {
+
+    private final String code;
+    private final int version;
+    private final long effectiveFromEpochDay;
+    private final long fixedPaise;
+
+    /** Inclusive upper unit bound of each slab; Long.MAX_VALUE for the last */
+    private final long[] slabUpper;
+    /** First unit (exclusive) of each slab, i.e. the previous slab's upper bound */
+    private final long[] slabLower;
+    /** Per-unit rate of each slab */
+    private final long[] slabRate;
+    /** Total charge for all units below slabLower[i] */
+    private final long[] slabBase;
+    /** Time-of-use surcharge per unit for each hour of the day */
+    private final long[] hourAdjustment = new long[24];
+    /**
+     * True if every |hourAdjustment| is below 2^27, so 24 hourly charges of
+     * under 2^31 units each sum without overflow
+     */
+    private final boolean smallAdjustments;
+
+    private CompiledTariff(Tariff t) {
+        this.code = t.getCode();
+        this.version = t.getVersion();
+        this.effectiveFromEpochDay = t.getEffectiveFrom().toEpochDay();
+        this.fixedPaise = t.getFixedChargePaise();
+
+        List<TariffSlab> slabs = t.getSlabs();
+        int n = slabs.size();
+        if (n == 0) {
+            throw new TariffException("Tariff " + code + " v" + version + " has no slabs");
+        }
+        slabUpper = new long[n];
+        slabLower = new long[n];
+        slabRate = new long[n];
+        slabBase = new long[n];
+        long lower = 0;
+        long base = 0;
+        for (int i = 0; i < n; i++) {
+            TariffSlab s = slabs.get(i);
+            boolean last = i == n - 1;
+            if (s.getUptoUnits() == null && !last) {
+                throw new TariffException("Only the last slab of " + code + " may be open-ended");
+            }
+            if (s.getUptoUnits() != null && last) {
+                throw new TariffException("The last slab of " + code + " must be open-ended");
+            }
+            long upper = last ? Long.MAX_VALUE : s.getUptoUnits();
+            if (upper <= lower) {
+                throw new TariffException("Slabs of " + code + " must be in ascending order");
+            }
+            slabLower[i] = lower;
+            slabUpper[i] = upper;
+            slabRate[i] = s.getRatePaisePerUnit();
+            slabBase[i] = base;
+            if (!last) {
+                try {
+                    base = Math.addExact(base, Math.multiplyExact(upper - lower, s.getRatePaisePerUnit()));
+                } catch (ArithmeticException e) {
+                    throw new TariffException("Slab charges of " + code + " are too large");
+                }
+            }
+            lower = upper;
+        }
+
+        for (TariffTouBand b : t.getTouBands()) {
+            if (b.getStartHour() < 0 || b.getEndHour() > 24 || b.getStartHour() >= b.getEndHour()) {
+                throw new TariffException("Invalid time-of-use band " + b.getStartHour()
+                        + "-" + b.getEndHour() + " in " + code);
+            }
+            for (int h = b.getStartHour(); h < b.getEndHour(); h++) {
+                try {
+                    hourAdjustment[h] = Math.addExact(hourAdjustment[h], b.getAdjustmentPaisePerUnit());
+                } catch (ArithmeticException e) {
+                    throw new TariffException("Time-of-use adjustments of " + code + " are too large");
+                }
+            }
+        }
+        boolean small = true;
+        for (long a : hourAdjustment) {
+            small &= Math.abs(a) < 1L << 27;
+        }
+        smallAdjustments = small;
+    }
+
+    /**
+     * @throws TariffException if the tariff definition is inconsistent
+     */
+    public static CompiledTariff compile(Tariff t) {
+        return new CompiledTariff(t);
+    }
+
+    /**
+     * Charge for a month's consumption, in paise: fixed charge plus slab energy charge.
+     */
+    public long amountPaise(long units) {
+        if (units < 0) {
+            throw new TariffException("Units consumed cannot be negative: " + units);
+        }
+        try {
+            return Math.addExact(fixedPaise, energyPaise(units));
+        } catch (ArithmeticException e) {
+            throw new TariffException("Charge for " + units + " units is too large");
+        }
+    }
+
+    /**
+     * Charge for consumption split by hour of day (array of 24), in paise:
+     * slab charge on the total plus each hour's time-of-use adjustment.
+     */
+    public long amountPaise(long[] unitsByHour) {
+        if (unitsByHour.length != 24) {
+            throw new TariffException("Expected 24 hourly readings, got " + unitsByHour.length);
+        }
+        long total = 0;
+        long adjustment = 0;
+        long bits = 0;
+        for (int h = 0; h < 24; h++) {
+            total += unitsByHour[h];
+            adjustment += unitsByHour[h] * hourAdjustment[h];
+            bits |= unitsByHour[h];
+        }
+        try {
+            if (!smallAdjustments || bits >>> 31 != 0) {
+                // a reading is negative or 2^31 or more: the sums above may have wrapped
+                total = 0;
+                adjustment = 0;
+                for (int h = 0; h < 24; h++) {
+                    total = Math.addExact(total, unitsByHour[h]);
+                    adjustment = Math.addExact(adjustment, Math.multiplyExact(unitsByHour[h], hourAdjustment[h]));
+                }
+            }
+            return Math.addExact(amountPaise(total), adjustment);
+        } catch (ArithmeticException e) {
+            throw new TariffException("Charge for " + total + " units is too large");
+        }
+    }
+
+    private long energyPaise(long units) {
+        int i = 0;
+        while (units > slabUpper[i]) {
+            i++;
+        }
+        return Math.addExact(slabBase[i], Math.multiplyExact(units - slabLower[i], slabRate[i]));
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /** True if this version is in force on the given date */
+    public boolean appliesOn(LocalDate date) {
+        return date.toEpochDay() >= effectiveFromEpochDay;
+    }
+}
@@ -1,22 +1,23 @@
 package myApp.ebm.service;
 
 import myApp.ebm.dto.complaint.*; //ComplaintResponse,RegisterComplaintRequest,UpdateComplaintStatusRequest
-import myApp.ebm.exception.CustomerNotFoundException;
 import myApp.ebm.exception.complaint.*; //ComplaintException,ComplaintNotFoundException,CustomerNotFoundException
 
 import myApp.ebm.model.Complaint;
 import myApp.ebm.model.Customer;
 import myApp.ebm.repository.ComplaintRepository;
-import myApp.ebm.repository.CustomerRepository;
+import myApp.ebm.util.IdGenerator;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+
+import io.micrometer.core.annotation.Timed;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for handling complaint operations.
  */
+@Timed(value = "ebm.service", histogram = true)
 @Service
 public class ComplaintService {
 
@@ -24,26 +25,33 @@ public class ComplaintService {
     private ComplaintRepository complaintRepo;
 
     @Autowired
-    private CustomerRepository customerRepo;
+    private CustomerLookupCache customerCache;
+
+    @Autowired
+    private CustomerVersionService customerVersions;
+
+    @Autowired
+    private IdGenerator idGenerator;
 
     /**
      * Registers a new complaint for a customer.
      */
     @Transactional
     public ComplaintResponse registerComplaint(RegisterComplaintRequest req) {
-        Customer cust = customerRepo.findByConsumerId(req.getConsumerId())
-            .orElseThrow(() -> new CustomerNotFoundException(req.getConsumerId()));
+        Customer cust = customerCache.require(req.getConsumerId());
 
         try {
             Complaint c = new Complaint();
+            c.setComplaintId(idGenerator.generateComplaintId());
             c.setCustomer(cust);
             c.setType(req.getType());
             c.setCategory(req.getCategory());
             c.setProblem(req.getProblem());
             c.setLandmark(req.getLandmark());
-            // status, createdAt, complaintId are set by @PrePersist
+            // status and createdAt are set by @PrePersist
 
             Complaint saved = complaintRepo.save(c);
+            customerVersions.bump(cust.getId());
             return toDto(saved);
         } catch (Exception e) {
             throw new ComplaintException("Failed to register complaint", e);
@@ -54,35 +62,26 @@ public class ComplaintService {
      * Returns all complaints for a given customer.
      */
     public List<ComplaintResponse> viewCustomerComplaints(String consumerId) {
-        customerRepo.findByConsumerId(consumerId)
-            .orElseThrow(() -> new CustomerNotFoundException(consumerId));
+        customerCache.require(consumerId);
 
-        return complaintRepo.findByCustomerConsumerId(consumerId)
-               .stream()
-               .map(this::toDto)
-               .collect(Collectors.toList());
+        return complaintRepo.findResponsesByConsumerId(consumerId);
     }
 
     /**
      * Returns only OPEN complaints for a given customer.
      */
     public List<ComplaintResponse> viewOpenComplaints(String consumerId) {
-        customerRepo.findByConsumerId(consumerId)
-            .orElseThrow(() -> new CustomerNotFoundException(consumerId));
+        customerCache.require(consumerId);
 
-        return complaintRepo.findByCustomerConsumerIdAndStatus(consumerId, "OPEN")
-            .stream()
-            .map(this::toDto)
-            .collect(Collectors.toList());
+        return complaintRepo.findResponsesByConsumerIdAndStatus(consumerId, "OPEN");
     }
 
     /**
      * Retrieves a complaint by its business key.
      */
     public ComplaintResponse getComplaintById(String complaintId) {
-        Complaint c = complaintRepo.findByComplaintId(complaintId)
+        return complaintRepo.findResponseByComplaintId(complaintId)
             .orElseThrow(() -> new ComplaintNotFoundException(complaintId));
-        return toDto(c);
     }
 
     /**
@@ -98,6 +97,7 @@ public class ComplaintService {
             c.setAdminResponse(req.getAdminResponse());
         }
         Complaint updated = complaintRepo.save(c);
+        customerVersions.bump(c.getCustomer().getId());
         return toDto(updated);
     }
 
@@ -116,6 +116,7 @@ public class ComplaintService {
         c.setProblem(req.getProblem());
         c.setLandmark(req.getLandmark());
         Complaint updated = complaintRepo.save(c);
+        customerVersions.bump(c.getCustomer().getId());
         return toDto(updated);
     }
 
@@ -130,12 +131,13 @@ public class ComplaintService {
             throw new ComplaintException("Only OPEN complaints can be deleted");
         }
         complaintRepo.delete(c);
+        customerVersions.bump(c.getCustomer().getId());
     }
 
     /**
-     * Helper: convert entity to DTO
+     * Helper: convert entity to DTO (static so the JMH benchmarks can call it)
      */
-    private ComplaintResponse toDto(Complaint c) {
+    static ComplaintResponse toDto(Complaint c) {
         ComplaintResponse r = new ComplaintResponse();
         r.setComplaintId(c.getComplaintId());
         r.setConsumerId(c.getCustomer().getConsumerId());
@@ -152,8 +154,6 @@ public class ComplaintService {
     }
     
 	public List<ComplaintResponse> getAllComplaints() {
-		List<ComplaintResponse>list= complaintRepo.findAll()
-				                    .stream().map(this::toDto).collect(Collectors.toList());
-		return list;
+		return complaintRepo.findAllResponses();
 	}
 }
\ No newline at end of file
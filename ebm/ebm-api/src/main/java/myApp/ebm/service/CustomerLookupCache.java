@@ -0,0 +1,147 @@
+package myApp.ebm.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import myApp.ebm.exception.CustomerNotFoundException;
+import myApp.ebm.model.Customer;
+import myApp.ebm.repository.CustomerRepository;
+
+/**
+ * Caches consumerId lookups for the bill and complaint paths, which mostly
+ * need the customer only to check it exists and to reference it.
+ *
+ * At most ebm.customers.cache-size entries, each dropped
+ * ebm.customers.cache-ttl-minutes after it was loaded. Only customers that
+ * exist are cached, so a newly registered consumerId is never shadowed.
+ * Callers get a detached copy holding the profile columns (not the User):
+ * fine as a bill/complaint reference, not for editing the customer.
+ * {@link CustomerService} evicts entries after an update or delete commits.
+ * Hits, misses and evictions are also published as the cache.* meters
+ * tagged cache=customerLookup.
+ */
+@Service
+public class CustomerLookupCache implements MeterBinder {
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    private final Cache<String, Customer> cache;
+
+    /** Bumped by every eviction, so a lookup can tell one raced its query */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CustomerLookupCache(@Value("${ebm.customers.cache-size:10000}") long maxSize,
+                               @Value("${ebm.customers.cache-ttl-minutes:10}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The customer with this consumerId, from the cache when possible.
+     *
+     * A miss queries outside the cache and then puts the row, instead of
+     * loading in cache.get: Caffeine runs that loader under a lock on the
+     * key's bin, which would pin a virtual thread for the whole query. An
+     * eviction that lands while the query runs drops the row again after
+     * the put, so a committed change is still never hidden.
+     */
+    public Optional<Customer> find(String consumerId) {
+        Customer cached = cache.getIfPresent(consumerId);
+        if (cached == null) {
+            long seen = evictions.get();
+            cached = customerRepo.findByConsumerId(consumerId).map(CustomerLookupCache::snapshot).orElse(null);
+            if (cached != null) {
+                cache.put(consumerId, cached);
+                if (evictions.get() != seen) {
+                    cache.invalidate(consumerId);
+                }
+            }
+        }
+        return Optional.ofNullable(cached).map(CustomerLookupCache::snapshot);
+    }
+
+    /**
+     * @throws CustomerNotFoundException if no customer has this consumerId
+     */
+    public Customer require(String consumerId) {
+        return find(consumerId).orElseThrow(() -> new CustomerNotFoundException(consumerId));
+    }
+
+    /**
+     * Drop the entry once the current transaction commits, or now if there
+     * is none. Evicting only after commit keeps a concurrent reader from
+     * caching the old row again before the change is visible.
+     */
+    public void evictAfterCommit(String consumerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(consumerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(consumerId);
+            }
+        });
+    }
+
+    private void evict(String consumerId) {
+        evictions.incrementAndGet();
+        cache.invalidate(consumerId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "customerLookup");
+    }
+
+    /**
+     * Hit and miss counts since startup.
+     */
+    public Map<String, Object> getStats() {
+        CacheStats s = cache.stats();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", cache.estimatedSize());
+        stats.put("hits", s.hitCount());
+        stats.put("misses", s.missCount());
+        stats.put("hitRate", s.hitRate());
+        stats.put("evictions", s.evictionCount());
+        return stats;
+    }
+
+    /** Copy of the profile columns, never attached to a persistence context */
+    private static Customer snapshot(Customer c) {
+        Customer copy = new Customer();
+        copy.setId(c.getId());
+        copy.setConsumerId(c.getConsumerId());
+        copy.setName(c.getName());
+        copy.setAddress(c.getAddress());
+        copy.setEmail(c.getEmail());
+        copy.setMobile(c.getMobile());
+        copy.setCity(c.getCity());
+        copy.setState(c.getState());
+        copy.setPincode(c.getPincode());
+        return copy;
+    }
+}
@@ -3,18 +3,28 @@ import myApp.ebm.model.*;
 import myApp.ebm.exception.CustomerNotFoundException;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+
+import io.micrometer.core.annotation.Timed;
 import org.springframework.transaction.annotation.Transactional;
 
 import myApp.ebm.repository.CustomerRepository;
 
+@Timed(value = "ebm.service", histogram = true)
 @Service
 public class CustomerService {
             
     @Autowired
     private CustomerRepository customerRepo;
+
+    @Autowired
+    private CustomerLookupCache lookupCache;
+
+    @Autowired
+    private CustomerVersionService customerVersions;
     
     public List<Customer> getAllCustomers() {
         return customerRepo.findAll();
@@ -61,6 +71,9 @@ public class CustomerService {
             customer.setPincode(customerData.getPincode());
         }
         
+        // complaint lists carry the customer's name
+        lookupCache.evictAfterCommit(customer.getConsumerId());
+        customerVersions.bump(customer.getId());
         return customerRepo.save(customer);
     }
 
@@ -95,6 +108,9 @@ public class CustomerService {
             customer.setPincode(customerData.getPincode());
         }
         
+        // complaint lists carry the customer's name
+        lookupCache.evictAfterCommit(customer.getConsumerId());
+        customerVersions.bump(customer.getId());
         return customerRepo.save(customer);
     }
 
@@ -105,6 +121,14 @@ public class CustomerService {
     public void deleteCustomer(String consumerId) {
         Customer customer = customerRepo.findByConsumerId(consumerId)
             .orElseThrow(() -> new CustomerNotFoundException(consumerId));
+        lookupCache.evictAfterCommit(consumerId);
         customerRepo.delete(customer);
     }
+
+    /**
+     * Hit and miss counts of the consumerId lookup cache
+     */
+    public Map<String, Object> getLookupCacheStats() {
+        return lookupCache.getStats();
+    }
 }
\ No newline at end of file
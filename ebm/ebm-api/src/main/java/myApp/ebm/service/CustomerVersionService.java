@@ -0,0 +1,70 @@
+package myApp.ebm.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import myApp.ebm.repository.CustomerRepository;
+
+/**
+ * Per-customer version stamps behind the ETags of the customer bill and
+ * complaint lists.
+ *
+ * The stamp is the customer's list_version column. Every bill or complaint
+ * write bumps it in its own transaction, so the stamp commits with the
+ * change and every instance sharing the database sees it; a list read
+ * after taking a stamp includes at least every write that stamp stands for.
+ * The overdue sweep bumps the owners of the bills it is about to mark.
+ *
+ * A bump holds the customer row until its transaction ends, so writes for
+ * one customer queue there. Writers take the customer row before touching
+ * bills (the bill update is flushed at commit), which keeps the lock order
+ * the same for everyone.
+ */
+@Service
+public class CustomerVersionService {
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    /**
+     * Weak ETag for a customer's bill and complaint lists, or null if no
+     * customer has this consumerId. Read it before running the list query.
+     */
+    public String etag(String consumerId) {
+        List<Object[]> rows = customerRepo.findListVersion(consumerId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        return "W/\"" + rows.get(0)[0] + "-" + rows.get(0)[1] + "\"";
+    }
+
+    /** Bump one customer's stamp in the current transaction */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump(Long customerId) {
+        customerRepo.bumpListVersions(List.of(customerId));
+    }
+
+    /** Bump several customers' stamps in the current transaction */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump(Collection<Long> customerIds) {
+        if (!customerIds.isEmpty()) {
+            customerRepo.bumpListVersions(customerIds);
+        }
+    }
+
+    /**
+     * Bump the owners of the bills in an id range with this status and due
+     * before a date, in the current transaction. Call it before changing
+     * those bills.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bumpOwnersOfBills(long fromId, long toId, String status, LocalDate dueBefore) {
+        customerRepo.bumpListVersionsOfBills(fromId, toId, status, dueBefore);
+    }
+}
@@ -0,0 +1,437 @@
+package myApp.ebm.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import myApp.ebm.exception.DataGeneratorException;
+
+/**
+ * Synthetic production-scale data for benchmarks and load tests: customers
+ * with their login users, monthly bill histories with payments, and
+ * complaints.
+ *
+ * Everything about one customer (profile, consumption, how they pay, what
+ * they complain about) comes from a random stream seeded by (seed, position
+ * in the run). The same seed and ebm.generate.until month therefore give
+ * the same customers however the run is chunked; only consumer ids, emails
+ * and the surrogate and business ids differ between databases.
+ * Amounts are priced with the tariff in force, like a billing run would.
+ *
+ * Bills run monthly up to ebm.generate.until (default: last month), over at
+ * most ebm.generate.months months. The newest bill is PENDING, part paid
+ * or PAID. Older bills are mostly PAID, in one payment or two installments;
+ * the rest are OVERDUE, unpaid or part paid. One customer in ten pays late
+ * often. Every payment is a payments ledger row; the bill carries the
+ * latest, as after {@link BillService#payBill}. Complaints have no history
+ * table, so their status follows their age: recent ones are OPEN or
+ * IN_PROGRESS, older ones RESOLVED or CLOSED with an admin response and a
+ * later updatedAt.
+ *
+ * Rows go in with JDBC batches, ebm.generate.chunk-customers customers per
+ * transaction. Ids are assigned here: table ids above the current maximum,
+ * business ids from a range of the V9 sequences reserved up front. Identity
+ * columns and sequences are moved past the new rows at the end, and the
+ * bill statistics are reconciled. Run it against an idle database.
+ */
+@Service
+public class DataGeneratorService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGeneratorService.class);
+
+    private static final String USER_SQL = "INSERT INTO users (id, username, email, name, password, status, user_type) "
+            + "VALUES (?, ?, ?, ?, ?, 'ACTIVE', 'CUSTOMER')";
+    private static final String USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String CUSTOMER_SQL = "INSERT INTO customers "
+            + "(id, consumer_id, name, address, email, mobile, city, state, pincode, user_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String BILL_SQL = "INSERT INTO bills (id, bill_id, customer_id, billing_month, amount_due, "
+            + "issue_date, due_date, status, payment_date, payment_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String PAYMENT_SQL = "INSERT INTO payments "
+            + "(id, payment_id, bill_id, customer_id, amount, balance_after, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String COMPLAINT_SQL = "INSERT INTO complaints (id, complaint_id, customer_id, type, category, "
+            + "problem, landmark, status, created_at, updated_at, admin_response) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] FIRST_NAMES = {
+        "Aarav", "Vivaan", "Aditya", "Arjun", "Rohan", "Ishaan", "Kabir", "Rahul", "Amit", "Suresh",
+        "Priya", "Ananya", "Diya", "Kavya", "Meera", "Neha", "Pooja", "Riya", "Sneha", "Lakshmi"
+    };
+    private static final String[] LAST_NAMES = {
+        "Sharma", "Verma", "Gupta", "Singh", "Kumar", "Patel", "Reddy", "Nair", "Iyer", "Das",
+        "Banerjee", "Chatterjee", "Mukherjee", "Joshi", "Mehta", "Rao", "Pillai", "Bose", "Yadav", "Khan"
+    };
+    private static final String[] STREETS = {
+        "MG Road", "Park Street", "Station Road", "Lake View", "Gandhi Nagar", "Nehru Colony",
+        "Temple Street", "Market Road", "College Road", "Ring Road"
+    };
+    /** city, state, first three digits of its pincodes */
+    private static final String[][] CITIES = {
+        {"Kolkata", "West Bengal", "700"}, {"Mumbai", "Maharashtra", "400"}, {"Delhi", "Delhi", "110"},
+        {"Bengaluru", "Karnataka", "560"}, {"Chennai", "Tamil Nadu", "600"}, {"Hyderabad", "Telangana", "500"},
+        {"Pune", "Maharashtra", "411"}, {"Jaipur", "Rajasthan", "302"}, {"Lucknow", "Uttar Pradesh", "226"},
+        {"Patna", "Bihar", "800"}
+    };
+    /** type, category, problem */
+    private static final String[][] PROBLEMS = {
+        {"Supply", "Outage", "No power since morning"},
+        {"Supply", "Low voltage", "Voltage drops every evening"},
+        {"Billing", "Wrong amount", "Bill amount is much higher than usual"},
+        {"Billing", "Payment not reflected", "Paid online but the bill still shows due"},
+        {"Meter", "Meter fault", "Meter display is blank"},
+        {"Technical", "Street light", "Street light is not working"},
+        {"Service", "Load extension", "Need the sanctioned load increased"}
+    };
+    private static final String[] LANDMARKS = {
+        "Near the bus stand", "Opposite the temple", "Behind the school", "Next to the water tank", null
+    };
+    private static final String[] RESPONSES = {
+        "Issue fixed by the field team", "Meter replaced", "Bill corrected and reissued",
+        "Payment reconciled", "Supply restored"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TariffService tariffService;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    /** Months of bill history for a customer who has been around from the start */
+    @Value("${ebm.generate.months:36}")
+    private int months;
+
+    /** Newest billing month, yyyy-MM; blank for last month */
+    @Value("${ebm.generate.until:}")
+    private String until;
+
+    @Value("${ebm.generate.complaints-per-customer:0.8}")
+    private double complaintsPerCustomer;
+
+    /** Customers written per transaction */
+    @Value("${ebm.generate.chunk-customers:1000}")
+    private int chunkCustomers;
+
+    /** Login password of every generated user */
+    @Value("${ebm.generate.password:password1}")
+    private String password;
+
+    private final TransactionTemplate tx;
+
+    public DataGeneratorService(PlatformTransactionManager txManager) {
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /**
+     * Generate customers with consumer ids firstConsumerId .. firstConsumerId + customers - 1.
+     *
+     * @return row counts, the consumer id range and the rate
+     * @throws DataGeneratorException if any of those consumer ids is taken
+     */
+    public Map<String, Object> generate(int customers, long seed, long firstConsumerId) {
+        if (customers <= 0 || firstConsumerId < 0 || firstConsumerId + customers > 10_000_000_000_000L) {
+            throw new DataGeneratorException("Need a positive customer count and 13-digit consumer ids");
+        }
+        YearMonth last = until == null || until.isBlank() ? YearMonth.now().minusMonths(1) : YearMonth.parse(until);
+        String from = consumerId(firstConsumerId);
+        String to = consumerId(firstConsumerId + customers - 1);
+        Long taken = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM customers WHERE consumer_id BETWEEN ? AND ?", Long.class, from, to);
+        if (taken > 0) {
+            throw new DataGeneratorException("Consumer ids " + from + ".." + to + " are already in use ("
+                    + taken + "); pick another ebm.generate.first-consumer-id");
+        }
+
+        Ids ids = reserveIds();
+        // one hash for the run: BCrypt per user would take longer than the rest of the row
+        String passwordHash = passwordService.hash(password);
+        Totals totals = new Totals();
+        long start = System.nanoTime();
+        long reported = 0;
+        for (int c = 0; c < customers; c += chunkCustomers) {
+            int end = Math.min(c + chunkCustomers, customers);
+            Rows rows = new Rows();
+            for (int i = c; i < end; i++) {
+                customer(firstConsumerId + i, new SplittableRandom(seed * 0x9E3779B97F4A7C15L + i), last, ids,
+                        passwordHash, rows);
+            }
+            tx.executeWithoutResult(status -> rows.write(jdbc));
+            totals.add(rows);
+            // every tenth of the way
+            if (end * 10L / customers > reported) {
+                reported = end * 10L / customers;
+                log.info("Generated {}/{} customers, {} rows so far", end, customers, totals.rows());
+            }
+        }
+        moveIdsPast(ids);
+        statsService.reconcile();
+
+        double secs = (System.nanoTime() - start) / 1e9;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("customers", totals.customers);
+        summary.put("bills", totals.bills);
+        summary.put("payments", totals.payments);
+        summary.put("complaints", totals.complaints);
+        summary.put("firstConsumerId", from);
+        summary.put("lastConsumerId", to);
+        summary.put("until", last.toString());
+        summary.put("seconds", Math.round(secs * 10) / 10.0);
+        summary.put("rowsPerSecond", Math.round(totals.rows() / Math.max(secs, 1e-3)));
+        log.info("Synthetic data generated: {}", summary);
+        return summary;
+    }
+
+    /** One customer, their user, bill history and complaints */
+    private void customer(long consumer, SplittableRandom rnd, YearMonth last, Ids ids, String passwordHash,
+                          Rows rows) {
+        String consumerId = consumerId(consumer);
+        String first = pick(rnd, FIRST_NAMES);
+        String lastName = pick(rnd, LAST_NAMES);
+        String name = first + " " + lastName;
+        String email = (first + "." + lastName + "." + consumerId + "@example.com").toLowerCase(Locale.ROOT);
+        String[] city = pick(rnd, CITIES);
+        long userId = ids.user++;
+        long customerId = ids.customer++;
+
+        rows.users.add(new Object[] {userId, "c" + consumerId, email, name, passwordHash});
+        rows.userRoles.add(new Object[] {userId, ids.customerRole});
+        rows.customers.add(new Object[] {customerId, consumerId, name,
+                (1 + rnd.nextInt(400)) + ", " + pick(rnd, STREETS) + ", " + city[0], email,
+                String.valueOf(6 + rnd.nextInt(4)) + String.format("%09d", rnd.nextInt(1_000_000_000)),
+                city[0], city[1], city[2] + String.format("%03d", rnd.nextInt(1000)), userId});
+
+        // most customers have been around for the whole window, the rest joined during it
+        int tenure = rnd.nextDouble() < 0.7 ? months : 1 + rnd.nextInt(months);
+        double baseUnits = Math.exp(5.2 + 0.5 * rnd.nextGaussian());
+        double trouble = rnd.nextDouble() < 0.1 ? 0.35 : 0.04;
+        YearMonth firstMonth = last.minusMonths(tenure - 1L);
+        for (YearMonth m = firstMonth; !m.isAfter(last); m = m.plusMonths(1)) {
+            // summer peak around May-June
+            double season = 1 + 0.35 * Math.cos(2 * Math.PI * (m.getMonthValue() - 5.5) / 12);
+            long units = Math.round(baseUnits * season * (0.85 + 0.3 * rnd.nextDouble()));
+            LocalDate issue = m.plusMonths(1).atDay(1);
+            BigDecimal amount = tariffService.computeAmountDue(null, units, issue);
+            bill(rnd, customerId, m, issue, amount, m.equals(last), trouble, ids, rows);
+        }
+
+        int complaints = poisson(rnd, complaintsPerCustomer * tenure / months);
+        LocalDateTime since = firstMonth.atDay(1).atStartOfDay();
+        LocalDateTime end = last.atEndOfMonth().atTime(23, 59);
+        long window = ChronoUnit.MINUTES.between(since, end);
+        for (int k = 0; k < complaints; k++) {
+            LocalDateTime created = since.plusMinutes(rnd.nextLong(window));
+            complaint(rnd, customerId, created, end, ids, rows);
+        }
+    }
+
+    private void bill(SplittableRandom rnd, long customerId, YearMonth month, LocalDate issue, BigDecimal amount,
+                      boolean newest, double trouble, Ids ids, Rows rows) {
+        String billId = "ebm" + ids.billNo++;
+        LocalDate due = issue.plusDays(15);
+        List<BigDecimal> paid = new ArrayList<>(2);
+        String status;
+        double u = rnd.nextDouble();
+        if (newest) {
+            // not due yet
+            if (u < 0.45) {
+                paid.add(amount);
+            } else if (u < 0.55) {
+                paid.add(part(rnd, amount, 0.3, 0.7));
+            }
+        } else if (u < trouble) {
+            if (rnd.nextBoolean()) {
+                paid.add(part(rnd, amount, 0.2, 0.7));
+            }
+        } else if (u < trouble + 0.08) {
+            BigDecimal first = part(rnd, amount, 0.4, 0.6);
+            paid.add(first);
+            paid.add(amount.subtract(first));
+        } else {
+            paid.add(amount);
+        }
+
+        BigDecimal balance = amount;
+        LocalDate paidOn = issue.plusDays(rnd.nextInt(trouble > 0.1 ? 30 : 14));
+        LocalDate lastPaidOn = null;
+        String paymentId = null;
+        for (BigDecimal p : paid) {
+            balance = balance.subtract(p);
+            paymentId = "ebmp" + ids.paymentNo++;
+            rows.payments.add(new Object[] {ids.payment++, paymentId, billId, customerId, p, balance,
+                    Timestamp.valueOf(paidOn.atTime(8 + rnd.nextInt(14), rnd.nextInt(60)))});
+            lastPaidOn = paidOn;
+            paidOn = paidOn.plusDays(7 + rnd.nextInt(14));
+        }
+        if (balance.signum() == 0) {
+            status = "PAID";
+        } else {
+            status = newest ? "PENDING" : "OVERDUE";
+        }
+        rows.bills.add(new Object[] {ids.bill++, billId, customerId, month.toString(), balance,
+                Date.valueOf(issue), Date.valueOf(due), status,
+                lastPaidOn == null ? null : Date.valueOf(lastPaidOn), paymentId});
+    }
+
+    private void complaint(SplittableRandom rnd, long customerId, LocalDateTime created, LocalDateTime end,
+                           Ids ids, Rows rows) {
+        String[] problem = pick(rnd, PROBLEMS);
+        long ageDays = ChronoUnit.DAYS.between(created, end);
+        String status;
+        LocalDateTime updated = created;
+        String response = null;
+        if (ageDays < 30) {
+            status = rnd.nextDouble() < 0.6 ? "OPEN" : "IN_PROGRESS";
+            if (status.equals("IN_PROGRESS")) {
+                updated = min(created.plusHours(2 + rnd.nextInt(72)), end);
+                response = "Technician assigned";
+            }
+        } else {
+            status = rnd.nextDouble() < 0.7 ? "RESOLVED" : "CLOSED";
+            updated = created.plusDays(1 + rnd.nextInt(20)).plusMinutes(rnd.nextInt(600));
+            response = pick(rnd, RESPONSES);
+        }
+        rows.complaints.add(new Object[] {ids.complaint++, "ebmc" + ids.complaintNo++, customerId,
+                problem[0], problem[1], problem[2], pick(rnd, LANDMARKS), status,
+                Timestamp.valueOf(created), Timestamp.valueOf(updated), response});
+    }
+
+    /** A share of amount between lo and hi, to the paisa */
+    private static BigDecimal part(SplittableRandom rnd, BigDecimal amount, double lo, double hi) {
+        return amount.multiply(BigDecimal.valueOf(lo + (hi - lo) * rnd.nextDouble()))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static int poisson(SplittableRandom rnd, double mean) {
+        double limit = Math.exp(-mean);
+        double p = rnd.nextDouble();
+        int k = 0;
+        while (p > limit) {
+            p *= rnd.nextDouble();
+            k++;
+        }
+        return k;
+    }
+
+    private static <T> T pick(SplittableRandom rnd, T[] values) {
+        return values[rnd.nextInt(values.length)];
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static String consumerId(long n) {
+        return String.format("%013d", n);
+    }
+
+    /**
+     * Next ids to hand out. Pooled sequences (bills_seq, payments_seq) give
+     * out blocks below their current value, so ids start above both it and
+     * the table's max id. Business ids start at a fresh value of their V9
+     * sequence: every block handed out so far lies below it.
+     */
+    private Ids reserveIds() {
+        Ids ids = new Ids();
+        ids.customerRole = jdbc.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_CUSTOMER'", Long.class);
+        ids.user = next("SELECT COALESCE(MAX(id), 0) FROM users");
+        ids.customer = next("SELECT COALESCE(MAX(id), 0) FROM customers");
+        ids.complaint = next("SELECT COALESCE(MAX(id), 0) FROM complaints");
+        ids.bill = Math.max(next("SELECT COALESCE(MAX(id), 0) FROM bills"), next("SELECT NEXT VALUE FOR bills_seq"));
+        ids.payment = Math.max(next("SELECT COALESCE(MAX(id), 0) FROM payments"),
+                next("SELECT NEXT VALUE FOR payments_seq"));
+        ids.billNo = jdbc.queryForObject("SELECT NEXT VALUE FOR bill_id_seq", Long.class);
+        ids.paymentNo = jdbc.queryForObject("SELECT NEXT VALUE FOR payment_id_seq", Long.class);
+        ids.complaintNo = jdbc.queryForObject("SELECT NEXT VALUE FOR complaint_id_seq", Long.class);
+        return ids;
+    }
+
+    private long next(String sql) {
+        return jdbc.queryForObject(sql, Long.class) + 1;
+    }
+
+    private void moveIdsPast(Ids ids) {
+        jdbc.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + ids.user);
+        jdbc.execute("ALTER TABLE customers ALTER COLUMN id RESTART WITH " + ids.customer);
+        jdbc.execute("ALTER TABLE complaints ALTER COLUMN id RESTART WITH " + ids.complaint);
+        // pooled: a value v hands out (v - 50, v]
+        jdbc.execute("ALTER SEQUENCE bills_seq RESTART WITH " + (ids.bill + 50));
+        jdbc.execute("ALTER SEQUENCE payments_seq RESTART WITH " + (ids.payment + 50));
+        jdbc.execute("ALTER SEQUENCE bill_id_seq RESTART WITH " + ids.billNo);
+        jdbc.execute("ALTER SEQUENCE payment_id_seq RESTART WITH " + ids.paymentNo);
+        jdbc.execute("ALTER SEQUENCE complaint_id_seq RESTART WITH " + ids.complaintNo);
+    }
+
+    private static final class Ids {
+        long customerRole;
+        long user;
+        long customer;
+        long complaint;
+        long bill;
+        long payment;
+        long billNo;
+        long paymentNo;
+        long complaintNo;
+    }
+
+    /** Rows of one chunk, in foreign key order */
+    private static final class Rows {
+        final List<Object[]> users = new ArrayList<>();
+        final List<Object[]> userRoles = new ArrayList<>();
+        final List<Object[]> customers = new ArrayList<>();
+        final List<Object[]> bills = new ArrayList<>();
+        final List<Object[]> payments = new ArrayList<>();
+        final List<Object[]> complaints = new ArrayList<>();
+
+        void write(JdbcTemplate jdbc) {
+            jdbc.batchUpdate(USER_SQL, users);
+            jdbc.batchUpdate(USER_ROLE_SQL, userRoles);
+            jdbc.batchUpdate(CUSTOMER_SQL, customers);
+            jdbc.batchUpdate(BILL_SQL, bills);
+            jdbc.batchUpdate(PAYMENT_SQL, payments);
+            jdbc.batchUpdate(COMPLAINT_SQL, complaints);
+        }
+    }
+
+    private static final class Totals {
+        long customers;
+        long bills;
+        long payments;
+        long complaints;
+
+        void add(Rows rows) {
+            customers += rows.customers.size();
+            bills += rows.bills.size();
+            payments += rows.payments.size();
+            complaints += rows.complaints.size();
+        }
+
+        long rows() {
+            // a user and its role row per customer
+            return customers * 3 + bills + payments + complaints;
+        }
+    }
+}
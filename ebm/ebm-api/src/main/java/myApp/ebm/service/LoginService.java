@@ -5,62 +5,132 @@ import myApp.ebm.dto.LoginRequest;
 import myApp.ebm.dto.LoginResponse;
 import myApp.ebm.exception.AccountInactiveException;
 import myApp.ebm.exception.InvalidCredentialsException;
-import myApp.ebm.model.User;
-import myApp.ebm.model.Customer;
+import myApp.ebm.exception.LoginBusyException;
 import myApp.ebm.repository.UserRepository;
-import myApp.ebm.repository.CustomerRepository;
-import myApp.ebm.util.EncryptionUtil;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.annotation.Timed;
 
 /**
  * Service for validating user login credentials.
+ *
+ * One projection query fetches the user, its roles and consumerId. The
+ * password check runs on the bounded passwordHashExecutor (see
+ * PasswordHashConfig), so the calling thread is not held for the hash.
+ * A password stored in an older form or at a lower cost is rehashed
+ * there after a successful check.
  */
+@Timed(value = "ebm.service", histogram = true)
 @Service
 public class LoginService {
 
     @Autowired private UserRepository userRepo;
-    @Autowired private CustomerRepository customerRepo;
+    @Autowired private AccessTokenService tokenService;
+    @Autowired private PasswordService passwordService;
+    @Autowired @Qualifier("passwordHashExecutor") private ThreadPoolTaskExecutor hashExecutor;
+
+    private final TransactionTemplate tx;
+
+    public LoginService(PlatformTransactionManager txManager) {
+        this.tx = new TransactionTemplate(txManager);
+    }
 
     /**
-     * Validates a login attempt.
+     * Validates a login attempt, waiting for the password check.
      *
      * @param req contains username and plain‑text password
-     * @return LoginResponse on success
+     * @return LoginResponse with a signed access token on success
      * @throws InvalidCredentialsException if username not found or password mismatch
      * @throws AccountInactiveException    if user.status != "ACTIVE"
+     * @throws LoginBusyException          if too many logins are waiting for a password check
      */
     public LoginResponse validateLogin(LoginRequest req) {
-        User user = userRepo.findByUsername(req.getUsername())
-                .orElseThrow(InvalidCredentialsException::new);
+        try {
+            return login(req).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Validates a login attempt. The user is read on the calling thread;
+     * the returned future completes, or fails with the exceptions of
+     * {@link #validateLogin}, on the password hash pool. An unknown
+     * username also costs a hash there, so it takes as long as a wrong
+     * password.
+     *
+     * @throws LoginBusyException if the password hash pool and its queue are full
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest req) {
+        List<Object[]> rows = userRepo.findLoginRows(req.getUsername());
+        try {
+            return CompletableFuture.supplyAsync(() -> check(req.getPassword(), rows), hashExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new LoginBusyException();
+        }
+    }
 
-        // manual decryption & comparison
-        String plain = EncryptionUtil.decrypt(user.getPassword());
-        if (!plain.equals(req.getPassword())) {
+    /** Password and status check on the columns of {@link UserRepository#findLoginRows} */
+    private LoginResponse check(String password, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            passwordService.matchesNothing(password);
+            throw new InvalidCredentialsException();
+        }
+        Object[] user = rows.get(0);
+        long id = (Long) user[0];
+        String stored = (String) user[3];
+        String status = (String) user[4];
+        String userType = (String) user[5];
+
+        if (password == null || !passwordService.matches(password, stored)) {
             throw new InvalidCredentialsException();
         }
 
         // status check
-        if (!"ACTIVE".equalsIgnoreCase(user.getStatus())) {
+        if (!"ACTIVE".equalsIgnoreCase(status)) {
             throw new AccountInactiveException();
         }
 
-        // For customers, get the consumerId
-        String consumerId = null;
-        if ("CUSTOMER".equalsIgnoreCase(user.getUserType())) {
-            Customer customer = customerRepo.findByUser(user);
-            if (customer != null) {
-                consumerId = customer.getConsumerId();
+        if (passwordService.needsRehash(stored)) {
+            String hash = passwordService.hash(password);
+            tx.executeWithoutResult(s -> userRepo.updatePassword(id, hash));
+        }
+
+        // For customers, the consumerId
+        String consumerId = "CUSTOMER".equalsIgnoreCase(userType) ? (String) user[6] : null;
+        Set<String> roles = new TreeSet<>();
+        for (Object[] row : rows) {
+            if (row[7] != null) {
+                roles.add(row[7].toString());
             }
         }
 
-        return new LoginResponse(
+        LoginResponse response = new LoginResponse(
             "Login successful",
-            user.getUserType(),
-            user.getUsername(),
-            user.getId(),
-            user.getName(),
+            userType,
+            (String) user[1],
+            id,
+            (String) user[2],
             consumerId
         );
+        response.setAccessToken(tokenService.issue(id, userType, roles, consumerId));
+        response.setExpiresIn(tokenService.getTtl().toSeconds());
+        return response;
     }
 }
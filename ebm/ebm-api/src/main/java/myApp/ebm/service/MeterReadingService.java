@@ -0,0 +1,566 @@
+package myApp.ebm.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import myApp.ebm.dto.meter.MeterImportRequest;
+import myApp.ebm.dto.meter.MeterImportResponse;
+import myApp.ebm.dto.meter.MeterReadingResponse;
+import myApp.ebm.exception.MeterImportException;
+import myApp.ebm.model.MeterImport;
+import myApp.ebm.repository.MeterImportRepository;
+import myApp.ebm.repository.MeterReadingRepository;
+import myApp.ebm.util.LongLongMap;
+import myApp.ebm.util.MeterCsvParser;
+
+/**
+ * Meter readings: bulk CSV import and per-customer lookups.
+ *
+ * An import maps the file region by region (chunks of
+ * ebm.meter-import.chunk-bytes) and parses each region in parallel on the
+ * meterImportExecutor, straight from the mapped bytes. A chunk owns every
+ * line that starts inside it. Valid rows of a chunk are upserted with JDBC
+ * batches in one transaction; bad rows go to the rejects file. consumerIds
+ * follow the registration rule, 13 characters; all-digit ones are looked up
+ * as numbers, the rest (e.g. ADM ids) by text.
+ *
+ * Only files inside ebm.meter-import.dir can be imported: request paths are
+ * resolved in it and may not lead out of it, links included. Rejects files
+ * are written to ebm.meter-import.rejects-dir, never next to the source.
+ *
+ * The import's committedOffset only moves past a chunk once it and all
+ * chunks before it are committed, so {@link #resumeImport(Long)} restarts
+ * from there. Readings are keyed by (customer, day), so chunks stored twice
+ * after a resume are overwritten, not duplicated; their rejects may repeat.
+ */
+@Service
+public class MeterReadingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MeterReadingService.class);
+
+    /** Longest line accepted; a chunk maps this much past its end to finish its last line */
+    static final int MAX_LINE = 4096;
+
+    /** Rows per JDBC batch */
+    static final int BATCH_SIZE = 1000;
+
+    static final String ERR_CUSTOMER = "Unknown consumerId";
+    static final String ERR_FUTURE = "readingDate is in the future";
+    static final String ERR_LINE_LENGTH = "Line longer than " + MAX_LINE + " bytes";
+
+    private static final String UPSERT_SQL =
+            "MERGE INTO meter_readings (customer_id, reading_date, units, import_id) "
+            + "KEY (customer_id, reading_date) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private MeterImportRepository importRepo;
+
+    @Autowired
+    private MeterReadingRepository readingRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    @Qualifier("meterImportExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    /** Bytes of the file parsed and committed as one unit */
+    @Value("${ebm.meter-import.chunk-bytes:4194304}")
+    private int chunkBytes;
+
+    /** Inbox: the only directory imports are read from */
+    @Value("${ebm.meter-import.dir:meter-imports}")
+    private String importDir;
+
+    /** Where each import's rejects file is written */
+    @Value("${ebm.meter-import.rejects-dir:meter-imports-rejects}")
+    private String rejectsDir;
+
+    private final TransactionTemplate tx;
+
+    /** Live state of imports executing in this JVM */
+    private final Map<Long, ImportJob> active = new ConcurrentHashMap<>();
+
+    public MeterReadingService(PlatformTransactionManager txManager) {
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /**
+     * A customer's daily readings between two dates, oldest first.
+     */
+    public List<MeterReadingResponse> getReadings(String consumerId, LocalDate from, LocalDate to) {
+        return readingRepo.findResponsesByConsumerId(consumerId, from, to);
+    }
+
+    /**
+     * Register an import of a CSV file in the import directory and start it in the background.
+     *
+     * @throws MeterImportException if the file is outside the import directory, unreadable
+     *         or already being imported
+     */
+    public MeterImportResponse startImport(MeterImportRequest req) {
+        Path inbox = Path.of(importDir).toAbsolutePath().normalize();
+        Path path = inbox.resolve(req.getPath()).normalize();
+        if (!path.startsWith(inbox)) {
+            throw new MeterImportException("File must be inside the import directory: " + req.getPath());
+        }
+        if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+            throw new MeterImportException("File not found or not readable: " + req.getPath());
+        }
+        long size;
+        Path rejectsDirPath = Path.of(rejectsDir).toAbsolutePath().normalize();
+        try {
+            // a link inside the inbox must not lead out of it either
+            if (!path.toRealPath().startsWith(inbox.toRealPath())) {
+                throw new MeterImportException("File must be inside the import directory: " + req.getPath());
+            }
+            size = Files.size(path);
+            Files.createDirectories(rejectsDirPath);
+        } catch (IOException e) {
+            throw new MeterImportException("Cannot read " + req.getPath() + ": " + e.getMessage());
+        }
+        long start = req.getStartOffset() != null ? req.getStartOffset() : 0;
+        if (start > size) {
+            throw new MeterImportException("Start offset " + start + " is past the end of the file (" + size + " bytes)");
+        }
+
+        MeterImport imp = tx.execute(status -> {
+            importRepo.findFirstByFilePathAndStatus(path.toString(), "RUNNING")
+                    .ifPresent(i -> {
+                        throw new MeterImportException("Import " + i.getId() + " of " + path + " is already running");
+                    });
+            MeterImport i = new MeterImport();
+            i.setFilePath(path.toString());
+            i.setRejectsPath("");
+            i.setFileSize(size);
+            i.setCommittedOffset(start);
+            i = importRepo.save(i);
+            // named after the import, so imports of files with the same name keep apart
+            i.setRejectsPath(rejectsDirPath.resolve(i.getId() + "-" + path.getFileName() + ".rejects.csv").toString());
+            return i;
+        });
+        try {
+            // left over from a database that reused this import id; a resume appends to its own
+            Files.deleteIfExists(Path.of(imp.getRejectsPath()));
+        } catch (IOException e) {
+            throw new MeterImportException("Cannot write " + imp.getRejectsPath() + ": " + e.getMessage());
+        }
+
+        submit(imp);
+        return getImport(imp.getId());
+    }
+
+    /**
+     * Continue an interrupted or failed import from its committed offset.
+     */
+    public MeterImportResponse resumeImport(Long importId) {
+        if (active.containsKey(importId)) {
+            throw new MeterImportException("Import " + importId + " is already running in this instance");
+        }
+        MeterImport imp = tx.execute(status -> {
+            MeterImport i = importRepo.findById(importId)
+                    .orElseThrow(() -> new MeterImportException("Import not found: " + importId));
+            if ("COMPLETED".equals(i.getStatus())) {
+                throw new MeterImportException("Import " + importId + " is already completed");
+            }
+            i.setStatus("RUNNING");
+            i.setError(null);
+            i.setFinishedAt(null);
+            return i;
+        });
+        submit(imp);
+        return getImport(importId);
+    }
+
+    /**
+     * Progress of an import: persisted checkpoint plus live throughput.
+     */
+    public MeterImportResponse getImport(Long importId) {
+        MeterImport imp = importRepo.findById(importId)
+                .orElseThrow(() -> new MeterImportException("Import not found: " + importId));
+
+        MeterImportResponse resp = new MeterImportResponse();
+        resp.setImportId(imp.getId());
+        resp.setFilePath(imp.getFilePath());
+        resp.setRejectsPath(imp.getRejectsPath());
+        resp.setStatus(imp.getStatus());
+        resp.setFileSize(imp.getFileSize());
+        resp.setCommittedOffset(imp.getCommittedOffset());
+        resp.setRowsImported(imp.getRowsImported());
+        resp.setRowsRejected(imp.getRowsRejected());
+        resp.setError(imp.getError());
+        resp.setStartedAt(imp.getStartedAt());
+        resp.setFinishedAt(imp.getFinishedAt());
+
+        ImportJob live = active.get(importId);
+        if (live != null) {
+            resp.setRowsPerSecond(live.rowsPerSecond());
+        } else if (imp.getFinishedAt() != null) {
+            long rows = imp.getRowsImported() + imp.getRowsRejected();
+            double secs = Duration.between(imp.getStartedAt(), imp.getFinishedAt()).toMillis() / 1000.0;
+            resp.setRowsPerSecond(secs > 0 ? rows / secs : rows);
+        }
+        return resp;
+    }
+
+    private void submit(MeterImport imp) {
+        ImportJob job = new ImportJob(imp, chunkBytes);
+        if (job.chunks == 0) {
+            finish(job);
+            return;
+        }
+        active.put(job.importId, job);
+        // open the file and load the consumerId lookup off the request thread, then fan out
+        executor.execute(() -> {
+            try {
+                job.channel = FileChannel.open(job.path, StandardOpenOption.READ);
+                job.customers = loadCustomers();
+            } catch (IOException | RuntimeException e) {
+                log.error("Meter import {} could not start", job.importId, e);
+                job.fail(e);
+                finish(job);
+                return;
+            }
+            for (int k = 0; k < job.chunks; k++) {
+                int chunk = k;
+                executor.execute(() -> runChunk(job, chunk));
+            }
+        });
+    }
+
+    /** consumerId -> customers.id for every customer */
+    private CustomerLookup loadCustomers() {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM customers", Integer.class);
+        CustomerLookup lookup = new CustomerLookup(count != null ? count : 0);
+        jdbc.query("SELECT id, consumer_id FROM customers", rs -> {
+            String consumerId = rs.getString(2);
+            long no = MeterCsvParser.consumerNo(consumerId);
+            if (no > 0) {
+                lookup.byNumber.put(no, rs.getLong(1));
+            } else {
+                lookup.byText.put(consumerId, rs.getLong(1));
+            }
+        });
+        return lookup;
+    }
+
+    /** All-digit consumerIds as numbers, the few others as text */
+    private static final class CustomerLookup {
+        final LongLongMap byNumber;
+        final Map<String, Long> byText = new HashMap<>();
+
+        CustomerLookup(int expected) {
+            this.byNumber = new LongLongMap(expected);
+        }
+
+        /** customers.id of the parsed line's consumerId, or {@link LongLongMap#MISSING} */
+        long get(MeterCsvParser parser) {
+            if (parser.consumerNo > 0) {
+                return byNumber.get(parser.consumerNo);
+            }
+            Long id = byText.get(parser.consumerId);
+            return id != null ? id : LongLongMap.MISSING;
+        }
+    }
+
+    private void runChunk(ImportJob job, int k) {
+        try {
+            if (!job.failed) {
+                importChunk(job, k);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Meter import {} chunk at offset {} failed", job.importId, job.chunkStart(k), e);
+            job.fail(e);
+        } finally {
+            if (job.remaining.decrementAndGet() == 0) {
+                finish(job);
+            }
+        }
+    }
+
+    /**
+     * Parse one chunk from the mapped file, store its valid rows and
+     * write its rejects, then advance the checkpoint if possible.
+     */
+    private void importChunk(ImportJob job, int k) throws IOException {
+        long start = job.chunkStart(k);
+        long end = job.chunkEnd(k);
+        long mapFrom = start > 0 ? start - 1 : 0;
+        long mapTo = Math.min(job.fileSize, end + MAX_LINE);
+        MappedByteBuffer buf = job.channel.map(FileChannel.MapMode.READ_ONLY, mapFrom, mapTo - mapFrom);
+        int bufEnd = buf.limit();
+        int limit = (int) (end - mapFrom);
+        int pos = (int) (start - mapFrom);
+
+        MeterCsvParser parser = new MeterCsvParser();
+        if (start > 0 && buf.get(0) != '\n') {
+            // starts inside a line: that line belongs to the previous chunk
+            pos = nextLine(buf, pos, bufEnd);
+        } else if (start == 0 && isHeader(parser, buf, bufEnd)) {
+            pos = nextLine(buf, pos, bufEnd);
+        }
+
+        // a valid line is at least 26 bytes plus '\n', so this never overflows
+        int cap = (int) ((end - start) / 27) + 2;
+        long[] customerIds = new long[cap];
+        long[] days = new long[cap];
+        long[] units = new long[cap];
+        int n = 0;
+        ByteArrayOutputStream rejects = new ByteArrayOutputStream();
+        int rejected = 0;
+
+        while (pos < limit) {
+            int eol = indexOfNewline(buf, pos, bufEnd);
+            if (eol < 0 && mapTo < job.fileSize) {
+                // no line end within MAX_LINE: the next chunk skips the rest of this line
+                reject(rejects, mapFrom + pos, ERR_LINE_LENGTH, buf, pos, Math.min(bufEnd, pos + 200));
+                rejected++;
+                job.rows.increment();
+                break;
+            }
+            int lineEnd = eol >= 0 ? eol : bufEnd;
+            int next = eol >= 0 ? eol + 1 : bufEnd;
+            if (lineEnd == pos || (lineEnd == pos + 1 && buf.get(pos) == '\r')) {
+                pos = next; // blank line
+                continue;
+            }
+
+            String err = parser.parse(buf, pos, lineEnd);
+            long customerId = LongLongMap.MISSING;
+            if (err == null) {
+                customerId = job.customers.get(parser);
+                if (customerId == LongLongMap.MISSING) {
+                    err = ERR_CUSTOMER;
+                } else if (parser.epochDay > job.today) {
+                    err = ERR_FUTURE;
+                }
+            }
+            if (err != null) {
+                reject(rejects, mapFrom + pos, err, buf, pos, lineEnd);
+                rejected++;
+            } else {
+                customerIds[n] = customerId;
+                days[n] = parser.epochDay;
+                units[n] = parser.units;
+                n++;
+            }
+            job.rows.increment();
+            pos = next;
+        }
+
+        int rows = n;
+        tx.executeWithoutResult(status -> {
+            for (int from = 0; from < rows; from += BATCH_SIZE) {
+                int offset = from;
+                int size = Math.min(BATCH_SIZE, rows - from);
+                jdbc.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, customerIds[offset + i]);
+                        ps.setDate(2, Date.valueOf(LocalDate.ofEpochDay(days[offset + i])));
+                        ps.setLong(3, units[offset + i]);
+                        ps.setLong(4, job.importId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                });
+            }
+        });
+        job.imported.add(rows);
+        job.rejected.add(rejected);
+        commitChunk(job, k, rows, rejected, rejects);
+    }
+
+    /**
+     * Mark a chunk stored, append its rejects and move committedOffset past
+     * every leading chunk that is now complete.
+     */
+    private void commitChunk(ImportJob job, int k, long imported, long rejected,
+                             ByteArrayOutputStream rejects) throws IOException {
+        synchronized (job) {
+            if (rejects.size() > 0) {
+                Files.write(job.rejectsPath, rejects.toByteArray(),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            job.done[k] = true;
+            job.chunkImported[k] = imported;
+            job.chunkRejected[k] = rejected;
+
+            long addImported = 0;
+            long addRejected = 0;
+            int first = job.committed;
+            while (job.committed < job.chunks && job.done[job.committed]) {
+                addImported += job.chunkImported[job.committed];
+                addRejected += job.chunkRejected[job.committed];
+                job.committed++;
+            }
+            if (job.committed == first) {
+                return;
+            }
+            long offset = job.chunkEnd(job.committed - 1);
+            long addI = addImported;
+            long addR = addRejected;
+            tx.executeWithoutResult(status -> importRepo.findById(job.importId).ifPresent(i -> {
+                i.setCommittedOffset(offset);
+                i.setRowsImported(i.getRowsImported() + addI);
+                i.setRowsRejected(i.getRowsRejected() + addR);
+            }));
+        }
+    }
+
+    private void finish(ImportJob job) {
+        active.remove(job.importId);
+        if (job.channel != null) {
+            try {
+                job.channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close {}", job.path, e);
+            }
+        }
+        boolean failed = job.failed;
+        tx.executeWithoutResult(status -> importRepo.findById(job.importId).ifPresent(i -> {
+            i.setStatus(failed ? "FAILED" : "COMPLETED");
+            i.setError(job.error);
+            i.setFinishedAt(LocalDateTime.now());
+        }));
+        log.info("Meter import {} {}: {} rows imported, {} rejected, {} rows/s",
+                job.importId, failed ? "FAILED" : "COMPLETED",
+                job.imported.sum(), job.rejected.sum(),
+                String.format("%.0f", job.rowsPerSecond()));
+    }
+
+    /** Append "offset,"reason",original line" to a chunk's rejects */
+    private static void reject(ByteArrayOutputStream out, long offset, String reason,
+                               ByteBuffer buf, int from, int to) {
+        out.writeBytes((offset + ",\"" + reason + "\",").getBytes(StandardCharsets.UTF_8));
+        for (int i = from; i < to; i++) {
+            byte b = buf.get(i);
+            if (b != '\r' && b != '\n') {
+                out.write(b);
+            }
+        }
+        out.write('\n');
+    }
+
+    private static int indexOfNewline(ByteBuffer buf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** A first line that starts with a non-digit and is not a valid row, e.g. consumerId,readingDate,units */
+    private static boolean isHeader(MeterCsvParser parser, ByteBuffer buf, int to) {
+        if (to == 0 || (buf.get(0) >= '0' && buf.get(0) <= '9')) {
+            return false;
+        }
+        int eol = indexOfNewline(buf, 0, to);
+        return parser.parse(buf, 0, eol < 0 ? to : eol) != null;
+    }
+
+    private static int nextLine(ByteBuffer buf, int from, int to) {
+        int eol = indexOfNewline(buf, from, to);
+        return eol < 0 ? to : eol + 1;
+    }
+
+    /** State of an import executing in this JVM */
+    private static final class ImportJob {
+        final long importId;
+        final Path path;
+        final Path rejectsPath;
+        final long fileSize;
+        final long firstOffset;
+        final int chunkBytes;
+        final int chunks;
+        final long today = LocalDate.now().toEpochDay();
+
+        // guarded by the job's monitor
+        final boolean[] done;
+        final long[] chunkImported;
+        final long[] chunkRejected;
+        int committed;
+
+        final AtomicInteger remaining;
+        final LongAdder rows = new LongAdder();
+        final LongAdder imported = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final long startNanos = System.nanoTime();
+        volatile boolean failed;
+        volatile String error;
+
+        FileChannel channel;
+        CustomerLookup customers;
+
+        ImportJob(MeterImport imp, int chunkBytes) {
+            this.importId = imp.getId();
+            this.path = Path.of(imp.getFilePath());
+            this.rejectsPath = Path.of(imp.getRejectsPath());
+            this.fileSize = imp.getFileSize();
+            this.firstOffset = imp.getCommittedOffset();
+            this.chunkBytes = chunkBytes;
+            this.chunks = (int) ((fileSize - firstOffset + chunkBytes - 1) / chunkBytes);
+            this.done = new boolean[chunks];
+            this.chunkImported = new long[chunks];
+            this.chunkRejected = new long[chunks];
+            this.remaining = new AtomicInteger(chunks);
+        }
+
+        long chunkStart(int k) {
+            return firstOffset + (long) k * chunkBytes;
+        }
+
+        long chunkEnd(int k) {
+            return Math.min(fileSize, chunkStart(k) + chunkBytes);
+        }
+
+        void fail(Exception e) {
+            failed = true;
+            if (error == null) {
+                String msg = String.valueOf(e.getMessage());
+                error = msg.length() > 1000 ? msg.substring(0, 1000) : msg;
+            }
+        }
+
+        double rowsPerSecond() {
+            double secs = (System.nanoTime() - startNanos) / 1e9;
+            return secs > 0 ? rows.sum() / secs : 0;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package myApp.ebm.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import myApp.ebm.dto.bill.OverdueSweepResponse;
+import myApp.ebm.exception.OverdueSweepException;
+import myApp.ebm.repository.BillRepository;
+
+/**
+ * Moves PENDING bills whose due date has passed to OVERDUE.
+ *
+ * The candidate id range is found once, then walked in slices of
+ * ebm.overdue-sweep.chunk-size ids. Each slice is one bulk
+ * UPDATE ... WHERE id BETWEEN in its own short transaction, bounded by
+ * idx_bills_status_id, so row locks are held only for a slice at a time.
+ * The sweep is throttled to ebm.overdue-sweep.max-rows-per-second and
+ * runs nightly by default, on overdueSweepExecutor rather than the shared
+ * scheduler thread.
+ */
+@Service
+public class OverdueSweepService {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueSweepService.class);
+
+    @Autowired
+    private BillRepository billRepo;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private CustomerVersionService customerVersions;
+
+    @Autowired
+    @Qualifier("overdueSweepExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    /** Bill ids covered by one UPDATE */
+    @Value("${ebm.overdue-sweep.chunk-size:1000}")
+    private int chunkSize;
+
+    /** Upper bound on bills marked per second; 0 = unthrottled */
+    @Value("${ebm.overdue-sweep.max-rows-per-second:10000}")
+    private int maxRowsPerSecond;
+
+    private final TransactionTemplate tx;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** The sweep in progress, or the last one */
+    private volatile Run last;
+
+    public OverdueSweepService(PlatformTransactionManager txManager) {
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /**
+     * Nightly sweep; set ebm.overdue-sweep.cron=- to disable.
+     */
+    @Scheduled(cron = "${ebm.overdue-sweep.cron:0 15 1 * * *}")
+    public void scheduledSweep() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Overdue sweep skipped: previous sweep still running");
+            return;
+        }
+        Run run = new Run(LocalDate.now());
+        last = run;
+        submit(run);
+    }
+
+    /**
+     * Start a sweep in the background (admin only); poll {@link #getLastSweep()}.
+     *
+     * @throws OverdueSweepException if a sweep is already running
+     */
+    public OverdueSweepResponse startSweep() {
+        acquire();
+        Run run = new Run(LocalDate.now());
+        last = run;
+        submit(run);
+        return run.toResponse();
+    }
+
+    /**
+     * Run a sweep on the calling thread and return its metrics.
+     *
+     * @throws OverdueSweepException if a sweep is already running
+     */
+    public OverdueSweepResponse sweepNow() {
+        acquire();
+        return sweep().toResponse();
+    }
+
+    /**
+     * Metrics of the running or most recent sweep.
+     */
+    public OverdueSweepResponse getLastSweep() {
+        Run run = last;
+        if (run == null) {
+            OverdueSweepResponse resp = new OverdueSweepResponse();
+            resp.setStatus("NONE");
+            return resp;
+        }
+        return run.toResponse();
+    }
+
+    private void acquire() {
+        if (!running.compareAndSet(false, true)) {
+            throw new OverdueSweepException("An overdue sweep is already running");
+        }
+    }
+
+    /** Caller holds the running flag; released by the sweep, or here if it cannot start */
+    private void submit(Run run) {
+        try {
+            executor.execute(() -> sweep(run));
+        } catch (TaskRejectedException e) {
+            run.fail("Rejected by overdueSweepExecutor");
+            run.finishedAt = LocalDateTime.now();
+            run.endNanos = System.nanoTime();
+            running.set(false);
+            throw new OverdueSweepException("Overdue sweep could not be started: " + e.getMessage());
+        }
+    }
+
+    private Run sweep() {
+        Run run = new Run(LocalDate.now());
+        last = run;
+        sweep(run);
+        return run;
+    }
+
+    /** Caller holds the running flag; released here */
+    private void sweep(Run run) {
+        try {
+            List<Object[]> range = billRepo.findIdRangeByStatusAndDueDateBefore("PENDING", run.dueBefore);
+            Object[] minMax = range.isEmpty() ? new Object[2] : range.get(0);
+            if (minMax[0] != null) {
+                long max = ((Number) minMax[1]).longValue();
+                long from = ((Number) minMax[0]).longValue();
+                while (from <= max) {
+                    long to = Math.min(max, from + chunkSize - 1);
+                    markChunk(run, from, to);
+                    throttle(run);
+                    from = to + 1;
+                }
+            }
+            run.status = "COMPLETED";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.fail("Interrupted");
+        } catch (RuntimeException e) {
+            log.error("Overdue sweep failed", e);
+            run.fail(e.getMessage());
+        } finally {
+            run.finishedAt = LocalDateTime.now();
+            run.endNanos = System.nanoTime();
+            running.set(false);
+            log.info("Overdue sweep {}: {} bills marked OVERDUE in {} chunks, longest chunk {} ms, {} bills/s",
+                    run.status, run.billsMarked, run.chunks, run.maxChunkMillis,
+                    String.format("%.0f", run.billsPerSecond()));
+        }
+    }
+
+    private void markChunk(Run run, long fromId, long toId) {
+        long t0 = System.nanoTime();
+        Integer marked = tx.execute(status -> {
+            // customer rows before bill rows, like every other writer
+            customerVersions.bumpOwnersOfBills(fromId, toId, "PENDING", run.dueBefore);
+            int n = billRepo.updateStatusInIdRange(fromId, toId, "PENDING", "OVERDUE", run.dueBefore);
+            if (n > 0) {
+                BillStatsService.Delta delta = new BillStatsService.Delta();
+                delta.move("PENDING", "OVERDUE", n);
+                statsService.record(delta);
+            }
+            return n;
+        });
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        run.chunks++;
+        run.billsMarked += marked != null ? marked : 0;
+        run.maxChunkMillis = Math.max(run.maxChunkMillis, millis);
+    }
+
+    /** Sleep until the sweep is back under maxRowsPerSecond */
+    private void throttle(Run run) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long dueNanos = run.billsMarked * 1_000_000_000L / maxRowsPerSecond;
+        long aheadNanos = dueNanos - (System.nanoTime() - run.startNanos);
+        if (aheadNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+        }
+    }
+
+    /** Metrics of one sweep; written by the sweeping thread only */
+    private static final class Run {
+        final LocalDate dueBefore;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long startNanos = System.nanoTime();
+        volatile String status = "RUNNING";
+        volatile long billsMarked;
+        volatile int chunks;
+        volatile long maxChunkMillis;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+        volatile long endNanos;
+
+        Run(LocalDate dueBefore) {
+            this.dueBefore = dueBefore;
+        }
+
+        void fail(String message) {
+            status = "FAILED";
+            error = message;
+        }
+
+        double billsPerSecond() {
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            double secs = (end - startNanos) / 1e9;
+            return secs > 0 ? billsMarked / secs : 0;
+        }
+
+        OverdueSweepResponse toResponse() {
+            OverdueSweepResponse resp = new OverdueSweepResponse();
+            resp.setDueBefore(dueBefore);
+            resp.setStatus(status);
+            resp.setBillsMarked(billsMarked);
+            resp.setChunks(chunks);
+            resp.setMaxChunkMillis(maxChunkMillis);
+            resp.setBillsPerSecond(billsPerSecond());
+            resp.setError(error);
+            resp.setStartedAt(startedAt);
+            resp.setFinishedAt(finishedAt);
+            return resp;
+        }
+    }
+}
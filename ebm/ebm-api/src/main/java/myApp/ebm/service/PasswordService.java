@@ -0,0 +1,66 @@
+package myApp.ebm.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import myApp.ebm.util.EncryptionUtil;
+
+/**
+ * Password storage: BCrypt at cost ebm.auth.bcrypt-strength.
+ *
+ * Rows written before hashing hold the Base64 form from
+ * {@link EncryptionUtil}. Those still verify, and {@link #needsRehash}
+ * reports them, along with BCrypt hashes of a lower cost, so login can
+ * replace them once it has the plain password.
+ */
+@Service
+public class PasswordService {
+
+    private final BCryptPasswordEncoder encoder;
+    /** Hash of nothing anyone knows, at the current cost; see {@link #matchesNothing} */
+    private final String dummyHash;
+
+    public PasswordService(@Value("${ebm.auth.bcrypt-strength:10}") int strength) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.dummyHash = encoder.encode(UUID.randomUUID().toString());
+    }
+
+    public String hash(String plain) {
+        return encoder.encode(plain);
+    }
+
+    public boolean matches(String plain, String stored) {
+        if (isBcrypt(stored)) {
+            return encoder.matches(plain, stored);
+        }
+        try {
+            return MessageDigest.isEqual(EncryptionUtil.decrypt(stored).getBytes(StandardCharsets.UTF_8),
+                    plain.getBytes(StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Costs as much as checking a real BCrypt password and never matches.
+     * Used for unknown usernames, so the response time does not tell them
+     * apart from existing ones.
+     */
+    public void matchesNothing(String plain) {
+        encoder.matches(plain == null ? "" : plain, dummyHash);
+    }
+
+    /** True for legacy Base64 passwords and BCrypt hashes below the current cost */
+    public boolean needsRehash(String stored) {
+        return !isBcrypt(stored) || encoder.upgradeEncoding(stored);
+    }
+
+    private static boolean isBcrypt(String stored) {
+        return stored.startsWith("$2a$") || stored.startsWith("$2b$") || stored.startsWith("$2y$");
+    }
+}
@@ -0,0 +1,168 @@
+package myApp.ebm.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import myApp.ebm.dto.bill.PaymentRequest;
+import myApp.ebm.dto.bill.PaymentResponse;
+import myApp.ebm.exception.PaymentException;
+import myApp.ebm.model.PaymentIdempotency;
+import myApp.ebm.repository.PaymentIdempotencyRepository;
+
+/**
+ * Remembers the response of every keyed payment.
+ *
+ * The payment_idempotency table is the source of truth: its primary key
+ * stops two requests with the same key from both committing. The most
+ * recent ebm.payments.idempotency-cache-size keys are also kept in an LRU
+ * map so a replay is answered without a query.
+ */
+@Service
+public class PaymentIdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentIdempotencyService.class);
+
+    @Autowired
+    private PaymentIdempotencyRepository repo;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Value("${ebm.payments.idempotency-retention-days:30}")
+    private int retentionDays;
+
+    private final Map<String, PaymentIdempotency> recent;
+
+    public PaymentIdempotencyService(@Value("${ebm.payments.idempotency-cache-size:10000}") int cacheSize) {
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PaymentIdempotency> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * The stored outcome for a key, or null if the key is new.
+     */
+    public PaymentIdempotency find(String key) {
+        PaymentIdempotency hit = findCached(key);
+        if (hit != null) {
+            return hit;
+        }
+        PaymentIdempotency stored = repo.findById(key).orElse(null);
+        if (stored != null) {
+            remember(stored);
+        }
+        return stored;
+    }
+
+    /**
+     * The outcome for a key if it is among the recent keys, without a query.
+     */
+    public PaymentIdempotency findCached(String key) {
+        synchronized (recent) {
+            return recent.get(key);
+        }
+    }
+
+    /**
+     * Stored outcomes for many keys: recent ones from memory, the rest in one
+     * IN query. Keys never seen are absent from the result.
+     */
+    public Map<String, PaymentIdempotency> findAll(Collection<String> keys) {
+        Map<String, PaymentIdempotency> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (recent) {
+            for (String key : keys) {
+                PaymentIdempotency hit = recent.get(key);
+                if (hit != null) {
+                    found.put(key, hit);
+                } else {
+                    missing.add(key);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (PaymentIdempotency stored : repo.findAllById(missing)) {
+                remember(stored);
+                found.put(stored.getIdempotencyKey(), stored);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The stored response for a replayed request.
+     *
+     * @throws PaymentException if the key was used for a different payment
+     */
+    public PaymentResponse replay(PaymentIdempotency stored, PaymentRequest req) {
+        if (!stored.getBillId().equals(req.getBillId())
+                || stored.getAmountPaid().compareTo(req.getAmountPaid()) != 0) {
+            throw new PaymentException("Idempotency key " + stored.getIdempotencyKey()
+                    + " was already used for a different payment", null);
+        }
+        return new PaymentResponse(stored.getMessage(), stored.getPaymentId(), stored.getStatus());
+    }
+
+    /**
+     * Store the response under the request's key in the caller's transaction.
+     * A concurrent request with the same key makes one of the two commits fail.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(PaymentRequest req, PaymentResponse resp) {
+        PaymentIdempotency p = new PaymentIdempotency();
+        p.setIdempotencyKey(req.getIdempotencyKey());
+        p.setBillId(req.getBillId());
+        p.setAmountPaid(req.getAmountPaid());
+        p.setMessage(resp.getMessage());
+        p.setPaymentId(resp.getPaymentId());
+        p.setStatus(resp.getStatus());
+        em.persist(p);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(p);
+            }
+        });
+    }
+
+    private void remember(PaymentIdempotency p) {
+        synchronized (recent) {
+            recent.put(p.getIdempotencyKey(), p);
+        }
+    }
+
+    /**
+     * Nightly purge of keys past the retention period.
+     */
+    @Scheduled(cron = "${ebm.payments.idempotency-purge-cron:0 45 1 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        int purged = repo.deleteCreatedBefore(before);
+        synchronized (recent) {
+            recent.values().removeIf(p -> p.getCreatedAt().isBefore(before));
+        }
+        log.info("Purged {} payment idempotency keys older than {}", purged, before);
+    }
+}
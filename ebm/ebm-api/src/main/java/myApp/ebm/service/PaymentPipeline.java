@@ -0,0 +1,322 @@
+package myApp.ebm.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import myApp.ebm.dto.bill.PaymentRequest;
+import myApp.ebm.dto.bill.PaymentResponse;
+import myApp.ebm.exception.BillNotFoundException;
+import myApp.ebm.exception.PaymentException;
+import myApp.ebm.model.Bill;
+import myApp.ebm.model.PaymentIdempotency;
+import myApp.ebm.repository.BillRepository;
+
+/**
+ * Group-commit mode for POST /api/bills/pay (ebm.payments.pipeline.enabled).
+ *
+ * Callers put payments on a bounded queue and get a future. One writer
+ * thread takes whatever has queued up, at most ebm.payments.pipeline.max-batch
+ * payments, and applies them in a single transaction: one IN query for the
+ * bills, JDBC-batched ledger/key inserts and versioned bill updates, one
+ * stats update and one commit. Futures complete once that commit succeeds.
+ *
+ * A payment rejected on its own (unknown bill, already paid) fails only its
+ * future. If the commit itself fails (a bill changed outside the pipeline,
+ * a key committed concurrently) the batch is rolled back and its payments
+ * go one by one through {@link BillService#payBill}, which retries and
+ * replays as usual.
+ *
+ * When the queue is full, submit waits up to offer-timeout-ms, then
+ * rejects the payment so clients back off instead of piling up.
+ *
+ * Queue depth, batches, payments applied and fallbacks are published as
+ * ebm.payments.pipeline.* meters.
+ */
+@Service
+public class PaymentPipeline implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentPipeline.class);
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillRepository billRepo;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private PaymentIdempotencyService idempotency;
+
+    @Value("${ebm.payments.pipeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ebm.payments.pipeline.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${ebm.payments.pipeline.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    private final BlockingQueue<Pending> queue;
+
+    private final TransactionTemplate tx;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public PaymentPipeline(PlatformTransactionManager txManager,
+                           @Value("${ebm.payments.pipeline.queue-capacity:10000}") int capacity) {
+        this.tx = new TransactionTemplate(txManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "payment-pipeline");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Payment pipeline started: max batch {}, queue {}", maxBatch, queue.remainingCapacity());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (Pending p : left) {
+            p.future.completeExceptionally(new PaymentException("Payment pipeline stopped", null));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a payment; the future completes when its batch has committed.
+     * Replays of a recent idempotency key complete at once; older keys are
+     * looked up by the writer, one query per batch.
+     *
+     * @throws PaymentException if the pipeline is off or the queue stays full
+     */
+    public CompletableFuture<PaymentResponse> submit(PaymentRequest req) {
+        if (!running) {
+            throw new PaymentException("Payment pipeline is not running", null);
+        }
+        BillService.checkIdempotencyKey(req.getIdempotencyKey());
+        if (req.getIdempotencyKey() != null) {
+            PaymentIdempotency stored = idempotency.findCached(req.getIdempotencyKey());
+            if (stored != null) {
+                return CompletableFuture.completedFuture(idempotency.replay(stored, req));
+            }
+        }
+        Pending p = new Pending(req);
+        boolean queued;
+        try {
+            queued = queue.offer(p, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            throw new PaymentException("Too many payments in progress, please retry", null);
+        }
+        return p.future;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ebm.payments.pipeline.queued", queue, BlockingQueue::size)
+                .description("Payments waiting for the writer")
+                .register(registry);
+        FunctionCounter.builder("ebm.payments.pipeline.batches", batches, AtomicLong::get)
+                .description("Group commits")
+                .register(registry);
+        FunctionCounter.builder("ebm.payments.pipeline.applied", applied, AtomicLong::get)
+                .description("Payments applied in a group commit")
+                .register(registry);
+        FunctionCounter.builder("ebm.payments.pipeline.fallbacks", fallbacks, AtomicLong::get)
+                .description("Payments replayed one by one after a failed group commit")
+                .register(registry);
+    }
+
+    /** Batches committed so far */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /** Payments applied in a group commit so far */
+    public long getApplied() {
+        return applied.get();
+    }
+
+    /** Payments replayed one by one after a failed group commit */
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Payment pipeline batch failed", e);
+                for (Pending p : batch) {
+                    p.future.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Pending> batch) {
+        try {
+            int count = tx.execute(status -> applyBatch(batch));
+            batches.incrementAndGet();
+            applied.addAndGet(count);
+        } catch (RuntimeException e) {
+            log.info("Group commit of {} payments failed ({}), applying one by one", batch.size(), e.toString());
+            fallbacks.addAndGet(batch.size());
+            for (Pending p : batch) {
+                p.outcome = null;
+                p.error = null;
+                p.replayOf = null;
+                try {
+                    p.outcome = billService.payBill(p.req);
+                } catch (RuntimeException err) {
+                    p.error = err;
+                }
+            }
+        }
+        for (Pending p : batch) {
+            if (p.error != null) {
+                p.future.completeExceptionally(p.error);
+            } else {
+                p.future.complete(p.outcome);
+            }
+        }
+    }
+
+    /** @return payments applied */
+    private int applyBatch(List<Pending> batch) {
+        Set<String> billIds = new HashSet<>();
+        Set<String> keys = new HashSet<>();
+        for (Pending p : batch) {
+            billIds.add(p.req.getBillId());
+            if (p.req.getIdempotencyKey() != null) {
+                keys.add(p.req.getIdempotencyKey());
+            }
+        }
+        Map<String, PaymentIdempotency> stored = keys.isEmpty() ? Map.of() : idempotency.findAll(keys);
+        Map<String, Bill> bills = new HashMap<>();
+        for (Bill b : billRepo.findByBillIdIn(billIds)) {
+            bills.put(b.getBillId(), b);
+        }
+
+        BillStatsService.Delta delta = new BillStatsService.Delta();
+        Map<String, Pending> byKey = new HashMap<>();
+        int count = 0;
+        for (Pending p : batch) {
+            String key = p.req.getIdempotencyKey();
+            Pending sameKey = key == null ? null : byKey.get(key);
+            if (sameKey != null) {
+                // retry queued behind its original in the same batch
+                p.replayOf = sameKey;
+                continue;
+            }
+            Bill bill = bills.get(p.req.getBillId());
+            try {
+                if (key != null && stored.containsKey(key)) {
+                    p.outcome = idempotency.replay(stored.get(key), p.req);
+                    continue;
+                }
+                if (bill == null) {
+                    throw new BillNotFoundException(p.req.getBillId());
+                }
+                p.outcome = billService.applyPayment(bill, p.req, delta);
+                count++;
+                if (key != null) {
+                    byKey.put(key, p);
+                }
+            } catch (RuntimeException e) {
+                p.error = e;
+            }
+        }
+        statsService.record(delta);
+
+        for (Pending p : batch) {
+            if (p.replayOf != null) {
+                PaymentRequest first = p.replayOf.req;
+                if (first.getBillId().equals(p.req.getBillId())
+                        && first.getAmountPaid().compareTo(p.req.getAmountPaid()) == 0) {
+                    p.outcome = p.replayOf.outcome;
+                } else {
+                    p.error = new PaymentException("Idempotency key " + p.req.getIdempotencyKey()
+                            + " was already used for a different payment", null);
+                }
+            }
+        }
+        return count;
+    }
+
+    /** A queued payment and its caller's future */
+    private static final class Pending {
+        final PaymentRequest req;
+        final CompletableFuture<PaymentResponse> future = new CompletableFuture<>();
+        PaymentResponse outcome;
+        RuntimeException error;
+        Pending replayOf;
+
+        Pending(PaymentRequest req) {
+            this.req = req;
+        }
+    }
+}
@@ -6,18 +6,19 @@ import java.util.Collections;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.annotation.Timed;
+
 import jakarta.transaction.Transactional;
 import myApp.ebm.dto.AdminRegistrationRequest;
 import myApp.ebm.dto.CustomerRegistrationRequest;
 import myApp.ebm.exception.*;
 import myApp.ebm.repository.*;
 
-import myApp.ebm.util.EncryptionUtil;
-
 /** 
  *  Service handling both customer and admin registration 
  **/
 
+@Timed(value = "ebm.service", histogram = true)
 @Service
 public class RegistrationService {
              @Autowired
@@ -28,6 +29,9 @@ public class RegistrationService {
              @Autowired
              private RoleRepository roleRepo;
              
+             @Autowired
+             private PasswordService passwordService;
+             
              /**
               * Registers a new customer account.
               *
@@ -52,7 +56,7 @@ public class RegistrationService {
             	    	user.setUsername(req.getUsername());
             	    	user.setEmail(req.getEmail());
             	    	user.setName(req.getName());
-            	    	user.setPassword(EncryptionUtil.encrypt(req.getPassword()));
+            	    	user.setPassword(passwordService.hash(req.getPassword()));
             	    	user.setStatus("ACTIVE");
             	    	user.setUserType("CUSTOMER");
             	    	
@@ -105,7 +109,7 @@ public class RegistrationService {
             	    	admin.setUsername(req.getUsername());
             	    	admin.setEmail(req.getEmail());
             	    	admin.setName(req.getName());
-            	    	admin.setPassword(EncryptionUtil.encrypt(req.getPassword()));
+            	    	admin.setPassword(passwordService.hash(req.getPassword()));
             	    	admin.setStatus("ACTIVE");
             	    	admin.setUserType("ADMIN");
             	    	//admin.setState(req.getState());
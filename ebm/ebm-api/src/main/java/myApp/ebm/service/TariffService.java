@@ -0,0 +1,209 @@
+package myApp.ebm.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import myApp.ebm.dto.tariff.TariffRequest;
+import myApp.ebm.dto.tariff.TariffResponse;
+import myApp.ebm.dto.tariff.TariffSlabDto;
+import myApp.ebm.dto.tariff.TariffTouBandDto;
+import myApp.ebm.exception.TariffException;
+import myApp.ebm.model.Tariff;
+import myApp.ebm.model.TariffSlab;
+import myApp.ebm.model.TariffTouBand;
+import myApp.ebm.repository.TariffRepository;
+
+/**
+ * Versioned tariffs and bill pricing.
+ *
+ * All tariff versions are compiled once into {@link CompiledTariff}s and
+ * kept in an immutable map that is swapped whole when a version is added,
+ * so pricing never touches the database or takes a lock.
+ */
+@Service
+public class TariffService {
+
+    @Autowired
+    private TariffRepository tariffRepo;
+
+    /** Tariff used when a bill gives units but no tariffCode */
+    @Value("${ebm.tariff.default-code:DOMESTIC}")
+    private String defaultCode;
+
+    /** code -> versions ordered by effectiveFrom; null until first use */
+    private volatile Map<String, CompiledTariff[]> compiled;
+
+    /** Not synchronized: a reload queries the database, which would pin a virtual thread */
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    /**
+     * Amount due in rupees for a month's consumption.
+     *
+     * @param code  tariff code, or null for the default tariff
+     * @param units units consumed in the month
+     * @param on    date the bill is issued; picks the tariff version in force
+     */
+    public BigDecimal computeAmountDue(String code, long units, LocalDate on) {
+        return BigDecimal.valueOf(resolve(code, on).amountPaise(units), 2);
+    }
+
+    /**
+     * Amount due in rupees for a month's consumption split by hour of day,
+     * including the tariff's time-of-use adjustments.
+     *
+     * @param unitsByHour units consumed in each hour of the day (24 values)
+     */
+    public BigDecimal computeAmountDue(String code, long[] unitsByHour, LocalDate on) {
+        return BigDecimal.valueOf(resolve(code, on).amountPaise(unitsByHour), 2);
+    }
+
+    /**
+     * The tariff version in force on a date.
+     *
+     * @throws TariffException if the code is unknown or has no version yet
+     */
+    public CompiledTariff resolve(String code, LocalDate on) {
+        String c = code == null || code.isBlank() ? defaultCode : code.trim().toUpperCase(Locale.ROOT);
+        CompiledTariff[] versions = tariffs().get(c);
+        if (versions == null) {
+            throw new TariffException("Unknown tariff: " + c);
+        }
+        LocalDate date = on != null ? on : LocalDate.now();
+        for (int i = versions.length - 1; i >= 0; i--) {
+            if (versions[i].appliesOn(date)) {
+                return versions[i];
+            }
+        }
+        throw new TariffException("Tariff " + c + " is not in force on " + date);
+    }
+
+    /**
+     * Publish a new version of a tariff (admin only).
+     * The pricing tables are rebuilt once the transaction commits.
+     */
+    @Transactional
+    public TariffResponse createVersion(TariffRequest req) {
+        String code = req.getCode().trim().toUpperCase(Locale.ROOT);
+
+        Tariff t = new Tariff();
+        t.setCode(code);
+        t.setVersion(tariffRepo.findMaxVersion(code) + 1);
+        t.setEffectiveFrom(req.getEffectiveFrom());
+        t.setFixedChargePaise(toPaise(req.getFixedCharge()));
+        for (TariffSlabDto s : req.getSlabs()) {
+            t.getSlabs().add(new TariffSlab(s.getUptoUnits(), toPaise(s.getRatePerUnit())));
+        }
+        if (req.getTouBands() != null) {
+            for (TariffTouBandDto b : req.getTouBands()) {
+                t.getTouBands().add(new TariffTouBand(b.getStartHour(), b.getEndHour(),
+                        toPaise(b.getAdjustmentPerUnit())));
+            }
+        }
+        // reject bad slabs/bands before they are stored
+        CompiledTariff.compile(t);
+
+        Tariff saved = tariffRepo.save(t);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+        return toDto(saved);
+    }
+
+    /**
+     * All versions of one tariff, oldest first.
+     */
+    public List<TariffResponse> getVersions(String code) {
+        List<Tariff> versions = tariffRepo.findByCodeOrderByVersionAsc(code.trim().toUpperCase(Locale.ROOT));
+        if (versions.isEmpty()) {
+            throw new TariffException("Unknown tariff: " + code);
+        }
+        return versions.stream().map(TariffService::toDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Every version of every tariff.
+     */
+    public List<TariffResponse> getAllTariffs() {
+        return tariffRepo.findAllByOrderByCodeAscEffectiveFromAscVersionAsc().stream()
+                .map(TariffService::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /** Rebuild the compiled tables from the database */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            Map<String, List<CompiledTariff>> byCode = new HashMap<>();
+            for (Tariff t : tariffRepo.findAllByOrderByCodeAscEffectiveFromAscVersionAsc()) {
+                byCode.computeIfAbsent(t.getCode(), k -> new ArrayList<>()).add(CompiledTariff.compile(t));
+            }
+            Map<String, CompiledTariff[]> next = new HashMap<>();
+            byCode.forEach((code, list) -> next.put(code, list.toArray(new CompiledTariff[0])));
+            compiled = Map.copyOf(next);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Map<String, CompiledTariff[]> tariffs() {
+        Map<String, CompiledTariff[]> m = compiled;
+        if (m == null) {
+            reloadLock.lock();
+            try {
+                if (compiled == null) {
+                    reload();
+                }
+                m = compiled;
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return m;
+    }
+
+    private static long toPaise(BigDecimal rupees) {
+        try {
+            return rupees.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new TariffException("Amounts must have at most 2 decimal places: " + rupees);
+        }
+    }
+
+    private static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    /** Helper to map entity → DTO */
+    private static TariffResponse toDto(Tariff t) {
+        TariffResponse dto = new TariffResponse();
+        dto.setCode(t.getCode());
+        dto.setVersion(t.getVersion());
+        dto.setEffectiveFrom(t.getEffectiveFrom());
+        dto.setFixedCharge(toRupees(t.getFixedChargePaise()));
+        dto.setSlabs(t.getSlabs().stream()
+                .map(s -> new TariffSlabDto(s.getUptoUnits(), toRupees(s.getRatePaisePerUnit())))
+                .collect(Collectors.toList()));
+        dto.setTouBands(t.getTouBands().stream()
+                .map(b -> new TariffTouBandDto(b.getStartHour(), b.getEndHour(),
+                        toRupees(b.getAdjustmentPaisePerUnit())))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+}
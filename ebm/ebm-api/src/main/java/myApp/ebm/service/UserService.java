@@ -15,6 +15,9 @@ public class UserService {
     @Autowired
     private UserRepository userRepo;
 
+    @Autowired
+    private CustomerLookupCache customerCache;
+
     /**
      * Get all users
      */
@@ -59,6 +62,10 @@ public class UserService {
     public void deleteUser(Long userId) {
         User user = userRepo.findById(userId)
             .orElseThrow(() -> new UserNotFoundException(userId));
+        // the customer profile goes with the user (cascade)
+        if (user.getCustomer() != null) {
+            customerCache.evictAfterCommit(user.getCustomer().getConsumerId());
+        }
         userRepo.delete(user);
     }
 }
\ No newline at end of file
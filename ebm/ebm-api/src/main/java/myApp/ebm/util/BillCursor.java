@@ -0,0 +1,51 @@
+package myApp.ebm.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import myApp.ebm.exception.BadRequestException;
+
+/**
+ * Opaque continuation token for keyset paging over bills.
+ * Encodes the (issueDate, id) of the last row of a page so the next page
+ * can seek straight past it instead of skipping OFFSET rows.
+ */
+public final class BillCursor {
+
+    private final LocalDate issueDate;
+    private final long id;
+
+    public BillCursor(LocalDate issueDate, long id) {
+        this.issueDate = issueDate;
+        this.id = id;
+    }
+
+    public LocalDate getIssueDate() {
+        return issueDate;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = issueDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static BillCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new BillCursor(LocalDate.parse(raw.substring(0, sep)),
+                                  Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + token, e);
+        }
+    }
+}
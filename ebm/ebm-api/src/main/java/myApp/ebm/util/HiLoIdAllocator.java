@@ -0,0 +1,69 @@
+package myApp.ebm.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out unique longs from blocks reserved elsewhere (hi/lo).
+ * Each call to the block source reserves [start, start + blockSize);
+ * values within a block are taken with one atomic increment, so the
+ * source is consulted once per block and {@link #next()} allocates
+ * nothing. Unused values of a block are lost on restart, never reused.
+ * Refills take a ReentrantLock rather than a monitor: the block source
+ * usually does I/O, which would pin a virtual thread inside synchronized.
+ */
+public final class HiLoIdAllocator {
+
+    private final LongSupplier blockSource;
+    private final long blockSize;
+    private volatile Block current;
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    /**
+     * @param blockSource returns the first value of a fresh block; every
+     *                    call must return a block no other caller gets
+     * @param blockSize   values per block, fixed for the source's lifetime
+     */
+    public HiLoIdAllocator(LongSupplier blockSource, long blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+        this.current = new Block(0, 0); // empty: first next() fetches
+    }
+
+    public long next() {
+        for (;;) {
+            Block b = current;
+            long v = b.next.getAndIncrement();
+            if (v < b.end) {
+                return v;
+            }
+            refill(b);
+        }
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current == exhausted) { // another thread may have refilled already
+                long start = blockSource.getAsLong();
+                current = new Block(start, start + blockSize);
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -1,31 +1,48 @@
 package myApp.ebm.util;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
 
+/**
+ * Business ids for bills, payments and complaints.
+ * Each kind draws hi/lo blocks from its own database sequence
+ * (db/migration/V9__business_id_sequences.sql), so ids are unique across
+ * restarts and across app instances sharing the database, with one
+ * sequence call per {@value #BLOCK_SIZE} ids.
+ */
+@Component
 public class IdGenerator {
 
-    private static final AtomicInteger BILL_SEQ = new AtomicInteger(100);  // short range
-    private static final AtomicInteger PAY_SEQ = new AtomicInteger(500);   // short range
-    private static final AtomicInteger COMP_SEQ = new AtomicInteger(500);   // short range
+    /** Must match INCREMENT BY of the V9 sequences */
+    public static final int BLOCK_SIZE = 1000;
 
-    private static String getTimeSuffix() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("HHmmss"));
+    private final HiLoIdAllocator bills;
+    private final HiLoIdAllocator payments;
+    private final HiLoIdAllocator complaints;
+
+    public IdGenerator(JdbcTemplate jdbc) {
+        this.bills = allocator(jdbc, "bill_id_seq");
+        this.payments = allocator(jdbc, "payment_id_seq");
+        this.complaints = allocator(jdbc, "complaint_id_seq");
+    }
+
+    private static HiLoIdAllocator allocator(JdbcTemplate jdbc, String sequence) {
+        String sql = "SELECT NEXT VALUE FOR " + sequence;
+        return new HiLoIdAllocator(() -> jdbc.queryForObject(sql, Long.class), BLOCK_SIZE);
     }
 
-    // Example: ebm144532102 (HHmmss + short counter)
-    public static String generateBillId() {
-        return "ebm" + getTimeSuffix() + BILL_SEQ.getAndIncrement();
+    // Example: ebm1000042
+    public String generateBillId() {
+        return "ebm" + bills.next();
     }
 
-    // Example: ebmp144533503 (HHmmss + short counter)
-    public static String generatePaymentId() {
-        return "ebmp" + getTimeSuffix() + PAY_SEQ.getAndIncrement();
+    // Example: ebmp1000042
+    public String generatePaymentId() {
+        return "ebmp" + payments.next();
     }
 
-	public static String generateComplaintId() {
-		  
-		return "ebmc" + getTimeSuffix() + COMP_SEQ.getAndIncrement();
-	}
-}
\ No newline at end of file
+    // Example: ebmc1000042 (complaint_id is VARCHAR(16): 12 digits)
+    public String generateComplaintId() {
+        return "ebmc" + complaints.next();
+    }
+}
@@ -0,0 +1,80 @@
+package myApp.ebm.util;
+
+/**
+ * Open-addressing hash map from long to long without boxing.
+ * Keys must be non-zero (0 marks an empty slot). Not thread-safe for
+ * writes; safe to read from many threads once fully built.
+ */
+public final class LongLongMap {
+
+    /** Returned by {@link #get(long)} for absent keys */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    public LongLongMap(int expectedSize) {
+        int cap = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new long[cap];
+        values = new long[cap];
+        mask = cap - 1;
+    }
+
+    public void put(long key, long value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int i = slot(key);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == 0) {
+            size++;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /** Value for key, or {@link #MISSING} */
+    public long get(long key) {
+        if (key == 0) {
+            return MISSING;
+        }
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
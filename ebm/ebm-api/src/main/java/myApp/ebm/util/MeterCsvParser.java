@@ -0,0 +1,184 @@
+package myApp.ebm.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses one line of a meter-reading CSV straight from a (memory-mapped)
+ * ByteBuffer into primitive fields. No Strings are created for the usual
+ * all-digit consumer ids.
+ *
+ * Line format: {@code consumerId,readingDate,units}, e.g.
+ * {@code 1000000000001,2025-01-31,42}. consumerId is exactly 13 characters
+ * (UTF-8), the same rule as registration, and cannot contain a comma;
+ * readingDate is ISO YYYY-MM-DD and units is a non-negative integer.
+ * A trailing '\r' is ignored.
+ *
+ * One instance per thread; the parsed fields are overwritten by each call.
+ */
+public final class MeterCsvParser {
+
+    /** Largest units value accepted for one daily reading */
+    public static final long MAX_UNITS = 1_000_000_000L;
+
+    public static final String ERR_FIELDS = "Expected 3 fields: consumerId,readingDate,units";
+    public static final String ERR_CONSUMER = "consumerId must be 13 characters";
+    public static final String ERR_DATE_FORMAT = "readingDate must be YYYY-MM-DD";
+    public static final String ERR_DATE = "readingDate is not a valid date";
+    public static final String ERR_UNITS = "units must be an integer between 0 and " + MAX_UNITS;
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * Consumer id as a number when it is 13 digits (leading zeros are kept by
+     * the length check) and not all zeros, else -1
+     */
+    public long consumerNo;
+    /** Consumer id as text when consumerNo is -1, else null */
+    public String consumerId;
+    /** Reading date as days since 1970-01-01 */
+    public long epochDay;
+    public long units;
+
+    /**
+     * Parse the bytes [start, end) of buf (absolute positions, no line terminator).
+     *
+     * @return null if the line is valid, else one of the ERR_ reasons
+     */
+    public String parse(ByteBuffer buf, int start, int end) {
+        if (end > start && buf.get(end - 1) == '\r') {
+            end--;
+        }
+        int c1 = indexOf(buf, start, end);
+        if (c1 < 0) {
+            return ERR_FIELDS;
+        }
+        int c2 = indexOf(buf, c1 + 1, end);
+        if (c2 < 0 || indexOf(buf, c2 + 1, end) >= 0) {
+            return ERR_FIELDS;
+        }
+
+        // consumerId: a number when it is 13 digits, else decoded text
+        long id = c1 - start == 13 ? 0 : -1;
+        for (int i = start; i < c1 && id >= 0; i++) {
+            int d = buf.get(i) - '0';
+            id = d < 0 || d > 9 ? -1 : id * 10 + d;
+        }
+        String text = null;
+        if (id <= 0) {
+            // 13 characters take at most 4 bytes each in UTF-8
+            if (c1 - start < 13 || c1 - start > 52) {
+                return ERR_CONSUMER;
+            }
+            byte[] bytes = new byte[c1 - start];
+            buf.get(start, bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+            if (text.length() != 13) {
+                return ERR_CONSUMER;
+            }
+            id = -1;
+        }
+
+        // readingDate
+        int p = c1 + 1;
+        if (c2 - p != 10 || buf.get(p + 4) != '-' || buf.get(p + 7) != '-') {
+            return ERR_DATE_FORMAT;
+        }
+        int year = digits(buf, p, 4);
+        int month = digits(buf, p + 5, 2);
+        int day = digits(buf, p + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return ERR_DATE_FORMAT;
+        }
+        if (year < 1970 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return ERR_DATE;
+        }
+
+        // units
+        int u = c2 + 1;
+        if (u == end || end - u > 10) {
+            return ERR_UNITS;
+        }
+        long n = 0;
+        for (int i = u; i < end; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) {
+                return ERR_UNITS;
+            }
+            n = n * 10 + d;
+        }
+        if (n > MAX_UNITS) {
+            return ERR_UNITS;
+        }
+
+        consumerNo = id;
+        consumerId = text;
+        epochDay = toEpochDay(year, month, day);
+        units = n;
+        return null;
+    }
+
+    /**
+     * Numeric value of a 13-digit consumer id, as {@link #consumerNo} would
+     * hold it, or -1 if the id is kept as text
+     */
+    public static long consumerNo(String consumerId) {
+        if (consumerId == null || consumerId.length() != 13) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 0; i < 13; i++) {
+            int d = consumerId.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            id = id * 10 + d;
+        }
+        return id > 0 ? id : -1;
+    }
+
+    private static int indexOf(ByteBuffer buf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Value of len ASCII digits at pos, or -1 */
+    private static int digits(ByteBuffer buf, int pos, int len) {
+        int v = 0;
+        for (int i = pos; i < pos + len; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            v = v * 10 + d;
+        }
+        return v;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /** Same result as LocalDate.of(year, month, day).toEpochDay() */
+    private static long toEpochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!(year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+                total--;
+            }
+        }
+        return total - 719528;
+    }
+}
@@ -0,0 +1,50 @@
+package myApp.ebm.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import myApp.ebm.exception.BadRequestException;
+
+/**
+ * Opaque continuation token for keyset paging over the payment ledger.
+ * Encodes the (createdAt, id) of the last row of a page, like {@link BillCursor}.
+ */
+public final class PaymentCursor {
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public PaymentCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static PaymentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new PaymentCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                                     Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -1,2 +0,0 @@
-MERGE INTO roles (name) KEY(name) VALUES ('ROLE_CUSTOMER');
-MERGE INTO roles (name) KEY(name) VALUES ('ROLE_ADMIN');
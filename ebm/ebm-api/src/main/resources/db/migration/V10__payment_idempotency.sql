@@ -0,0 +1,18 @@
+-- Optimistic locking for bills: every JPA update checks and bumps version.
+ALTER TABLE bills ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+-- One row per idempotency key sent with POST /api/bills/pay.
+-- The primary key makes a retried payment fail to commit instead of paying twice;
+-- the stored response is returned to the retry. Rows older than
+-- ebm.payments.idempotency-retention-days are purged nightly.
+CREATE TABLE payment_idempotency (
+    idempotency_key VARCHAR(64)    PRIMARY KEY,
+    bill_id         VARCHAR(32)    NOT NULL,
+    amount_paid     NUMERIC(10, 2) NOT NULL,
+    message         VARCHAR(255)   NOT NULL,
+    payment_id      VARCHAR(32),
+    status          VARCHAR(10)    NOT NULL,
+    created_at      TIMESTAMP      NOT NULL
+);
+
+CREATE INDEX idx_payment_idempotency_created_at ON payment_idempotency (created_at);
@@ -0,0 +1,35 @@
+-- Append-only payment ledger: one row per payment, never updated or deleted.
+-- bills.amount_due stays the bill's cached running balance; each ledger row
+-- records the balance right after it was applied (balance_after).
+-- bill_id is the bill's business key, not an FK, so the ledger outlives deleted bills.
+
+-- Pooled like bills_seq; allocationSize of Payment must match INCREMENT BY.
+CREATE SEQUENCE payments_seq START WITH 50 INCREMENT BY 50;
+
+CREATE TABLE payments (
+    id            BIGINT         PRIMARY KEY,
+    payment_id    VARCHAR(32)    NOT NULL,
+    bill_id       VARCHAR(32)    NOT NULL,
+    customer_id   BIGINT         NOT NULL,
+    amount        NUMERIC(10, 2),
+    balance_after NUMERIC(10, 2) NOT NULL,
+    created_at    TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT uk_payments_payment_id UNIQUE (payment_id),
+    CONSTRAINT fk_payment_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+-- PaymentRepository.findByBillIdOrderByCreatedAtAscIdAsc (one bill's statement)
+CREATE INDEX idx_payments_bill_created ON payments (bill_id, created_at);
+-- PaymentRepository customer history keyset pages, newest first
+CREATE INDEX idx_payments_customer_created_id ON payments (customer_id, created_at, id);
+-- PaymentRepository all-payments keyset pages, newest first
+CREATE INDEX idx_payments_created_id ON payments (created_at, id);
+
+-- Bills paid before the ledger existed keep one entry each. Only their latest
+-- payment was stored, so the amount is unknown (NULL).
+INSERT INTO payments (id, payment_id, bill_id, customer_id, amount, balance_after, created_at)
+SELECT NEXT VALUE FOR payments_seq, payment_id, bill_id, customer_id, NULL, amount_due,
+       CAST(COALESCE(payment_date, issue_date) AS TIMESTAMP)
+FROM bills
+WHERE payment_id IS NOT NULL
+ORDER BY id;
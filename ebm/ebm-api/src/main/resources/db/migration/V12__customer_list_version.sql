@@ -0,0 +1,4 @@
+-- Version stamp behind the ETags of a customer's bill and complaint lists
+-- (CustomerVersionService). Bumped in the same transaction as every bill or
+-- complaint write, so all instances sharing the database see the change.
+ALTER TABLE customers ADD COLUMN list_version BIGINT DEFAULT 0 NOT NULL;
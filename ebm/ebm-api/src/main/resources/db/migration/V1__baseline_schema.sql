@@ -0,0 +1,80 @@
+-- Baseline: the schema previously produced by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that already have these tables are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and only receive later migrations.
+
+CREATE TABLE users (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username  VARCHAR(20)  NOT NULL,
+    email     VARCHAR(255) NOT NULL,
+    name      VARCHAR(100),
+    password  VARCHAR(255) NOT NULL,
+    status    VARCHAR(10)  NOT NULL,
+    user_type VARCHAR(10)  NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email    UNIQUE (email)
+);
+
+CREATE TABLE roles (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name ENUM ('ROLE_ADMIN', 'ROLE_CUSTOMER') NOT NULL,
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (role_id, user_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+CREATE TABLE customers (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    consumer_id VARCHAR(13)  NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    address     VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    mobile      VARCHAR(10)  NOT NULL,
+    city        VARCHAR(50),
+    state       VARCHAR(50),
+    pincode     VARCHAR(10),
+    user_id     BIGINT       NOT NULL,
+    CONSTRAINT uk_customers_consumer_id UNIQUE (consumer_id),
+    CONSTRAINT uk_customers_user_id     UNIQUE (user_id),
+    CONSTRAINT fk_customer_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE bills (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    bill_id       VARCHAR(32)    NOT NULL,
+    customer_id   BIGINT         NOT NULL,
+    billing_month VARCHAR(7)     NOT NULL,
+    amount_due    NUMERIC(10, 2) NOT NULL,
+    issue_date    DATE           NOT NULL,
+    due_date      DATE           NOT NULL,
+    status        VARCHAR(10)    NOT NULL,
+    payment_date  DATE,
+    payment_id    VARCHAR(32),
+    CONSTRAINT uk_bills_bill_id    UNIQUE (bill_id),
+    CONSTRAINT uk_bills_payment_id UNIQUE (payment_id),
+    CONSTRAINT fk_bill_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+CREATE TABLE complaints (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    complaint_id   VARCHAR(16)  NOT NULL,
+    customer_id    BIGINT       NOT NULL,
+    type           VARCHAR(30)  NOT NULL,
+    category       VARCHAR(50)  NOT NULL,
+    problem        VARCHAR(500) NOT NULL,
+    landmark       VARCHAR(100),
+    status         VARCHAR(20)  NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    updated_at     TIMESTAMP(6) NOT NULL,
+    admin_response VARCHAR(500),
+    CONSTRAINT uk_complaints_complaint_id UNIQUE (complaint_id),
+    CONSTRAINT fk_complaint_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+MERGE INTO roles (name) KEY(name) VALUES ('ROLE_CUSTOMER');
+MERGE INTO roles (name) KEY(name) VALUES ('ROLE_ADMIN');
@@ -0,0 +1,14 @@
+-- Composite indexes matched to the BillRepository / ComplaintRepository access paths.
+-- Verified by HotQueryIndexTest, which fails if any of these queries falls back to a table scan.
+
+-- findByCustomerConsumerId, findByCustomerConsumerIdAndStatus (customer history, newest first)
+CREATE INDEX idx_bills_customer_status_issue ON bills (customer_id, status, issue_date);
+
+-- findByStatus, countByStatus, sumAmountDueByStatus
+CREATE INDEX idx_bills_status_issue ON bills (status, issue_date);
+
+-- keyset paging: ORDER BY issue_date DESC, id DESC
+CREATE INDEX idx_bills_issue_id ON bills (issue_date, id);
+
+-- findByCustomerConsumerId, findByCustomerConsumerIdAndStatus
+CREATE INDEX idx_complaints_customer_status ON complaints (customer_id, status);
@@ -0,0 +1,6 @@
+-- Bills move from IDENTITY to a pooled sequence so Hibernate can batch inserts.
+-- Hibernate's pooled optimizer treats each value as the top of a block of 50,
+-- so start one block above the current max id to keep new ids above it.
+CREATE SEQUENCE bills_seq
+    START WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM bills)
+    INCREMENT BY 50;
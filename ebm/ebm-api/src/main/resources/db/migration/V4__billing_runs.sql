@@ -0,0 +1,46 @@
+-- Monthly billing runs (BillingRunService).
+
+-- One bill per customer per month: makes billing-run reruns idempotent.
+-- Older databases may hold several bills for one customer and month. All but
+-- one of each such group are moved to bills_duplicates first, so the
+-- constraint can be added. The bill kept is the paid one if there is one, else
+-- the first issued. Review bills_duplicates by hand: merge any amount still
+-- owed into the kept bill, then drop the table.
+CREATE TABLE bills_duplicates AS
+SELECT * FROM bills
+WHERE id IN (SELECT id FROM (
+          SELECT id, ROW_NUMBER() OVER (
+                     PARTITION BY customer_id, billing_month
+                     ORDER BY CASE WHEN payment_id IS NULL THEN 1 ELSE 0 END, id) AS n
+          FROM bills) ranked
+      WHERE n > 1);
+
+DELETE FROM bills WHERE id IN (SELECT id FROM bills_duplicates);
+
+ALTER TABLE bills ADD CONSTRAINT uk_bills_customer_month UNIQUE (customer_id, billing_month);
+
+CREATE TABLE billing_runs (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    billing_month VARCHAR(7)     NOT NULL,
+    amount_due    NUMERIC(10, 2) NOT NULL,
+    due_date      DATE,
+    status        VARCHAR(10)    NOT NULL,
+    partitions    INT            NOT NULL,
+    started_at    TIMESTAMP(6)   NOT NULL,
+    finished_at   TIMESTAMP(6)
+);
+
+-- One row per customer-id range; last_customer_id is the resume checkpoint.
+CREATE TABLE billing_run_partitions (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_id              BIGINT      NOT NULL,
+    partition_no        INT         NOT NULL,
+    from_customer_id    BIGINT      NOT NULL,
+    to_customer_id      BIGINT      NOT NULL,
+    last_customer_id    BIGINT      NOT NULL,
+    customers_processed BIGINT      NOT NULL,
+    bills_created       BIGINT      NOT NULL,
+    status              VARCHAR(10) NOT NULL,
+    CONSTRAINT uk_billing_run_partition UNIQUE (run_id, partition_no),
+    CONSTRAINT fk_partition_run FOREIGN KEY (run_id) REFERENCES billing_runs (id)
+);
@@ -0,0 +1,46 @@
+-- Versioned slab / time-of-use tariffs (TariffService). Money is stored in integer paise.
+
+CREATE TABLE tariffs (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code                VARCHAR(30) NOT NULL,
+    version             INT         NOT NULL,
+    effective_from      DATE        NOT NULL,
+    fixed_charge_paise  BIGINT      NOT NULL,
+    created_at          TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_tariffs_code_version UNIQUE (code, version)
+);
+
+-- Energy slabs in ascending order; upto_units NULL means "and above".
+CREATE TABLE tariff_slabs (
+    tariff_id            BIGINT NOT NULL,
+    slab_no              INT    NOT NULL,
+    upto_units           BIGINT,
+    rate_paise_per_unit  BIGINT NOT NULL,
+    PRIMARY KEY (tariff_id, slab_no),
+    CONSTRAINT fk_slab_tariff FOREIGN KEY (tariff_id) REFERENCES tariffs (id)
+);
+
+-- Time-of-use bands: per-unit surcharge (or rebate, if negative) for hours [start_hour, end_hour).
+CREATE TABLE tariff_tou_bands (
+    tariff_id                  BIGINT NOT NULL,
+    band_no                    INT    NOT NULL,
+    start_hour                 INT    NOT NULL,
+    end_hour                   INT    NOT NULL,
+    adjustment_paise_per_unit  BIGINT NOT NULL,
+    PRIMARY KEY (tariff_id, band_no),
+    CONSTRAINT fk_band_tariff FOREIGN KEY (tariff_id) REFERENCES tariffs (id)
+);
+
+-- Default domestic tariff
+INSERT INTO tariffs (code, version, effective_from, fixed_charge_paise, created_at)
+VALUES ('DOMESTIC', 1, DATE '2000-01-01', 5000, CURRENT_TIMESTAMP);
+
+INSERT INTO tariff_slabs (tariff_id, slab_no, upto_units, rate_paise_per_unit)
+SELECT id, 0, 100,  300 FROM tariffs WHERE code = 'DOMESTIC' AND version = 1 UNION ALL
+SELECT id, 1, 300,  500 FROM tariffs WHERE code = 'DOMESTIC' AND version = 1 UNION ALL
+SELECT id, 2, 500,  700 FROM tariffs WHERE code = 'DOMESTIC' AND version = 1 UNION ALL
+SELECT id, 3, NULL, 850 FROM tariffs WHERE code = 'DOMESTIC' AND version = 1;
+
+INSERT INTO tariff_tou_bands (tariff_id, band_no, start_hour, end_hour, adjustment_paise_per_unit)
+SELECT id, 0, 0,  6,  -50 FROM tariffs WHERE code = 'DOMESTIC' AND version = 1 UNION ALL
+SELECT id, 1, 18, 22, 100 FROM tariffs WHERE code = 'DOMESTIC' AND version = 1;
@@ -0,0 +1,27 @@
+-- Meter readings imported from device CSV files (MeterImportService).
+
+-- One reading per customer per day: re-importing a file (or resuming one) overwrites, never duplicates.
+CREATE TABLE meter_readings (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id  BIGINT NOT NULL,
+    reading_date DATE   NOT NULL,
+    units        BIGINT NOT NULL,
+    import_id    BIGINT,
+    CONSTRAINT uk_meter_readings_customer_date UNIQUE (customer_id, reading_date),
+    CONSTRAINT fk_meter_readings_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+-- One row per import; committed_offset is the resume checkpoint (every line before it is stored).
+CREATE TABLE meter_imports (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    file_path        VARCHAR(1024) NOT NULL,
+    rejects_path     VARCHAR(1024) NOT NULL,
+    file_size        BIGINT        NOT NULL,
+    committed_offset BIGINT        NOT NULL,
+    rows_imported    BIGINT        NOT NULL,
+    rows_rejected    BIGINT        NOT NULL,
+    status           VARCHAR(10)   NOT NULL,
+    error            VARCHAR(1000),
+    started_at       TIMESTAMP(6)  NOT NULL,
+    finished_at      TIMESTAMP(6)
+);
@@ -0,0 +1,25 @@
+-- Running bill statistics (BillStatsService), replacing per-request aggregate scans.
+
+-- Counters are split over 16 stripe rows so concurrent bill writes rarely update the same row;
+-- the statistics are the sum over all stripes. BillStatsService.STRIPES must match.
+CREATE TABLE bill_stats (
+    stripe        INT            PRIMARY KEY,
+    total_bills   BIGINT         NOT NULL,
+    pending_bills BIGINT         NOT NULL,
+    paid_bills    BIGINT         NOT NULL,
+    overdue_bills BIGINT         NOT NULL,
+    paid_amount   NUMERIC(15, 2) NOT NULL
+);
+
+-- Stripe 0 starts with the current totals, the rest at zero.
+INSERT INTO bill_stats (stripe, total_bills, pending_bills, paid_bills, overdue_bills, paid_amount)
+SELECT 0,
+       COUNT(*),
+       COALESCE(SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN status = 'PAID' THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN status = 'OVERDUE' THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN status = 'PAID' THEN amount_due ELSE 0 END), 0)
+FROM bills;
+
+INSERT INTO bill_stats (stripe, total_bills, pending_bills, paid_bills, overdue_bills, paid_amount)
+SELECT X, 0, 0, 0, 0, 0 FROM SYSTEM_RANGE(1, 15);
@@ -0,0 +1,5 @@
+-- OverdueSweepService walks PENDING bills in id slices:
+--   UPDATE bills SET status = 'OVERDUE' WHERE id BETWEEN ? AND ? AND status = 'PENDING' AND due_date < ?
+-- (status, id) bounds each slice's index scan to the slice itself. An index led by
+-- (status, due_date) would match every past-due bill on each slice instead.
+CREATE INDEX idx_bills_status_id ON bills (status, id);
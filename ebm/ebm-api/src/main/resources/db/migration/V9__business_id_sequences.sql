@@ -0,0 +1,17 @@
+-- Hi/lo blocks for IdGenerator: each NEXT VALUE reserves 1000 ids [v, v + 1000).
+-- Start above the numeric part of every id issued by the old HHmmss+counter
+-- scheme so new ids can never repeat one.
+CREATE SEQUENCE bill_id_seq
+    START WITH (SELECT COALESCE(MAX(CAST(SUBSTRING(bill_id, 4) AS BIGINT)), 0) + 1
+                FROM bills WHERE REGEXP_LIKE(bill_id, '^ebm[0-9]{1,18}$'))
+    INCREMENT BY 1000;
+
+CREATE SEQUENCE payment_id_seq
+    START WITH (SELECT COALESCE(MAX(CAST(SUBSTRING(payment_id, 5) AS BIGINT)), 0) + 1
+                FROM bills WHERE REGEXP_LIKE(payment_id, '^ebmp[0-9]{1,18}$'))
+    INCREMENT BY 1000;
+
+CREATE SEQUENCE complaint_id_seq
+    START WITH (SELECT COALESCE(MAX(CAST(SUBSTRING(complaint_id, 5) AS BIGINT)), 0) + 1
+                FROM complaints WHERE REGEXP_LIKE(complaint_id, '^ebmc[0-9]{1,12}$'))
+    INCREMENT BY 1000;
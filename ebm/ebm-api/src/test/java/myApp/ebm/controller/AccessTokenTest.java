@@ -0,0 +1,161 @@
+package myApp.ebm.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import myApp.ebm.config.AccessTokenFilter;
+import myApp.ebm.config.SqlStatementCounter;
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.service.AccessTokenService;
+import myApp.ebm.service.RegistrationService;
+
+/**
+ * Login hands out a signed token carrying the user's identity and roles;
+ * with tokens required, /api requests need a valid one and the filter
+ * checks it without touching the database.
+ */
+@SpringBootTest(properties = {"ebm.auth.tokens-required=true",
+        "ebm.auth.token-secret=" + AccessTokenTest.SECRET})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AccessTokenTest {
+
+    static final String SECRET = "access-token-test-secret-of-32-bytes";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private AccessTokenService tokens;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Test
+    void loginTokenOpensTheApiWithoutDatabaseLookups() throws Exception {
+        register("7900000000001", "tokenuser");
+        // login answers once the password check on the hash pool is done
+        MvcResult started = mvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"tokenuser\",\"password\":\"password1\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expiresIn").value(3600))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode login = json.readTree(body);
+        String token = login.path("accessToken").asText();
+
+        mvc.perform(get("/api/bills/customer/7900000000001")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/bills/customer/7900000000001").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(result -> {
+                    AccessTokenService.Claims claims =
+                            (AccessTokenService.Claims) result.getRequest().getAttribute(AccessTokenFilter.CLAIMS);
+                    assertThat(claims.userId()).isEqualTo(login.path("userId").asLong());
+                    assertThat(claims.userType()).isEqualTo("CUSTOMER");
+                    assertThat(claims.roles()).containsExactly("ROLE_CUSTOMER");
+                    assertThat(claims.consumerId()).isEqualTo("7900000000001");
+                });
+
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            tokens.verify(token);
+            sql.assertMaxQueries(0);
+        }
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() throws Exception {
+        String good = tokens.issue(1L, "ADMIN", Set.of("ROLE_ADMIN"), null, Instant.now().plusSeconds(60));
+        String expired = tokens.issue(1L, "ADMIN", Set.of("ROLE_ADMIN"), null, Instant.now().minusSeconds(1));
+        // same signature on a payload claiming a different user
+        String forged = tokens.issue(2L, "ADMIN", Set.of("ROLE_ADMIN"), null, Instant.now().plusSeconds(60))
+                .split("\\.")[0] + "." + good.split("\\.")[1];
+
+        for (String token : new String[] {expired, forged, "not-a-token"}) {
+            mvc.perform(get("/api/bills/stats").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(jsonPath("$.message").exists());
+        }
+        mvc.perform(get("/api/bills/stats").header(HttpHeaders.AUTHORIZATION, "Bearer " + good))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void consumerIdCannotForgeTheExpiry() throws Exception {
+        // 13 characters, as registration requires; raw in the payload it would end "|4102444800" (year 2100)
+        register("12|4102444800", "tokenpipe");
+
+        String token = login("tokenpipe").path("accessToken").asText();
+        AccessTokenService.Claims claims = tokens.verify(token);
+
+        assertThat(claims.consumerId()).isEqualTo("12|4102444800");
+        assertThat(claims.expiresAt()).isBefore(Instant.now().plus(tokens.getTtl()).plusSeconds(5));
+    }
+
+    @Test
+    void signedPayloadWithTheWrongFieldsIsRejected() throws Exception {
+        for (String payload : new String[] {"1|Q1VTVE9NRVI", "1|Q1VTVE9NRVI||||1", "x|Q1VTVE9NRVI|||4102444800"}) {
+            byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            Base64.Encoder b64 = Base64.getUrlEncoder().withoutPadding();
+            String token = b64.encodeToString(body) + "." + b64.encodeToString(mac.doFinal(body));
+
+            mvc.perform(get("/api/bills/stats").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(jsonPath("$.message").value("Malformed access token"));
+        }
+    }
+
+    private JsonNode login(String username) throws Exception {
+        MvcResult started = mvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"password1\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return json.readTree(mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Token User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Token Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+}
@@ -0,0 +1,182 @@
+package myApp.ebm.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.dto.bill.CreateBillRequest;
+import myApp.ebm.service.BillService;
+import myApp.ebm.service.RegistrationService;
+
+/**
+ * Admin bill endpoints over HTTP: cursor paging, exports, batch results,
+ * and 400 rather than 500 for request input the client got wrong.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BillApiTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private BillService billService;
+
+    @Test
+    void pageWalkFollowsTheCursor() throws Exception {
+        register("7400000000001", "pageuser");
+        List<String> created = new ArrayList<>();
+        // issued later than any other test's bills, so they lead the listing
+        for (int month = 5; month >= 1; month--) {
+            created.add(billService.createBill(bill("7400000000001", "2199-0" + month, "10.00")).getBillId());
+        }
+
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/bills/page?size=2" + (cursor == null ? "" : "&cursor=" + cursor);
+            JsonNode body = json.readTree(mvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            body.path("items").forEach(b -> walked.add(b.path("billId").asText()));
+            cursor = body.path("nextCursor").textValue();
+            pages++;
+        } while (cursor != null && walked.size() < created.size());
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(walked.subList(0, created.size())).containsExactlyElementsOf(created);
+    }
+
+    @Test
+    void cursorNotIssuedByUsIsABadRequest() throws Exception {
+        mvc.perform(get("/api/bills/page").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor: not-a-cursor"));
+        mvc.perform(get("/api/bills/payments/ledger").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportStreamsOneLinePerBill() throws Exception {
+        register("7400000000002", "exportuser");
+        String billId = billService.createBill(bill("7400000000002", "2199-06", "20.00")).getBillId();
+
+        String csv = export("csv");
+        assertThat(csv).startsWith("billId,billingMonth,amountDue,issueDate,dueDate,status,paymentId,paymentDate\n");
+        assertThat(csv.lines()).contains(billId + ",2199-06,20.00,2199-06-01,2199-06-16,PENDING,,");
+
+        JsonNode row = null;
+        for (String line : export("ndjson").split("\n")) {
+            JsonNode node = json.readTree(line);
+            if (billId.equals(node.path("billId").asText())) {
+                row = node;
+            }
+        }
+        assertThat(row).isNotNull();
+        assertThat(row.path("amountDue").decimalValue()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void unknownExportFormatIsABadRequest() throws Exception {
+        mvc.perform(get("/api/bills/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported export format: xml"));
+    }
+
+    @Test
+    void batchRejectsOnlyTheRowTheDatabaseRefuses() throws Exception {
+        register("7400000000003", "batchuser");
+        // passes validation but not NUMERIC(10, 2): fails the chunk at flush
+        String body = "[" + batchRow("7400000000003", "2199-07", "30.00") + ","
+                + batchRow("7400000000003", "2199-08", "123456789012.00") + ","
+                + batchRow("7400000000003", "2199-09", "30.00") + ","
+                + batchRow("7499999999999", "2199-07", "30.00") + "]";
+
+        mvc.perform(post("/api/bills/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].error").value(startsWith("Insert failed")))
+                .andExpect(jsonPath("$.results[2].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[3].error").value("Customer not found with consumerId: 7499999999999"));
+
+        assertThat(billService.viewAllBills("7400000000003")).extracting("billingMonth")
+                .containsExactlyInAnyOrder("2199-07", "2199-09");
+    }
+
+    @Test
+    void batchBodyThatIsNotAnArrayIsABadRequest() throws Exception {
+        mvc.perform(post("/api/bills/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(batchRow("7400000000003", "2199-10", "30.00")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String batchRow(String consumerId, String month, String amount) {
+        return "{\"consumerId\":\"" + consumerId + "\",\"billingMonth\":\"" + month
+                + "\",\"amountDue\":" + amount + "}";
+    }
+
+    /** The body is streamed after the handler returns, so it needs the async dispatch */
+    private String export(String format) throws Exception {
+        MvcResult started = mvc.perform(get("/api/bills/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Api User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Api Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+
+    private static CreateBillRequest bill(String consumerId, String month, String amount) {
+        CreateBillRequest req = new CreateBillRequest();
+        req.setConsumerId(consumerId);
+        req.setBillingMonth(month);
+        req.setAmountDue(new BigDecimal(amount));
+        req.setIssueDate(LocalDate.parse(month + "-01"));
+        return req;
+    }
+}
@@ -0,0 +1,154 @@
+package myApp.ebm.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.dto.bill.BillResponse;
+import myApp.ebm.dto.bill.CreateBillRequest;
+import myApp.ebm.dto.bill.PaymentRequest;
+import myApp.ebm.dto.complaint.RegisterComplaintRequest;
+import myApp.ebm.service.BillService;
+import myApp.ebm.service.ComplaintService;
+import myApp.ebm.service.RegistrationService;
+
+/**
+ * Customer bill and complaint lists answer If-None-Match with 304 until a
+ * bill or complaint of that customer changes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Test
+    void billListIsNotModifiedUntilABillChanges() {
+        register("7300000000001", "etaguser");
+        BillResponse bill = billService.createBill(bill("7300000000001", "2034-01", "100.00"));
+        String url = "/api/bills/customer/7300000000001";
+
+        ResponseEntity<String> first = get(url, null);
+        String etag = first.getHeaders().getETag();
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(etag).isNotNull();
+
+        ResponseEntity<String> again = get(url, etag);
+        assertThat(again.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(again.getBody()).isNull();
+        assertThat(get(url + "/pending", etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        billService.payBill(payment(bill.getBillId(), "40.00"));
+
+        ResponseEntity<String> changed = get(url, etag);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(changed.getBody()).contains("60");
+    }
+
+    @Test
+    void complaintListChangesWithComplaintsOnly() {
+        register("7300000000002", "etagcomplaint");
+        register("7300000000003", "etagother");
+        String url = "/api/complaints/customer/7300000000002";
+        String etag = get(url, null).getHeaders().getETag();
+
+        // another customer's complaint leaves this list alone
+        complaintService.registerComplaint(complaint("7300000000003"));
+        assertThat(get(url, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        complaintService.registerComplaint(complaint("7300000000002"));
+        ResponseEntity<String> changed = get(url + "/open", etag);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getBody()).contains("Street light is out");
+    }
+
+    @Test
+    void paidBillIsCacheable() {
+        register("7300000000004", "etagpaid");
+        BillResponse paid = billService.createBill(bill("7300000000004", "2034-02", "50.00"));
+        BillResponse pending = billService.createBill(bill("7300000000004", "2034-03", "50.00"));
+        billService.payBill(payment(paid.getBillId(), "50.00"));
+
+        ResponseEntity<String> paidResp = get("/api/bills/" + paid.getBillId(), null);
+        ResponseEntity<String> pendingResp = get("/api/bills/" + pending.getBillId(), null);
+
+        assertThat(paidResp.getHeaders().getCacheControl()).contains("max-age=2592000").contains("private");
+        assertThat(pendingResp.getHeaders().getCacheControl()).isNull();
+    }
+
+    @Test
+    void unknownCustomerGetsNoETag() {
+        ResponseEntity<String> resp = get("/api/bills/customer/7399999999999", null);
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resp.getHeaders().getETag()).isNull();
+    }
+
+    private ResponseEntity<String> get(String url, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Etag User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Etag Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+
+    private static CreateBillRequest bill(String consumerId, String month, String amount) {
+        CreateBillRequest req = new CreateBillRequest();
+        req.setConsumerId(consumerId);
+        req.setBillingMonth(month);
+        req.setAmountDue(new BigDecimal(amount));
+        return req;
+    }
+
+    private static PaymentRequest payment(String billId, String amount) {
+        PaymentRequest req = new PaymentRequest();
+        req.setBillId(billId);
+        req.setAmountPaid(new BigDecimal(amount));
+        return req;
+    }
+
+    private static RegisterComplaintRequest complaint(String consumerId) {
+        RegisterComplaintRequest req = new RegisterComplaintRequest();
+        req.setConsumerId(consumerId);
+        req.setType("Supply");
+        req.setCategory("Street light");
+        req.setProblem("Street light is out");
+        req.setLandmark("Main road");
+        return req;
+    }
+}
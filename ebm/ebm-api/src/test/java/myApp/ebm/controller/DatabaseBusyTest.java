@@ -0,0 +1,58 @@
+package myApp.ebm.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * With every pooled connection taken, a request waits connection-timeout
+ * and gets 503 + Retry-After instead of a 500, then works again once
+ * connections come back.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+@ActiveProfiles("test")
+class DatabaseBusyTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void exhaustedPoolAnswers503() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        ResponseEntity<String> busy;
+        try {
+            for (int i = 0; i < 2; i++) {
+                held.add(dataSource.getConnection());
+            }
+            busy = rest.getForEntity("/api/complaints/customer/7400000000001", String.class);
+        } finally {
+            for (Connection c : held) {
+                c.close();
+            }
+        }
+
+        assertThat(busy.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(busy.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rest.getForEntity("/api/bills/customer/7400000000001", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,53 @@
+package myApp.ebm.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The Prometheus endpoint on the management port carries service timers,
+ * request and pool histograms, Hibernate statistics and the customer cache.
+ * Tests export no metrics unless asked to, hence @AutoConfigureObservability.
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void prometheusScrapeHasServicePoolAndHibernateMetrics() {
+        rest.getForEntity("/api/bills/customer/7500000000001", String.class);
+        rest.getForEntity("/api/complaints/customer/7500000000001", String.class);
+
+        ResponseEntity<String> scrape = rest.getForEntity(
+                "http://127.0.0.1:" + managementPort + "/actuator/prometheus", String.class);
+
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+                .contains("ebm_service_seconds_bucket{")
+                .contains("class=\"myApp.ebm.service.BillService\"")
+                .contains("method=\"viewAllBills\"")
+                .contains("method=\"viewCustomerComplaints\"")
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("hikaricp_connections_active{")
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("hibernate_statements_total{")
+                .contains("cache_gets_total{")
+                .contains("cache=\"customerLookup\"")
+                .contains("ebm_payments_pipeline_queued{");
+    }
+}
@@ -0,0 +1,259 @@
+package myApp.ebm.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.service.DataGeneratorService;
+
+/**
+ * Open-model load test of the customer-facing endpoints: login, view bills,
+ * pay a bill and register a complaint, mixed 20/50/15/15, against the real
+ * app on a random port.
+ *
+ * Login is a BCrypt check, deliberately expensive: one core hashes about
+ * 10 a second at cost 10, and at 25 req/s its 20% already saturates a
+ * core shared with the load generator. The default rate of 10 req/s keeps
+ * login at 2 a second, so the whole mix, login included, is measured
+ * together without queueing behind the hashes.
+ *
+ * Requests arrive at a fixed average rate with exponential gaps, whether or
+ * not earlier ones have answered, and each latency is measured from the
+ * moment the request was due to be sent. A server that falls behind
+ * therefore shows up in the percentiles instead of slowing the load down.
+ * Latencies go into one HdrHistogram per endpoint. After a warm-up the run
+ * is measured and the test fails when an endpoint answers anything but a
+ * 2xx, or its p99 is over the budget in load-test-p99.properties.
+ *
+ * The budgets are for the default rate and duration. Each run writes its
+ * p99s to target/load-test/p99.properties and the full histograms next to
+ * it (*.hgrm); raise a budget by editing the properties file, not by
+ * copying a slow run over it.
+ *
+ * mvn test -Pbenchmark -Dtest=MixedWorkloadLoadTest
+ *     [-Debm.load.rate=10]
+ *     [-Debm.load.seconds=30] [-Debm.load.warmup-seconds=10]
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:ebmload;DB_CLOSE_DELAY=-1",
+        "ebm.generate.months=12",
+        "logging.level.root=WARN"})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MixedWorkloadLoadTest {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("ebm.load.rate", "10"));
+    private static final int SECONDS = Integer.getInteger("ebm.load.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("ebm.load.warmup-seconds", 10);
+    private static final int CUSTOMERS = 500;
+    private static final long FIRST = 7800000000000L;
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Path OUT = Path.of("target", "load-test");
+
+    /** An endpoint of the mix and its share of the arrivals, in percent */
+    enum Op {
+        LOGIN(20), VIEW_BILLS(50), PAY_BILL(15), REGISTER_COMPLAINT(15);
+
+        final int percent;
+
+        Op(int percent) {
+            this.percent = percent;
+        }
+
+        String key() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataGeneratorService generator;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private List<String> unpaidBills;
+
+    @BeforeAll
+    void seed() {
+        generator.generate(CUSTOMERS, 42, FIRST);
+        // one rupee at a time, so the same bills can be paid into all run long
+        unpaidBills = jdbc.queryForList("SELECT b.bill_id FROM bills b JOIN customers c ON c.id = b.customer_id "
+                + "WHERE c.consumer_id BETWEEN ? AND ? AND b.status <> 'PAID' AND b.amount_due > 500",
+                String.class, String.valueOf(FIRST), String.valueOf(FIRST + CUSTOMERS - 1));
+        assertThat(unpaidBills).isNotEmpty();
+    }
+
+    @Test
+    void mixedWorkloadStaysWithinP99Budgets() throws Exception {
+        String base = "http://localhost:" + port;
+        run(base, WARMUP_SECONDS, new SplittableRandom(1));
+        Map<Op, Result> results = run(base, SECONDS, new SplittableRandom(2));
+        checkBudgets(results);
+    }
+
+    /**
+     * Reports every endpoint, records its p99 and fails on non-2xx answers
+     * or a p99 over budget.
+     */
+    private void checkBudgets(Map<Op, Result> results) throws Exception {
+        Properties budgets = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/load-test-p99.properties")) {
+            budgets.load(in);
+        }
+        Files.createDirectories(OUT);
+        Properties measured = new Properties();
+        List<String> failures = new ArrayList<>();
+        System.out.printf("REPORT open model, %.0f req/s for %d s%n", RATE, SECONDS);
+        for (Map.Entry<Op, Result> e : results.entrySet()) {
+            String key = e.getKey().key();
+            Result r = e.getValue();
+            Histogram h = r.latencies;
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            double p99 = h.getValueAtPercentile(99) / 1000.0;
+            double budget = Double.parseDouble(budgets.getProperty(key));
+            System.out.printf("REPORT %-18s %6d requests, %d not 2xx: p50 %.2f ms, p90 %.2f ms, "
+                            + "p99 %.2f ms (budget %.0f ms), p99.9 %.2f ms, max %.2f ms%n",
+                    key, h.getTotalCount(), r.errors.get(), h.getValueAtPercentile(50) / 1000.0,
+                    h.getValueAtPercentile(90) / 1000.0, p99, budget,
+                    h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0);
+            measured.setProperty(key, String.format("%.2f", p99));
+            try (PrintStream out = new PrintStream(OUT.resolve(key + ".hgrm").toFile())) {
+                h.outputPercentileDistribution(out, 1000.0);
+            }
+            if (r.errors.get() > 0) {
+                failures.add(key + ": " + r.errors.get() + " responses were not 2xx");
+            }
+            if (p99 > budget) {
+                failures.add(String.format("%s: p99 %.2f ms is over its budget of %.0f ms", key, p99, budget));
+            }
+        }
+        try (Writer out = Files.newBufferedWriter(OUT.resolve("p99.properties"))) {
+            measured.store(out, "p99 latency in ms, " + SECONDS + " s runs");
+        }
+        assertThat(failures).isEmpty();
+    }
+
+    /** Latencies in microseconds and the count of non-2xx answers of one endpoint */
+    private record Result(Histogram latencies, AtomicLong errors) {
+    }
+
+    /**
+     * Sends requests at rate per second for the given time. Every request is
+     * due at a planned instant and its latency runs from then, so time spent
+     * waiting for a late send is counted as well.
+     */
+    private Map<Op, Result> run(String base, int seconds, SplittableRandom rnd) throws Exception {
+        Map<Op, Result> results = new EnumMap<>(Op.class);
+        for (Op op : Op.values()) {
+            results.put(op, new Result(new ConcurrentHistogram(MAX_LATENCY_MICROS, 3), new AtomicLong()));
+        }
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long due = start;
+        while (true) {
+            due += (long) (-Math.log(1 - rnd.nextDouble()) / RATE * 1e9);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Op op = pick(rnd);
+            Result result = results.get(op);
+            long planned = due;
+            inFlight.add(http.sendAsync(request(base, op, rnd), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resp, error) -> {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - planned);
+                        result.latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                        if (error != null || resp.statusCode() / 100 != 2) {
+                            result.errors.incrementAndGet();
+                        }
+                    }));
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null)
+                    .get(2, TimeUnit.MINUTES);
+        } catch (TimeoutException e) {
+            throw new AssertionError("Requests still unanswered two minutes after the last one was sent: "
+                    + "the app cannot keep up with " + RATE + " req/s", e);
+        }
+        return results;
+    }
+
+    private static Op pick(SplittableRandom rnd) {
+        int roll = rnd.nextInt(100);
+        for (Op op : Op.values()) {
+            roll -= op.percent;
+            if (roll < 0) {
+                return op;
+            }
+        }
+        throw new IllegalStateException("Op percentages must add up to 100");
+    }
+
+    private HttpRequest request(String base, Op op, SplittableRandom rnd) {
+        String consumerId = String.valueOf(FIRST + rnd.nextInt(CUSTOMERS));
+        return switch (op) {
+            case LOGIN -> post(base + "/api/auth/login",
+                    "{\"username\":\"c" + consumerId + "\",\"password\":\"password1\"}");
+            case VIEW_BILLS -> HttpRequest.newBuilder(URI.create(base + "/api/bills/customer/" + consumerId))
+                    .GET().build();
+            case PAY_BILL -> post(base + "/api/bills/pay",
+                    "{\"billId\":\"" + unpaidBills.get(rnd.nextInt(unpaidBills.size()))
+                            + "\",\"amountPaid\":1.00,\"idempotencyKey\":\"" + UUID.randomUUID() + "\"}");
+            case REGISTER_COMPLAINT -> post(base + "/api/complaints",
+                    "{\"consumerId\":\"" + consumerId + "\",\"type\":\"Supply\",\"category\":\"Outage\","
+                            + "\"problem\":\"No power since morning\",\"landmark\":\"Near the substation\"}");
+        };
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package myApp.ebm.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import myApp.ebm.config.SqlBudgetFilter;
+import myApp.ebm.config.SqlStatementCounter;
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.dto.bill.CreateBillRequest;
+import myApp.ebm.dto.complaint.RegisterComplaintRequest;
+import myApp.ebm.model.Complaint;
+import myApp.ebm.repository.ComplaintRepository;
+import myApp.ebm.repository.CustomerRepository;
+import myApp.ebm.service.BillService;
+import myApp.ebm.service.ComplaintService;
+import myApp.ebm.service.RegistrationService;
+
+/**
+ * Pins the SQL statement count of the list endpoints. MockMvc runs the
+ * request on the test thread, so a scope opened here sees its statements.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class SqlStatementBudgetTest {
+
+    private static final int CUSTOMERS = 4;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private ComplaintRepository complaintRepo;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @BeforeEach
+    void customersWithBillsAndComplaints() {
+        if (customerRepo.findByConsumerId(consumerId(0)).isPresent()) {
+            return;
+        }
+        for (int c = 0; c < CUSTOMERS; c++) {
+            register(consumerId(c), "sqlbudget" + c);
+            for (int k = 0; k < 3; k++) {
+                billService.createBill(bill(consumerId(c), "2035-0" + (k + 1)));
+                complaintService.registerComplaint(complaint(consumerId(c)));
+            }
+        }
+    }
+
+    @Test
+    void allComplaintsIsOneQuery() throws Exception {
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            mvc.perform(get("/api/complaints")).andExpect(status().isOk());
+            sql.assertMaxQueries(1);
+        }
+    }
+
+    @Test
+    void customerListsStayFlat() throws Exception {
+        for (String path : new String[] {"/api/complaints/customer/", "/api/bills/customer/"}) {
+            try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+                mvc.perform(get(path + consumerId(1))).andExpect(status().isOk());
+                // customer lookup (cached after the first request) + the list
+                sql.assertMaxQueries(2);
+            }
+        }
+    }
+
+    @Test
+    void lazyCustomerInALoopIsReportedAsNPlusOne() {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            tx.executeWithoutResult(s -> {
+                for (Complaint c : complaintRepo.findAll()) {
+                    c.getCustomer().getName();
+                }
+            });
+
+            assertThat(sql.count()).isGreaterThan(CUSTOMERS);
+            assertThat(sql.repeated().values()).anyMatch(n -> n >= CUSTOMERS);
+            assertThatThrownBy(() -> sql.assertMaxQueries(1))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessageContaining("possible N+1")
+                    .hasMessageContaining("customers");
+        }
+    }
+
+    @Test
+    void requestOverBudgetIsLogged(CapturedOutput output) throws Exception {
+        SqlBudgetFilter filter = new SqlBudgetFilter(1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/complaints");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, resp) -> {
+            SqlStatementCounter counter = new SqlStatementCounter();
+            counter.inspect("select 1");
+            counter.inspect("select 2");
+        });
+
+        assertThat(output).contains("GET /api/complaints went over its SQL budget of 1: 2 ran")
+                .contains("2. select 2");
+    }
+
+    private static String consumerId(int c) {
+        return String.valueOf(7600000000000L + c);
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Budget User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Budget Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+
+    private static CreateBillRequest bill(String consumerId, String month) {
+        CreateBillRequest req = new CreateBillRequest();
+        req.setConsumerId(consumerId);
+        req.setBillingMonth(month);
+        req.setAmountDue(new BigDecimal("100.00"));
+        return req;
+    }
+
+    private static RegisterComplaintRequest complaint(String consumerId) {
+        RegisterComplaintRequest req = new RegisterComplaintRequest();
+        req.setConsumerId(consumerId);
+        req.setType("Supply");
+        req.setCategory("Voltage");
+        req.setProblem("Low voltage in the evening");
+        req.setLandmark("Water tank");
+        return req;
+    }
+}
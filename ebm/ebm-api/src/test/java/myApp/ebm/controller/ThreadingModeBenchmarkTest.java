@@ -0,0 +1,181 @@
+package myApp.ebm.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import myApp.ebm.ElectricityBillManagementSystemApplication;
+
+/**
+ * Throughput and tail latency of the customer bill and complaint list
+ * endpoints with requests on platform threads and on virtual threads,
+ * many more clients than pooled connections. Each mode boots the app on
+ * its own port against the same H2 file database under target/.
+ * The virtual-thread run needs Java 21 and is skipped on older JVMs.
+ *
+ * mvn test -Pbenchmark -Dtest=ThreadingModeBenchmarkTest
+ *     [-Debm.bench.requests=20000] [-Debm.bench.clients=400] [-Debm.bench.pool=10]
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmarkTest {
+
+    private static final int REQUESTS = Integer.getInteger("ebm.bench.requests", 20_000);
+    private static final int CLIENTS = Integer.getInteger("ebm.bench.clients", 400);
+    private static final int POOL = Integer.getInteger("ebm.bench.pool", 10);
+    private static final int CUSTOMERS = 200;
+    private static final int BILLS_PER_CUSTOMER = 24;
+    private static final int COMPLAINTS_PER_CUSTOMER = 5;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeAll
+    static void freshDatabase() throws IOException {
+        Path dir = Path.of("target", "threading-bench");
+        if (Files.exists(dir)) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        runMode("platform", false);
+        if (Runtime.version().feature() < 21) {
+            System.out.printf("REPORT virtual  skipped: virtual threads need Java 21, this is Java %d%n",
+                    Runtime.version().feature());
+            return;
+        }
+        runMode("virtual", true);
+    }
+
+    private void runMode(String label, boolean virtual) throws Exception {
+        // command-line args: they override application.properties
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(ElectricityBillManagementSystemApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                     "--management.server.port=0",
+                     "--spring.datasource.url=jdbc:h2:file:./target/threading-bench/ebm",
+                     "--spring.threads.virtual.enabled=" + virtual,
+                     "--spring.datasource.hikari.maximum-pool-size=" + POOL,
+                     "--logging.level.root=WARN")) {
+            seed(app.getBean(JdbcTemplate.class));
+            String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            run(label + "-warmup", base, REQUESTS / 5);
+            run(label, base, REQUESTS);
+        }
+    }
+
+    /** CLIENTS threads GET random customers' bill or complaint lists until n requests are done */
+    private void run(String label, String base, int n) throws Exception {
+        long[] latencies = new long[n];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                done.add(clients.submit(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int i = next.getAndIncrement(); i < n; i = next.getAndIncrement()) {
+                        String consumerId = consumerId(rnd.nextInt(CUSTOMERS));
+                        String path = rnd.nextBoolean() ? "/api/bills/customer/" : "/api/complaints/customer/";
+                        HttpRequest req = HttpRequest.newBuilder(URI.create(base + path + consumerId)).GET().build();
+                        long t0 = System.nanoTime();
+                        HttpResponse<Void> resp = http.send(req, HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = System.nanoTime() - t0;
+                        if (resp.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        System.out.printf("REPORT %-16s %d requests, %d clients, %d connections: %.0f req/s, "
+                        + "p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms, %d not 200%n",
+                label, n, CLIENTS, POOL, n / secs, millis(latencies, 0.50), millis(latencies, 0.99),
+                millis(latencies, 0.999), latencies[n - 1] / 1e6, failed.get());
+        assertThat(failed.get()).isZero();
+    }
+
+    private static double millis(long[] sorted, double q) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1)] / 1e6;
+    }
+
+    private static String consumerId(int i) {
+        return String.valueOf(8100000000000L + i);
+    }
+
+    /** Customers with a couple of years of bills and some complaints; once per database */
+    private static void seed(JdbcTemplate jdbc) {
+        if (jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'threadbench0'", Long.class) > 0) {
+            return;
+        }
+        List<Object[]> users = new ArrayList<>();
+        for (int c = 0; c < CUSTOMERS; c++) {
+            users.add(new Object[] {"threadbench" + c, "threadbench" + c + "@ebm.test"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, email, password, status, user_type) "
+                + "VALUES (?, ?, 'cGFzc3dvcmQ=', 'ACTIVE', 'CUSTOMER')", users);
+        List<Object[]> customers = new ArrayList<>();
+        for (int c = 0; c < CUSTOMERS; c++) {
+            customers.add(new Object[] {consumerId(c), "threadbench" + c});
+        }
+        jdbc.batchUpdate("INSERT INTO customers (consumer_id, name, address, email, mobile, user_id) "
+                + "SELECT ?, 'Bench Customer', 'Bench Street', 'bench@ebm.test', '9000000000', id "
+                + "FROM users WHERE username = ?", customers);
+
+        List<Object[]> bills = new ArrayList<>();
+        List<Object[]> complaints = new ArrayList<>();
+        for (int c = 0; c < CUSTOMERS; c++) {
+            for (int b = 0; b < BILLS_PER_CUSTOMER; b++) {
+                String month = String.format("%04d-%02d", 2020 + b / 12, b % 12 + 1);
+                bills.add(new Object[] {"threadbench-" + c + "-" + b, consumerId(c), month,
+                        b % 3 == 0 ? "PENDING" : "PAID"});
+            }
+            for (int k = 0; k < COMPLAINTS_PER_CUSTOMER; k++) {
+                complaints.add(new Object[] {"tbc-" + c + "-" + k, consumerId(c), k % 2 == 0 ? "OPEN" : "CLOSED"});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO bills (id, bill_id, customer_id, billing_month, amount_due, issue_date, due_date, status) "
+                + "SELECT NEXT VALUE FOR bills_seq, ?, id, ?, 1200.00, CURRENT_DATE, CURRENT_DATE + 15, ? "
+                + "FROM customers WHERE consumer_id = ?",
+                bills.stream().map(r -> new Object[] {r[0], r[2], r[3], r[1]}).toList());
+        jdbc.batchUpdate("INSERT INTO complaints (complaint_id, customer_id, type, category, problem, landmark, status, created_at, updated_at) "
+                + "SELECT ?, id, 'Supply', 'Outage', 'No power since morning', 'Near the substation', ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+                + "FROM customers WHERE consumer_id = ?",
+                complaints.stream().map(r -> new Object[] {r[0], r[2], r[1]}).toList());
+    }
+}
@@ -0,0 +1,66 @@
+package myApp.ebm.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * V4 adds uk_bills_customer_month to databases that may already hold several
+ * bills for one customer and month. It must keep one of each (the paid one)
+ * and move the rest aside instead of failing. V13 drops the table it moves
+ * them to when nothing was moved.
+ */
+class BillMonthMigrationTest {
+
+    @Test
+    void duplicateMonthsAreMovedAsideBeforeTheConstraint() {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:v4dup;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        Flyway.configure().dataSource(ds).target("3").load().migrate();
+
+        jdbc.update("INSERT INTO users (id, username, email, password, status, user_type) "
+                + "VALUES (1, 'dup', 'dup@ebm.test', 'x', 'ACTIVE', 'CUSTOMER')");
+        jdbc.update("INSERT INTO customers (id, consumer_id, name, address, email, mobile, user_id) "
+                + "VALUES (1, '1000000000001', 'Dup', 'Street', 'dup@ebm.test', '9000000000', 1)");
+        bill(jdbc, 1, "ebm1", "2024-01", null);
+        bill(jdbc, 2, "ebm2", "2024-01", "ebmp2");
+        bill(jdbc, 3, "ebm3", "2024-01", null);
+        bill(jdbc, 4, "ebm4", "2024-02", null);
+
+        Flyway.configure().dataSource(ds).load().migrate();
+
+        assertThat(jdbc.queryForList("SELECT bill_id FROM bills ORDER BY id", String.class))
+                .containsExactly("ebm2", "ebm4");
+        assertThat(jdbc.queryForList("SELECT bill_id FROM bills_duplicates ORDER BY id", String.class))
+                .containsExactly("ebm1", "ebm3");
+        // stats are seeded after V4, so they count only the kept bills
+        assertThat(jdbc.queryForObject("SELECT SUM(total_bills) FROM bill_stats", Long.class)).isEqualTo(2);
+    }
+
+    @Test
+    void noDuplicatesTableIsLeftWhenThereWereNone() {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:v4clean;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        Flyway.configure().dataSource(ds).target("3").load().migrate();
+
+        jdbc.update("INSERT INTO users (id, username, email, password, status, user_type) "
+                + "VALUES (1, 'dup', 'dup@ebm.test', 'x', 'ACTIVE', 'CUSTOMER')");
+        jdbc.update("INSERT INTO customers (id, consumer_id, name, address, email, mobile, user_id) "
+                + "VALUES (1, '1000000000001', 'Dup', 'Street', 'dup@ebm.test', '9000000000', 1)");
+        bill(jdbc, 1, "ebm1", "2024-01", null);
+
+        Flyway.configure().dataSource(ds).load().migrate();
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_NAME = 'BILLS_DUPLICATES'", Long.class)).isZero();
+    }
+
+    private static void bill(JdbcTemplate jdbc, long id, String billId, String month, String paymentId) {
+        jdbc.update("INSERT INTO bills (id, bill_id, customer_id, billing_month, amount_due, issue_date, "
+                + "due_date, status, payment_id) VALUES (?, ?, 1, ?, 100.00, DATE '2024-01-01', "
+                + "DATE '2024-01-16', ?, ?)", id, billId, month, paymentId == null ? "PENDING" : "PAID", paymentId);
+    }
+}
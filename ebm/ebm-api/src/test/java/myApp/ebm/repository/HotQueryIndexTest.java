@@ -0,0 +1,76 @@
+package myApp.ebm.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs H2 EXPLAIN on the SQL behind the BillRepository / ComplaintRepository /
+ * PaymentRepository hot queries and fails if any of them scans the bills,
+ * complaints or payments table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HotQueryIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        // BillRepository.findByCustomerConsumerId
+        "SELECT b.* FROM bills b JOIN customers c ON c.id = b.customer_id "
+            + "WHERE c.consumer_id = '1234567890123'",
+        // BillRepository.findByCustomerConsumerIdAndStatus
+        "SELECT b.* FROM bills b JOIN customers c ON c.id = b.customer_id "
+            + "WHERE c.consumer_id = '1234567890123' AND b.status = 'PENDING'",
+        // BillRepository.findByStatus
+        "SELECT b.* FROM bills b WHERE b.status = 'PENDING'",
+        // BillRepository.countByStatus
+        "SELECT COUNT(b.id) FROM bills b WHERE b.status = 'PAID'",
+        // BillRepository.sumAmountDueByStatus
+        "SELECT COALESCE(SUM(b.amount_due), 0) FROM bills b WHERE b.status = 'PAID'",
+        // BillRepository.findPageAfter
+        "SELECT b.* FROM bills b WHERE b.issue_date < DATE '2025-01-01' "
+            + "OR (b.issue_date = DATE '2025-01-01' AND b.id < 100) "
+            + "ORDER BY b.issue_date DESC, b.id DESC FETCH FIRST 51 ROWS ONLY",
+        // BillRepository.findIdRangeByStatusAndDueDateBefore
+        "SELECT MIN(b.id), MAX(b.id) FROM bills b WHERE b.status = 'PENDING' AND b.due_date < DATE '2025-01-01'",
+        // BillRepository.updateStatusInIdRange
+        "UPDATE bills SET status = 'OVERDUE' WHERE id BETWEEN 1 AND 1000 "
+            + "AND status = 'PENDING' AND due_date < DATE '2025-01-01'",
+        // ComplaintRepository.findByCustomerConsumerId
+        "SELECT x.* FROM complaints x JOIN customers c ON c.id = x.customer_id "
+            + "WHERE c.consumer_id = '1234567890123'",
+        // ComplaintRepository.findByCustomerConsumerIdAndStatus
+        "SELECT x.* FROM complaints x JOIN customers c ON c.id = x.customer_id "
+            + "WHERE c.consumer_id = '1234567890123' AND x.status = 'OPEN'",
+        // PaymentRepository.findByBillIdOrderByCreatedAtAscIdAsc
+        "SELECT p.* FROM payments p WHERE p.bill_id = 'ebm1000' ORDER BY p.created_at, p.id",
+        // PaymentRepository.findPageAfter
+        "SELECT p.* FROM payments p WHERE p.created_at < TIMESTAMP '2025-01-01 00:00:00' "
+            + "OR (p.created_at = TIMESTAMP '2025-01-01 00:00:00' AND p.id < 100) "
+            + "ORDER BY p.created_at DESC, p.id DESC FETCH FIRST 51 ROWS ONLY",
+        // PaymentRepository.findCustomerPageAfter
+        "SELECT p.* FROM payments p WHERE p.customer_id = 1 "
+            + "AND (p.created_at < TIMESTAMP '2025-01-01 00:00:00' "
+            + "OR (p.created_at = TIMESTAMP '2025-01-01 00:00:00' AND p.id < 100)) "
+            + "ORDER BY p.created_at DESC, p.id DESC FETCH FIRST 51 ROWS ONLY"
+    })
+    void hotQueryUsesAnIndex(String sql) {
+        String plan = jdbc.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertThat(plan.toLowerCase(Locale.ROOT))
+            .as("plan for %s%n%s", sql, plan)
+            .doesNotContain("bills.tablescan")
+            .doesNotContain("complaints.tablescan")
+            .doesNotContain("payments.tablescan");
+    }
+}
@@ -0,0 +1,374 @@
+package myApp.ebm.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import myApp.ebm.model.Bill;
+
+/**
+ * Latency of every BillRepository and ComplaintRepository query on a large
+ * seeded H2 database, at several selectivities.
+ *
+ * Only the JPA layer boots (@DataJpaTest, Flyway schema). The database is
+ * an H2 file under target/repo-bench, one per volume, seeded with plain
+ * SQL on first use and reused afterwards. Every customer has a run of
+ * monthly bills: the newest PENDING, the one before OVERDUE for every
+ * tenth customer, the rest PAID, so status filters range from ~0.4% to
+ * ~95% of the table. Each query runs outside a transaction (its own
+ * read-only one, fresh persistence context) with random keys from a fixed
+ * seed. Queries over a whole status or table run fewer iterations and are
+ * skipped above ebm.bench.max-rows rows. The report is printed and
+ * written to target/repository-benchmark.csv.
+ *
+ * mvn test -Pbenchmark -Dtest=RepositoryQueryBenchmarkTest
+ *     [-Debm.bench.customers=1000000] [-Debm.bench.bills-per-customer=24]
+ *     [-Debm.bench.iterations=200] [-Debm.bench.max-rows=2000000]
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("test")
+class RepositoryQueryBenchmarkTest {
+
+    private static final int CUSTOMERS = Integer.getInteger("ebm.bench.customers", 20_000);
+    private static final int BILLS_PER_CUSTOMER = Integer.getInteger("ebm.bench.bills-per-customer", 24);
+    private static final int COMPLAINTS_PER_CUSTOMER = Integer.getInteger("ebm.bench.complaints-per-customer", 2);
+    private static final int ITERATIONS = Integer.getInteger("ebm.bench.iterations", 200);
+    private static final int SCAN_ITERATIONS = Integer.getInteger("ebm.bench.scan-iterations", 5);
+    private static final long MAX_ROWS = Long.getLong("ebm.bench.max-rows", 2_000_000);
+
+    private static final long BILLS = (long) CUSTOMERS * BILLS_PER_CUSTOMER;
+    private static final long COMPLAINTS = (long) CUSTOMERS * COMPLAINTS_PER_CUSTOMER;
+    private static final long PENDING = CUSTOMERS;
+    private static final long OVERDUE = BILLS_PER_CUSTOMER > 1 ? (CUSTOMERS + 9) / 10 : 0;
+    private static final long PAID = BILLS - PENDING - OVERDUE;
+
+    /** Issue month of each customer's oldest bill */
+    private static final LocalDate FIRST_MONTH = LocalDate.of(2020, 1, 1);
+
+    private static final int SEED_CHUNK = 10_000;
+
+    @DynamicPropertySource
+    static void benchDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:./target/repo-bench/c" + CUSTOMERS
+                + "-b" + BILLS_PER_CUSTOMER + "-k" + COMPLAINTS_PER_CUSTOMER + ";CACHE_SIZE=262144");
+    }
+
+    @Autowired
+    private BillRepository billRepo;
+
+    @Autowired
+    private ComplaintRepository complaintRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private final SplittableRandom rnd = new SplittableRandom(42);
+
+    private final List<String> report = new ArrayList<>();
+
+    /** Id of customer 0; customer c has id customerBase + c */
+    private long customerBase;
+
+    @Test
+    void timesEveryRepositoryQuery() throws IOException {
+        seed();
+        assertThat(billRepo.count()).isEqualTo(BILLS);
+
+        billQueries();
+        complaintQueries();
+
+        Path csv = Path.of("target", "repository-benchmark.csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+            out.println("query,selectivity,iterations,rows,mean_ms,p50_ms,p99_ms,max_ms");
+            report.forEach(out::println);
+        }
+        System.out.printf("REPORT written to %s (%d customers, %d bills, %d complaints)%n",
+                csv.toAbsolutePath(), CUSTOMERS, BILLS, COMPLAINTS);
+    }
+
+    private void billQueries() {
+        time("Bill.findByBillId", "hit", ITERATIONS, i -> billRepo.findByBillId(randomBillId()).stream().count());
+        time("Bill.findByBillId", "miss", ITERATIONS, i -> billRepo.findByBillId("rb-missing-" + i).stream().count());
+        time("Bill.findResponseByBillId", "hit", ITERATIONS,
+                i -> billRepo.findResponseByBillId(randomBillId()).stream().count());
+        for (int n : new int[] {10, 100, 1000}) {
+            time("Bill.findByBillIdIn", n + " ids", ITERATIONS / 4, i -> billRepo.findByBillIdIn(randomBillIds(n)).size());
+        }
+
+        time("Bill.findAllByOrderByIssueDateDescIdDesc", "first 50", ITERATIONS,
+                i -> billRepo.findAllByOrderByIssueDateDescIdDesc(Limit.of(51)).size());
+        for (double depth : new double[] {0.01, 0.5, 0.99}) {
+            LocalDate cursor = monthAt(depth);
+            time("Bill.findPageAfter", "cursor at " + (int) (depth * 100) + "%", ITERATIONS,
+                    i -> billRepo.findPageAfter(cursor, Long.MAX_VALUE, Limit.of(51)).size());
+        }
+
+        time("Bill.findByCustomerConsumerId", "one customer", ITERATIONS,
+                i -> billRepo.findByCustomerConsumerId(randomConsumerId()).size());
+        time("Bill.findByCustomerConsumerId", "unknown customer", ITERATIONS,
+                i -> billRepo.findByCustomerConsumerId("5999999999999").size());
+        time("Bill.findResponsesByConsumerId", "one customer", ITERATIONS,
+                i -> billRepo.findResponsesByConsumerId(randomConsumerId()).size());
+        time("Bill.findPaidResponsesByConsumerId", "one customer", ITERATIONS,
+                i -> billRepo.findPaidResponsesByConsumerId(randomConsumerId()).size());
+        for (String status : new String[] {"OVERDUE", "PENDING", "PAID"}) {
+            time("Bill.findByCustomerConsumerIdAndStatus", status, ITERATIONS,
+                    i -> billRepo.findByCustomerConsumerIdAndStatus(randomConsumerId(), status).size());
+            time("Bill.findResponsesByConsumerIdAndStatus", status, ITERATIONS,
+                    i -> billRepo.findResponsesByConsumerIdAndStatus(randomConsumerId(), status).size());
+        }
+
+        for (String status : new String[] {"OVERDUE", "PENDING", "PAID"}) {
+            long rows = rowsWithStatus(status);
+            time("Bill.countByStatus", status, ITERATIONS / 4, i -> billRepo.countByStatus(status));
+            time("Bill.sumAmountDueByStatus", status, ITERATIONS / 4,
+                    i -> billRepo.sumAmountDueByStatus(status).signum());
+            scan("Bill.findByStatus", status, rows, i -> billRepo.findByStatus(status).size());
+            scan("Bill.findResponsesByStatus", status, rows, i -> billRepo.findResponsesByStatus(status).size());
+            scan("Bill.streamByStatus", status, rows, i -> readOnly(() -> {
+                try (Stream<Bill> s = billRepo.streamByStatus(status)) {
+                    return s.count();
+                }
+            }));
+        }
+        time("Bill.countAndSumByStatus", "all", SCAN_ITERATIONS, i -> billRepo.countAndSumByStatus().size());
+        scan("Bill.findAllResponses", "all", BILLS, i -> billRepo.findAllResponses().size());
+        scan("Bill.streamAll", "all", BILLS, i -> readOnly(() -> {
+            try (Stream<Bill> s = billRepo.streamAll()) {
+                return s.count();
+            }
+        }));
+
+        for (double depth : new double[] {0.5, 1.01}) {
+            LocalDate before = monthAt(depth);
+            String label = depth > 1 ? "all pending due" : "none due";
+            time("Bill.findIdRangeByStatusAndDueDateBefore", label, ITERATIONS / 4,
+                    i -> billRepo.findIdRangeByStatusAndDueDateBefore("PENDING", before).size());
+        }
+        for (int width : new int[] {1_000, 100_000}) {
+            // PENDING -> PENDING in a rolled-back transaction: the sweep's slice update without changing data
+            time("Bill.updateStatusInIdRange", width + " ids", ITERATIONS / 10, i -> rolledBack(() -> {
+                long from = rnd.nextLong(Math.max(1, BILLS - width)) + 1;
+                return billRepo.updateStatusInIdRange(from, from + width - 1, "PENDING", "PENDING",
+                        LocalDate.of(2100, 1, 1));
+            }));
+        }
+
+        time("Bill.existsByCustomerIdAndBillingMonth", "billed", ITERATIONS,
+                i -> billRepo.existsByCustomerIdAndBillingMonth(randomCustomerId(), "2020-01") ? 1 : 0);
+        time("Bill.existsByCustomerIdAndBillingMonth", "not billed", ITERATIONS,
+                i -> billRepo.existsByCustomerIdAndBillingMonth(randomCustomerId(), "2099-01") ? 1 : 0);
+        for (int n : new int[] {100, 1000}) {
+            time("Bill.findBilledCustomerIds", n + " customers", ITERATIONS / 4,
+                    i -> billRepo.findBilledCustomerIds("2020-01", randomCustomerIds(n)).size());
+        }
+    }
+
+    private void complaintQueries() {
+        time("Complaint.findByComplaintId", "hit", ITERATIONS,
+                i -> complaintRepo.findByComplaintId(randomComplaintId()).stream().count());
+        time("Complaint.findResponseByComplaintId", "hit", ITERATIONS,
+                i -> complaintRepo.findResponseByComplaintId(randomComplaintId()).stream().count());
+        time("Complaint.findByCustomerConsumerId", "one customer", ITERATIONS,
+                i -> complaintRepo.findByCustomerConsumerId(randomConsumerId()).size());
+        time("Complaint.findResponsesByConsumerId", "one customer", ITERATIONS,
+                i -> complaintRepo.findResponsesByConsumerId(randomConsumerId()).size());
+        for (String status : new String[] {"OPEN", "CLOSED"}) {
+            time("Complaint.findByCustomerConsumerIdAndStatus", status, ITERATIONS,
+                    i -> complaintRepo.findByCustomerConsumerIdAndStatus(randomConsumerId(), status).size());
+            time("Complaint.findResponsesByConsumerIdAndStatus", status, ITERATIONS,
+                    i -> complaintRepo.findResponsesByConsumerIdAndStatus(randomConsumerId(), status).size());
+        }
+        scan("Complaint.findAllResponses", "all", COMPLAINTS, i -> complaintRepo.findAllResponses().size());
+    }
+
+    /** A query that reads a whole status or table: fewer iterations, skipped when too large */
+    private void scan(String query, String selectivity, long rows, IntToLongFunction call) {
+        if (rows > MAX_ROWS) {
+            System.out.printf("REPORT %-45s %-16s skipped: %d rows > ebm.bench.max-rows%n", query, selectivity, rows);
+            return;
+        }
+        time(query, selectivity, SCAN_ITERATIONS, call);
+    }
+
+    /** Runs call a few times to warm up, then iterations times; prints and records the latency spread */
+    private void time(String query, String selectivity, int iterations, IntToLongFunction call) {
+        iterations = Math.max(iterations, 1);
+        for (int i = 0; i < Math.min(iterations, 10); i++) {
+            call.applyAsLong(i);
+        }
+        long[] nanos = new long[iterations];
+        long rows = 0;
+        for (int i = 0; i < iterations; i++) {
+            long t0 = System.nanoTime();
+            rows += call.applyAsLong(i);
+            nanos[i] = System.nanoTime() - t0;
+        }
+        double mean = Arrays.stream(nanos).average().orElse(0) / 1e6;
+        Arrays.sort(nanos);
+        double meanRows = (double) rows / iterations;
+        System.out.printf("REPORT %-45s %-16s %5d runs, %10.1f rows: mean %9.3f ms, p50 %9.3f ms, "
+                        + "p99 %9.3f ms, max %9.3f ms%n",
+                query, selectivity, iterations, meanRows, mean, millis(nanos, 0.50), millis(nanos, 0.99),
+                nanos[iterations - 1] / 1e6);
+        report.add(String.format("%s,%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f", query, selectivity, iterations, meanRows,
+                mean, millis(nanos, 0.50), millis(nanos, 0.99), nanos[iterations - 1] / 1e6));
+    }
+
+    private static double millis(long[] sorted, double q) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1)] / 1e6;
+    }
+
+    private long readOnly(LongSupplier work) {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(true);
+        return tx.execute(s -> work.getAsLong());
+    }
+
+    private long rolledBack(LongSupplier work) {
+        return new TransactionTemplate(txManager).execute(s -> {
+            s.setRollbackOnly();
+            return work.getAsLong();
+        });
+    }
+
+    private static long rowsWithStatus(String status) {
+        return switch (status) {
+            case "PENDING" -> PENDING;
+            case "OVERDUE" -> OVERDUE;
+            default -> PAID;
+        };
+    }
+
+    /** Issue month at this fraction of the bill history (beyond 1: after the newest) */
+    private static LocalDate monthAt(double fraction) {
+        return FIRST_MONTH.plusMonths((long) (fraction * BILLS_PER_CUSTOMER));
+    }
+
+    private String randomConsumerId() {
+        return consumerId(rnd.nextInt(CUSTOMERS));
+    }
+
+    private long randomCustomerId() {
+        return customerBase + rnd.nextInt(CUSTOMERS);
+    }
+
+    private List<Long> randomCustomerIds(int n) {
+        List<Long> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ids.add(randomCustomerId());
+        }
+        return ids;
+    }
+
+    private String randomBillId() {
+        return "rb-" + rnd.nextInt(CUSTOMERS) + "-" + rnd.nextInt(BILLS_PER_CUSTOMER);
+    }
+
+    private List<String> randomBillIds(int n) {
+        List<String> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ids.add(randomBillId());
+        }
+        return ids;
+    }
+
+    private String randomComplaintId() {
+        return "rbc" + rnd.nextLong(COMPLAINTS);
+    }
+
+    private static String consumerId(int c) {
+        return String.valueOf(6000000000000L + c);
+    }
+
+    /**
+     * Users, customers, bills and complaints with INSERT ... SELECT over
+     * SYSTEM_RANGE, SEED_CHUNK customers per statement. Identity ids are
+     * handed out in order, so customer c has id customerBase + c.
+     */
+    private void seed() {
+        boolean seeded = jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'rb0'", Long.class) > 0;
+        if (!seeded) {
+            insertInChunks("INSERT INTO users (username, email, password, status, user_type) "
+                    + "SELECT 'rb' || X, 'rb' || X || '@ebm.test', 'cGFzc3dvcmQ=', 'ACTIVE', 'CUSTOMER' "
+                    + "FROM SYSTEM_RANGE(?, ?)");
+            long userBase = jdbc.queryForObject("SELECT id FROM users WHERE username = 'rb0'", Long.class);
+            insertInChunks("INSERT INTO customers (consumer_id, name, address, email, mobile, user_id) "
+                    + "SELECT CAST(6000000000000 + X AS VARCHAR), 'Bench Customer', 'Bench Street', "
+                    + "'bench@ebm.test', '9000000000', " + userBase + " + X FROM SYSTEM_RANGE(?, ?)");
+        }
+        customerBase = jdbc.queryForObject("SELECT id FROM customers WHERE consumer_id = ?", Long.class,
+                consumerId(0));
+        if (seeded) {
+            assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM complaints", Long.class))
+                    .as("target/repo-bench holds a partly seeded database; delete it and rerun")
+                    .isEqualTo(COMPLAINTS);
+            return;
+        }
+
+        long start = System.nanoTime();
+        String month = "DATEADD(MONTH, m.X, DATE '" + FIRST_MONTH + "')";
+        String status = "CASE WHEN m.X = " + (BILLS_PER_CUSTOMER - 1) + " THEN 'PENDING' "
+                + "WHEN m.X = " + (BILLS_PER_CUSTOMER - 2) + " AND MOD(c.X, 10) = 0 THEN 'OVERDUE' ELSE 'PAID' END";
+        String paid = "m.X < " + (BILLS_PER_CUSTOMER - 2) + " OR (m.X = " + (BILLS_PER_CUSTOMER - 2)
+                + " AND MOD(c.X, 10) <> 0)";
+        insertInChunks("INSERT INTO bills (id, bill_id, customer_id, billing_month, amount_due, issue_date, "
+                + "due_date, status, payment_date, payment_id) "
+                + "SELECT c.X * " + BILLS_PER_CUSTOMER + " + m.X + 1, 'rb-' || c.X || '-' || m.X, "
+                + customerBase + " + c.X, FORMATDATETIME(" + month + ", 'yyyy-MM'), 1200.00, " + month + ", "
+                + "DATEADD(DAY, 15, " + month + "), " + status + ", "
+                + "CASE WHEN " + paid + " THEN DATEADD(DAY, 10, " + month + ") END, "
+                + "CASE WHEN " + paid + " THEN 'rbp-' || c.X || '-' || m.X END "
+                + "FROM SYSTEM_RANGE(?, ?) c CROSS JOIN SYSTEM_RANGE(0, " + (BILLS_PER_CUSTOMER - 1) + ") m");
+        jdbc.execute("ALTER SEQUENCE bills_seq RESTART WITH " + (BILLS + 50));
+        insertInChunks("INSERT INTO complaints (complaint_id, customer_id, type, category, problem, landmark, "
+                + "status, created_at, updated_at) "
+                + "SELECT 'rbc' || (c.X * " + COMPLAINTS_PER_CUSTOMER + " + k.X), " + customerBase + " + c.X, "
+                + "'Supply', 'Outage', 'No power since morning', 'Near the substation', "
+                + "CASE WHEN k.X = 0 AND MOD(c.X, 5) = 0 THEN 'OPEN' ELSE 'CLOSED' END, "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(?, ?) c CROSS JOIN SYSTEM_RANGE(0, " + (COMPLAINTS_PER_CUSTOMER - 1) + ") k");
+        jdbc.execute("ANALYZE");
+        System.out.printf("REPORT seeded %d customers, %d bills, %d complaints in %.1f s%n",
+                CUSTOMERS, BILLS, COMPLAINTS, (System.nanoTime() - start) / 1e9);
+    }
+
+    /** Runs an INSERT ... SELECT FROM SYSTEM_RANGE(?, ?) over all customers, SEED_CHUNK at a time */
+    private void insertInChunks(String sql) {
+        for (int from = 0; from < CUSTOMERS; from += SEED_CHUNK) {
+            jdbc.update(sql, from, Math.min(from + SEED_CHUNK, CUSTOMERS) - 1);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.dto.bill.BillResponse;
+import myApp.ebm.dto.bill.CreateBillRequest;
+import myApp.ebm.dto.bill.PaymentRequest;
+import myApp.ebm.dto.bill.PaymentResponse;
+import myApp.ebm.exception.BillAlreadyExistsException;
+
+/**
+ * Single-bill create and update rules in {@link BillService}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BillServiceTest {
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private OverdueSweepService sweepService;
+
+    @Test
+    void updateCannotMoveABillOntoAnotherBillsMonth() {
+        register("8300000000001", "billupdate");
+        billService.createBill(bill("8300000000001", "2033-01"));
+        BillResponse feb = billService.createBill(bill("8300000000001", "2033-02"));
+
+        assertThatThrownBy(() -> billService.updateBill(feb.getBillId(), bill("8300000000001", "2033-01")))
+                .isInstanceOf(BillAlreadyExistsException.class);
+
+        // keeping its own month is not a clash
+        CreateBillRequest same = bill("8300000000001", "2033-02");
+        same.setAmountDue(new BigDecimal("75.00"));
+        assertThat(billService.updateBill(feb.getBillId(), same).getAmountDue()).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void backdatedBillKeepsTheIssueDateItWasPricedOn() {
+        register("8300000000002", "billbackdate");
+        CreateBillRequest req = bill("8300000000002", "2020-03");
+        req.setDueDate(null);
+
+        BillResponse created = billService.createBill(req);
+
+        assertThat(created.getIssueDate()).isEqualTo(LocalDate.parse("2020-03-01"));
+        assertThat(created.getDueDate()).isEqualTo(LocalDate.parse("2020-03-16"));
+        // pending and past due: would otherwise be counted by OverdueSweepServiceTest's sweep
+        billService.deleteBillByBillId(created.getBillId());
+    }
+
+    @Test
+    void hourlyUnitsArePricedWithTimeOfUseBands() {
+        register("8300000000003", "billhourly");
+        CreateBillRequest req = bill("8300000000003", "2020-04");
+        req.setAmountDue(null);
+        Long[] byHour = new Long[24];
+        Arrays.fill(byHour, 0L);
+        byHour[2] = 10L;   // DOMESTIC night band: -0.50 per unit
+        byHour[12] = 50L;  // no band
+        byHour[19] = 40L;  // DOMESTIC evening band: +1.00 per unit
+        req.setUnitsByHour(Arrays.asList(byHour));
+
+        BillResponse created = billService.createBill(req);
+
+        // 100 units flat (50.00 fixed + 100 x 3.00) - 10 x 0.50 + 40 x 1.00
+        assertThat(created.getAmountDue()).isEqualByComparingTo("385.00");
+        billService.deleteBillByBillId(created.getBillId());
+    }
+
+    @Test
+    void partialPaymentKeepsAnOverdueBillOverdue() {
+        register("8300000000004", "billoverdue");
+        BillResponse bill = billService.createBill(bill("8300000000004", "2020-06"));
+        sweepService.sweepNow();
+        long overdue = (Long) billService.getBillStats().get("overdueBills");
+
+        PaymentResponse partial = billService.payBill(payment(bill.getBillId(), "40.00"));
+
+        assertThat(partial.getStatus()).isEqualTo("OVERDUE");
+        assertThat(billService.getBillById(bill.getBillId()).getAmountDue()).isEqualByComparingTo("60.00");
+        assertThat(billService.getBillStats().get("overdueBills")).isEqualTo(overdue);
+
+        assertThat(billService.payBill(payment(bill.getBillId(), "60.00")).getStatus()).isEqualTo("PAID");
+        assertThat(billService.getBillStats().get("overdueBills")).isEqualTo(overdue - 1);
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Bill User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Bill Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+
+    private static CreateBillRequest bill(String consumerId, String month) {
+        CreateBillRequest req = new CreateBillRequest();
+        req.setConsumerId(consumerId);
+        req.setBillingMonth(month);
+        req.setAmountDue(new BigDecimal("100.00"));
+        req.setIssueDate(LocalDate.parse(month + "-01"));
+        req.setDueDate(LocalDate.parse(month + "-16"));
+        return req;
+    }
+
+    private static PaymentRequest payment(String billId, String amount) {
+        PaymentRequest req = new PaymentRequest();
+        req.setBillId(billId);
+        req.setAmountPaid(new BigDecimal(amount));
+        return req;
+    }
+}
@@ -0,0 +1,131 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.dto.bill.BillResponse;
+import myApp.ebm.dto.bill.CreateBillRequest;
+import myApp.ebm.dto.bill.PaymentRequest;
+
+/**
+ * The running statistics must always equal a full scan of the bills table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BillStatsServiceTest {
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void resync() {
+        // other test contexts write to the same in-memory database
+        statsService.reconcile();
+    }
+
+    @Test
+    void writesKeepStatsEqualToFullScan() {
+        register("6000000000001", "statsuser");
+
+        BillResponse jan = billService.createBill(bill("6000000000001", "2031-01", "120.50"));
+        BillResponse feb = billService.createBill(bill("6000000000001", "2031-02", "80.00"));
+        BillResponse mar = billService.createBill(bill("6000000000001", "2031-03", "45.25"));
+        assertMatchesScan();
+
+        billService.payBill(payment(jan.getBillId(), "20.50"));   // partial: still PENDING
+        billService.payBill(payment(jan.getBillId(), "100.00"));  // now PAID
+        assertMatchesScan();
+
+        CreateBillRequest update = bill("6000000000001", "2031-02", "99.99");
+        update.setIssueDate(feb.getIssueDate());
+        update.setDueDate(feb.getDueDate());
+        billService.updateBill(feb.getBillId(), update);
+        billService.deleteBillByBillId(mar.getBillId());
+        assertMatchesScan();
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        register("6000000000002", "driftuser");
+        long customerId = jdbc.queryForObject(
+                "SELECT id FROM customers WHERE consumer_id = '6000000000002'", Long.class);
+        // written behind the service's back
+        jdbc.update("INSERT INTO bills (id, bill_id, customer_id, billing_month, amount_due, issue_date, due_date, status) "
+                + "VALUES (NEXT VALUE FOR bills_seq, 'drift0000001', ?, '2031-05', 10.00, CURRENT_DATE, CURRENT_DATE, 'OVERDUE')",
+                customerId);
+        assertThat(statsService.getStats()).isNotEqualTo(scan());
+
+        Map<String, Object> rebuilt = statsService.reconcile();
+
+        assertThat(rebuilt).isEqualTo(scan());
+        assertMatchesScan();
+    }
+
+    private void assertMatchesScan() {
+        assertThat(statsService.getStats()).isEqualTo(scan());
+    }
+
+    /** What the old implementation computed on every request */
+    private Map<String, Object> scan() {
+        return Map.of(
+                "totalBills", count(null),
+                "pendingBills", count("PENDING"),
+                "paidBills", count("PAID"),
+                "overdueBills", count("OVERDUE"),
+                "totalRevenue", jdbc.queryForObject(
+                        "SELECT COALESCE(SUM(amount_due), 0) FROM bills WHERE status = 'PAID'", BigDecimal.class)
+                        .setScale(2));
+    }
+
+    private long count(String status) {
+        return status == null
+                ? jdbc.queryForObject("SELECT COUNT(*) FROM bills", Long.class)
+                : jdbc.queryForObject("SELECT COUNT(*) FROM bills WHERE status = ?", Long.class, status);
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Stats User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Stats Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+
+    private static CreateBillRequest bill(String consumerId, String month, String amount) {
+        CreateBillRequest req = new CreateBillRequest();
+        req.setConsumerId(consumerId);
+        req.setBillingMonth(month);
+        req.setAmountDue(new BigDecimal(amount));
+        return req;
+    }
+
+    private static PaymentRequest payment(String billId, String amount) {
+        PaymentRequest req = new PaymentRequest();
+        req.setBillId(billId);
+        req.setAmountPaid(new BigDecimal(amount));
+        return req;
+    }
+}
@@ -0,0 +1,85 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.billing.BillingRunRequest;
+import myApp.ebm.dto.billing.BillingRunResponse;
+
+/**
+ * Billing-run throughput on an in-memory database.
+ *
+ * mvn test -Pbenchmark -Dtest=BillingRunBenchmarkTest [-Debm.bench.customers=1000000]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "ebm.billing-run.threads=8")
+@ActiveProfiles("test")
+class BillingRunBenchmarkTest {
+
+    private static final int CUSTOMERS = Integer.getInteger("ebm.bench.customers", 1_000_000);
+
+    @Autowired
+    private BillingRunService billingRunService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void billsPerSecond() throws InterruptedException {
+        seedCustomers(CUSTOMERS);
+
+        BillingRunRequest req = new BillingRunRequest();
+        req.setBillingMonth("2030-01");
+        req.setAmountDue(new BigDecimal("450.00"));
+        req.setPartitions(32);
+
+        long start = System.nanoTime();
+        BillingRunResponse run = billingRunService.startRun(req);
+        while ("RUNNING".equals(run.getStatus())) {
+            Thread.sleep(500);
+            run = billingRunService.getRun(run.getRunId());
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("BillingRun: %d customers, %d bills in %.1f s = %.0f bills/s%n",
+                CUSTOMERS, run.getBillsCreated(), secs, run.getBillsCreated() / secs);
+        assertThat(run.getStatus()).isEqualTo("COMPLETED");
+        assertThat(run.getBillsCreated()).isEqualTo(CUSTOMERS);
+
+        // rerun is idempotent: nothing new is billed
+        BillingRunResponse rerun = billingRunService.startRun(req);
+        while ("RUNNING".equals(rerun.getStatus())) {
+            Thread.sleep(200);
+            rerun = billingRunService.getRun(rerun.getRunId());
+        }
+        assertThat(rerun.getBillsCreated()).isZero();
+    }
+
+    private void seedCustomers(int n) {
+        long base = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+        int batch = 10_000;
+        for (int from = 0; from < n; from += batch) {
+            List<Object[]> users = new ArrayList<>(batch);
+            List<Object[]> customers = new ArrayList<>(batch);
+            for (int i = from; i < Math.min(from + batch, n); i++) {
+                long id = base + i + 1;
+                users.add(new Object[] {id, "bench" + id, "bench" + id + "@ebm.test"});
+                customers.add(new Object[] {String.format("9%012d", id), "Customer " + id, id});
+            }
+            jdbc.batchUpdate("INSERT INTO users (id, username, email, password, status, user_type) "
+                    + "VALUES (?, ?, ?, 'cGFzc3dvcmQ=', 'ACTIVE', 'CUSTOMER')", users);
+            jdbc.batchUpdate("INSERT INTO customers (consumer_id, name, address, email, mobile, user_id) "
+                    + "VALUES (?, ?, 'Bench Street', 'bench@ebm.test', '9000000000', ?)", customers);
+        }
+    }
+}
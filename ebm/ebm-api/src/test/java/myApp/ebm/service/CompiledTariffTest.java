@@ -0,0 +1,98 @@
+package myApp.ebm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import myApp.ebm.exception.TariffException;
+import myApp.ebm.model.Tariff;
+import myApp.ebm.model.TariffSlab;
+import myApp.ebm.model.TariffTouBand;
+
+/**
+ * Slab and time-of-use pricing against hand-computed amounts (paise).
+ */
+class CompiledTariffTest {
+
+    /** Same shape as the DOMESTIC tariff seeded by V5__tariffs.sql */
+    private static Tariff domestic() {
+        Tariff t = new Tariff();
+        t.setCode("DOMESTIC");
+        t.setVersion(1);
+        t.setEffectiveFrom(LocalDate.of(2000, 1, 1));
+        t.setFixedChargePaise(5000);
+        t.getSlabs().add(new TariffSlab(100L, 300));
+        t.getSlabs().add(new TariffSlab(300L, 500));
+        t.getSlabs().add(new TariffSlab(500L, 700));
+        t.getSlabs().add(new TariffSlab(null, 850));
+        t.getTouBands().add(new TariffTouBand(0, 6, -50));
+        t.getTouBands().add(new TariffTouBand(18, 22, 100));
+        return t;
+    }
+
+    @Test
+    void slabBoundaries() {
+        CompiledTariff c = CompiledTariff.compile(domestic());
+        assertEquals(5000, c.amountPaise(0));
+        assertEquals(5000 + 100 * 300, c.amountPaise(100));
+        assertEquals(5000 + 100 * 300 + 500, c.amountPaise(101));
+        assertEquals(5000 + 100 * 300 + 200 * 500 + 200 * 700, c.amountPaise(500));
+        assertEquals(5000 + 100 * 300 + 200 * 500 + 200 * 700 + 250 * 850, c.amountPaise(750));
+    }
+
+    @Test
+    void timeOfUseAdjustsPerHour() {
+        CompiledTariff c = CompiledTariff.compile(domestic());
+        long[] hourly = new long[24];
+        hourly[2] = 10;   // night rebate
+        hourly[12] = 50;  // no band
+        hourly[19] = 40;  // evening peak
+        long expected = c.amountPaise(100) - 10 * 50 + 40 * 100;
+        assertEquals(expected, c.amountPaise(hourly));
+
+        // large enough to take the overflow-checked path, same result
+        hourly[19] = 1L << 31;
+        expected = c.amountPaise(60 + (1L << 31)) - 10 * 50 + (1L << 31) * 100;
+        assertEquals(expected, c.amountPaise(hourly));
+    }
+
+    @Test
+    void rejectsOpenSlabBeforeLast() {
+        Tariff t = domestic();
+        t.getSlabs().get(1).setUptoUnits(null);
+        assertThrows(TariffException.class, () -> CompiledTariff.compile(t));
+    }
+
+    @Test
+    void rejectsBoundOnLastSlab() {
+        Tariff t = domestic();
+        t.getSlabs().get(3).setUptoUnits(1000L);
+        assertThrows(TariffException.class, () -> CompiledTariff.compile(t));
+    }
+
+    @Test
+    void overflowIsAnErrorNotAWrappedAmount() {
+        CompiledTariff c = CompiledTariff.compile(domestic());
+        assertThrows(TariffException.class, () -> c.amountPaise(Long.MAX_VALUE / 100));
+        long[] hourly = new long[24];
+        hourly[19] = Long.MAX_VALUE / 50;
+        assertThrows(TariffException.class, () -> c.amountPaise(hourly));
+        hourly[19] = Long.MAX_VALUE;
+        hourly[20] = 1;
+        assertThrows(TariffException.class, () -> c.amountPaise(hourly));
+
+        Tariff t = domestic();
+        t.getSlabs().get(2).setUptoUnits(Long.MAX_VALUE / 2);
+        assertThrows(TariffException.class, () -> CompiledTariff.compile(t));
+    }
+
+    @Test
+    void appliesFromEffectiveDate() {
+        CompiledTariff c = CompiledTariff.compile(domestic());
+        assertEquals(false, c.appliesOn(LocalDate.of(1999, 12, 31)));
+        assertEquals(true, c.appliesOn(LocalDate.of(2000, 1, 1)));
+    }
+}
@@ -0,0 +1,105 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.dto.complaint.ComplaintResponse;
+import myApp.ebm.dto.complaint.RegisterComplaintRequest;
+import myApp.ebm.exception.CustomerNotFoundException;
+import myApp.ebm.model.Customer;
+
+/**
+ * consumerId lookups on the complaint path come from the cache, and a
+ * committed update or delete is never hidden by a stale entry.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerLookupCacheTest {
+
+    @Autowired
+    private CustomerLookupCache cache;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Test
+    void repeatedLookupsHitTheCache() {
+        register("7200000000001", "cacheuser");
+        long hitsBefore = hits();
+
+        ComplaintResponse filed = complaintService.registerComplaint(complaint("7200000000001"));
+        for (int i = 0; i < 5; i++) {
+            complaintService.viewCustomerComplaints("7200000000001");
+            complaintService.viewOpenComplaints("7200000000001");
+        }
+
+        assertThat(filed.getCustomerName()).isEqualTo("Cache User");
+        assertThat(hits() - hitsBefore).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void updateAndDeleteAreVisibleAfterCommit() {
+        register("7200000000002", "cacheedit");
+        assertThat(cache.require("7200000000002").getName()).isEqualTo("Cache User");
+
+        Customer change = new Customer();
+        change.setName("Renamed User");
+        customerService.updateCustomer("7200000000002", change);
+        assertThat(cache.require("7200000000002").getName()).isEqualTo("Renamed User");
+
+        customerService.deleteCustomer("7200000000002");
+        assertThat(cache.find("7200000000002")).isEmpty();
+        assertThatThrownBy(() -> complaintService.viewOpenComplaints("7200000000002"))
+                .isInstanceOf(CustomerNotFoundException.class);
+    }
+
+    @Test
+    void unknownConsumerIdIsNotCachedAsMissing() {
+        assertThat(cache.find("7200000000003")).isEmpty();
+
+        register("7200000000003", "cachelate");
+
+        assertThat(cache.find("7200000000003")).isPresent();
+    }
+
+    private long hits() {
+        Map<String, Object> stats = customerService.getLookupCacheStats();
+        return (Long) stats.get("hits");
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Cache User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Cache Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+
+    private static RegisterComplaintRequest complaint(String consumerId) {
+        RegisterComplaintRequest req = new RegisterComplaintRequest();
+        req.setConsumerId(consumerId);
+        req.setType("Billing");
+        req.setCategory("Wrong amount");
+        req.setProblem("Bill amount looks too high");
+        req.setLandmark("Near the substation");
+        return req;
+    }
+}
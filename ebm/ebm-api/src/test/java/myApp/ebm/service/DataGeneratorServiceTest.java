@@ -0,0 +1,101 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.LoginRequest;
+import myApp.ebm.exception.DataGeneratorException;
+
+/**
+ * Generated data is the same for the same seed, covers every bill and
+ * complaint state, keeps bills and the payment ledger consistent and can
+ * be logged in with. The until month lies far ahead so the overdue sweep
+ * of other tests never sees these bills.
+ */
+@SpringBootTest(properties = {"ebm.generate.until=2099-06", "ebm.generate.months=24",
+        "ebm.generate.chunk-customers=40", "ebm.generate.complaints-per-customer=2"})
+@ActiveProfiles("test")
+class DataGeneratorServiceTest {
+
+    private static final long FIRST = 7700000000000L;
+    private static final long SECOND = 7700000001000L;
+    private static final long OTHER_SEED = 7700000002000L;
+    private static final int CUSTOMERS = 100;
+
+    @Autowired
+    private DataGeneratorService generator;
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void sameSeedSameDataWithEveryState() {
+        Map<String, Object> run = generator.generate(CUSTOMERS, 7, FIRST);
+        generator.generate(CUSTOMERS, 7, SECOND);
+        generator.generate(CUSTOMERS, 8, OTHER_SEED);
+
+        assertThat(run.get("customers")).isEqualTo((long) CUSTOMERS);
+        assertThat((long) run.get("bills")).isGreaterThan(CUSTOMERS * 12L);
+        assertThat(content(FIRST)).isEqualTo(content(SECOND)).isNotEqualTo(content(OTHER_SEED));
+
+        assertThat(statuses("bills", FIRST)).containsExactlyInAnyOrder("PAID", "PENDING", "OVERDUE");
+        assertThat(statuses("complaints", FIRST)).contains("OPEN", "RESOLVED", "CLOSED");
+        // partial payments: a ledger row that left something due
+        assertThat(count("SELECT COUNT(*) FROM payments p JOIN customers c ON c.id = p.customer_id "
+                + "WHERE c.consumer_id LIKE '77000000000%' AND p.balance_after > 0")).isPositive();
+        // PAID exactly when nothing is due, and a paid-into bill names its latest ledger row
+        assertThat(count("SELECT COUNT(*) FROM bills b JOIN customers c ON c.id = b.customer_id "
+                + "WHERE c.consumer_id LIKE '77000000000%' AND (b.status = 'PAID') <> (b.amount_due = 0)")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM bills b JOIN customers c ON c.id = b.customer_id "
+                + "WHERE c.consumer_id LIKE '77000000000%' AND b.payment_id IS NOT NULL AND NOT EXISTS ("
+                + "SELECT 1 FROM payments p WHERE p.payment_id = b.payment_id AND p.bill_id = b.bill_id "
+                + "AND p.balance_after = b.amount_due)")).isZero();
+
+        LoginRequest login = new LoginRequest();
+        login.setUsername("c" + FIRST);
+        login.setPassword("password1");
+        assertThat(loginService.validateLogin(login).getConsumerId()).isEqualTo(String.valueOf(FIRST));
+    }
+
+    @Test
+    void refusesTakenConsumerIds() {
+        generator.generate(1, 1, 7700000003000L);
+
+        assertThatThrownBy(() -> generator.generate(5, 1, 7700000002998L))
+                .isInstanceOf(DataGeneratorException.class)
+                .hasMessageContaining("already in use");
+    }
+
+    /** Everything about the customers of a run except their ids */
+    private List<Map<String, Object>> content(long first) {
+        return jdbc.queryForList("SELECT CAST(c.consumer_id AS BIGINT) - ? AS n, c.name, c.city, c.mobile, "
+                + "b.billing_month, b.amount_due, b.status, b.payment_date, "
+                + "(SELECT COUNT(*) FROM payments p WHERE p.bill_id = b.bill_id) AS payments, "
+                + "(SELECT COUNT(*) FROM complaints x WHERE x.customer_id = c.id) AS complaints "
+                + "FROM customers c JOIN bills b ON b.customer_id = c.id "
+                + "WHERE c.consumer_id BETWEEN ? AND ? ORDER BY n, b.billing_month",
+                first, String.valueOf(first), String.valueOf(first + CUSTOMERS - 1));
+    }
+
+    private List<String> statuses(String table, long first) {
+        return jdbc.queryForList("SELECT DISTINCT t.status FROM " + table + " t JOIN customers c ON c.id = t.customer_id "
+                + "WHERE c.consumer_id BETWEEN ? AND ?", String.class,
+                String.valueOf(first), String.valueOf(first + CUSTOMERS - 1));
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
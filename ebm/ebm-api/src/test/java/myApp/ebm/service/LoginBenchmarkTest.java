@@ -0,0 +1,133 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.LoginRequest;
+import myApp.ebm.exception.LoginBusyException;
+import myApp.ebm.util.EncryptionUtil;
+
+/**
+ * Logins per second through {@link LoginService}, with CLIENTS callers
+ * logging in as random generated customers.
+ *
+ * The first round starts from legacy Base64 passwords, so every login
+ * also rehashes and writes its user once. The second is the steady state:
+ * one query and one BCrypt check per login, at the configured cost and on
+ * the configured hash pool. Logins turned away because the pool's queue
+ * was full are counted, not timed.
+ *
+ * mvn test -Pbenchmark -Dtest=LoginBenchmarkTest
+ *     [-Debm.bench.clients=16] [-Debm.bench.seconds=20]
+ *     [-Debm.auth.bcrypt-strength=10] [-Debm.auth.hash-threads=2]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"ebm.generate.months=1", "logging.level.root=WARN"})
+@ActiveProfiles("test")
+class LoginBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("ebm.bench.clients", 16);
+    private static final int SECONDS = Integer.getInteger("ebm.bench.seconds", 20);
+    private static final int USERS = 500;
+    private static final long FIRST = 8100000100000L;
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private DataGeneratorService generator;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Value("${ebm.auth.bcrypt-strength:10}")
+    private int strength;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private ThreadPoolTaskExecutor hashExecutor;
+
+    @Test
+    void loginsPerSecond() throws Exception {
+        generator.generate(USERS, 42, FIRST);
+        jdbc.update("UPDATE users SET password = ? WHERE username BETWEEN ? AND ?",
+                EncryptionUtil.encrypt("password1"), "c" + FIRST, "c" + (FIRST + USERS - 1));
+
+        // every user once, in order: each login rehashes
+        AtomicInteger nextUser = new AtomicInteger();
+        run("legacy+rehash", () -> {
+            int u = nextUser.getAndIncrement();
+            return u < USERS ? u : -1;
+        });
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE username BETWEEN ? AND ? "
+                + "AND password LIKE '$2a$%'", Long.class, "c" + FIRST, "c" + (FIRST + USERS - 1)))
+                .isEqualTo(USERS);
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        run("bcrypt", () -> System.nanoTime() < end ? ThreadLocalRandom.current().nextInt(USERS) : -1);
+    }
+
+    /** Next user to log in as, or -1 when the round is over */
+    private interface Users {
+        int next();
+    }
+
+    private void run(String label, Users users) throws Exception {
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        AtomicLong busy = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                done.add(clients.submit(() -> {
+                    for (int u = users.next(); u >= 0; u = users.next()) {
+                        LoginRequest req = new LoginRequest();
+                        req.setUsername("c" + (FIRST + u));
+                        req.setPassword("password1");
+                        long t0 = System.nanoTime();
+                        try {
+                            loginService.validateLogin(req);
+                            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - t0));
+                        } catch (LoginBusyException e) {
+                            busy.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("REPORT %-14s bcrypt cost %d, %d hash threads, %d clients: %d logins in %.1f s, "
+                        + "%.1f logins/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d turned away%n",
+                label, strength, hashExecutor.getMaxPoolSize(), CLIENTS, latencies.getTotalCount(), secs,
+                latencies.getTotalCount() / secs, latencies.getValueAtPercentile(50) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0, latencies.getMaxValue() / 1000.0, busy.get());
+    }
+}
@@ -0,0 +1,116 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.config.SqlStatementCounter;
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.dto.LoginRequest;
+import myApp.ebm.dto.LoginResponse;
+import myApp.ebm.exception.InvalidCredentialsException;
+import myApp.ebm.util.EncryptionUtil;
+
+/**
+ * Login reads the user in one query and moves stored passwords to BCrypt
+ * at the current cost (10) once it has seen the right password. Unknown
+ * usernames cost a password check too.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LoginServiceTest {
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private ThreadPoolTaskExecutor hashExecutor;
+
+    @Test
+    void oneQueryPerLoginAndLegacyPasswordsAreRehashed() {
+        register("8200000000001", "loginlegacy");
+        setPassword("loginlegacy", EncryptionUtil.encrypt("password1"));
+
+        assertThatThrownBy(() -> loginService.validateLogin(login("loginlegacy", "wrong")))
+                .isInstanceOf(InvalidCredentialsException.class);
+        assertThat(password("loginlegacy")).isEqualTo(EncryptionUtil.encrypt("password1"));
+
+        LoginResponse first = loginService.validateLogin(login("loginlegacy", "password1"));
+        String rehashed = password("loginlegacy");
+        assertThat(first.getConsumerId()).isEqualTo("8200000000001");
+        assertThat(rehashed).startsWith("$2a$10$");
+
+        LoginResponse again;
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            again = loginService.validateLogin(login("loginlegacy", "password1"));
+            sql.assertMaxQueries(1);
+        }
+        assertThat(again.getAccessToken()).isNotBlank();
+        assertThat(again.getUserType()).isEqualTo("CUSTOMER");
+        // already at the current cost: left alone
+        assertThat(password("loginlegacy")).isEqualTo(rehashed);
+    }
+
+    @Test
+    void cheaperHashIsRaisedToTheCurrentCost() {
+        register("8200000000002", "logincheap");
+        setPassword("logincheap", new BCryptPasswordEncoder(4).encode("password1"));
+
+        loginService.validateLogin(login("logincheap", "password1"));
+
+        assertThat(password("logincheap")).startsWith("$2a$10$");
+    }
+
+    @Test
+    void unknownUsernameCostsAPasswordCheckToo() {
+        long tasks = hashExecutor.getThreadPoolExecutor().getTaskCount();
+
+        assertThatThrownBy(() -> loginService.validateLogin(login("nosuchlogin", "password1")))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        // went through the hash pool like a known user, rather than failing at once
+        assertThat(hashExecutor.getThreadPoolExecutor().getTaskCount()).isEqualTo(tasks + 1);
+    }
+
+    private void setPassword(String username, String stored) {
+        jdbc.update("UPDATE users SET password = ? WHERE username = ?", stored, username);
+    }
+
+    private String password(String username) {
+        return jdbc.queryForObject("SELECT password FROM users WHERE username = ?", String.class, username);
+    }
+
+    private static LoginRequest login(String username, String password) {
+        LoginRequest req = new LoginRequest();
+        req.setUsername(username);
+        req.setPassword(password);
+        return req;
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Login User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Login Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+}
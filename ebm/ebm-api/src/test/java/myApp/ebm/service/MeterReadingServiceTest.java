@@ -0,0 +1,206 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.meter.MeterImportRequest;
+import myApp.ebm.dto.meter.MeterImportResponse;
+import myApp.ebm.exception.MeterImportException;
+
+/**
+ * CSV import end to end, with a tiny chunk size so rows straddle chunk
+ * boundaries and every chunk runs on the worker pool.
+ */
+@SpringBootTest(properties = {"ebm.meter-import.chunk-bytes=4096",
+        "ebm.meter-import.dir=target/meter-imports-test", "ebm.meter-import.rejects-dir=target/meter-rejects-test"})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MeterReadingServiceTest {
+
+    private static final int CUSTOMERS = 50;
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private MeterReadingService meterReadingService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private static final Path DIR = Path.of("target", "meter-imports-test");
+
+    @BeforeAll
+    void seedCustomers() throws IOException {
+        Files.createDirectories(DIR);
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            users.add(new Object[] {"meter" + i, "meter" + i + "@ebm.test"});
+            customers.add(new Object[] {consumerId(i), "Customer " + i, "meter" + i});
+        }
+        // ids come from the identity columns so later tests can still register users
+        jdbc.batchUpdate("INSERT INTO users (username, email, password, status, user_type) "
+                + "VALUES (?, ?, 'cGFzc3dvcmQ=', 'ACTIVE', 'CUSTOMER')", users);
+        jdbc.batchUpdate("INSERT INTO customers (consumer_id, name, address, email, mobile, user_id) "
+                + "SELECT ?, ?, 'Meter Street', 'meter@ebm.test', '9000000000', id FROM users WHERE username = ?",
+                customers);
+    }
+
+    @Test
+    void importsValidRowsAndRejectsTheRest() throws Exception {
+        Path file = DIR.resolve("readings.csv");
+        List<String> bad = List.of(
+                consumerId(1) + ",2024-02-30,10",          // no such day
+                "1234,2024-01-01,10",                      // short consumerId
+                "7999999999999,2024-01-01,10",             // unknown customer
+                consumerId(2) + ",2024-01-01,-5",          // negative units
+                consumerId(3) + ",2024-01-01",             // missing field
+                consumerId(4) + "," + LocalDate.now().plusDays(2) + ",1");
+        writeFile(file, bad);
+
+        MeterImportResponse done = await(meterReadingService.startImport(request(file, null)));
+
+        assertThat(done.getStatus()).isEqualTo("COMPLETED");
+        assertThat(done.getRowsImported()).isEqualTo(ROWS);
+        assertThat(done.getRowsRejected()).isEqualTo(bad.size());
+        assertThat(done.getCommittedOffset()).isEqualTo(Files.size(file));
+        assertThat(done.getRowsPerSecond()).isPositive();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM meter_readings WHERE import_id = ?",
+                Long.class, done.getImportId())).isEqualTo(ROWS);
+        assertThat(meterReadingService.getReadings(consumerId(7), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
+                .hasSize(31)
+                .allSatisfy(r -> assertThat(r.getUnits()).isEqualTo(7));
+
+        // each reject points at the byte offset of the original line
+        byte[] content = Files.readAllBytes(file);
+        Path rejectsFile = Path.of(done.getRejectsPath());
+        assertThat(rejectsFile).hasParent(Path.of("target", "meter-rejects-test").toAbsolutePath());
+        List<String> rejects = Files.readAllLines(rejectsFile);
+        assertThat(rejects).hasSize(bad.size());
+        for (String r : rejects) {
+            int offset = Integer.parseInt(r.substring(0, r.indexOf(',')));
+            String original = r.substring(r.indexOf("\",") + 2);
+            assertThat(new String(content, offset, original.length(), StandardCharsets.US_ASCII)).isEqualTo(original);
+        }
+
+        // importing again overwrites the same (customer, day) readings
+        MeterImportResponse again = await(meterReadingService.startImport(request(file, null)));
+        assertThat(again.getRowsImported()).isEqualTo(ROWS);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM meter_readings WHERE import_id IN (?, ?)",
+                Long.class, done.getImportId(), again.getImportId())).isEqualTo(ROWS);
+    }
+
+    @Test
+    void startsFromByteOffset() throws Exception {
+        Path file = DIR.resolve("resume.csv");
+        writeFile(file, List.of());
+        byte[] content = Files.readAllBytes(file);
+
+        // an offset inside a line skips to the next one
+        int offset = content.length / 2 + 3;
+        int skipped = 0;
+        for (int i = 0; i < offset; i++) {
+            if (content[i] == '\n') {
+                skipped++;
+            }
+        }
+        MeterImportResponse done = await(meterReadingService.startImport(request(file, (long) offset)));
+
+        assertThat(done.getStatus()).isEqualTo("COMPLETED");
+        // header line + rows before the offset + the row the offset lands in
+        assertThat(done.getRowsImported()).isEqualTo(ROWS - skipped);
+        assertThat(done.getRowsRejected()).isZero();
+    }
+
+    @Test
+    void onlyFilesInTheImportDirectoryCanBeImported() throws Exception {
+        Path outside = Files.writeString(Path.of("target", "meter-outside.csv"), "consumerId,readingDate,units\n");
+        Files.deleteIfExists(DIR.resolve("link.csv"));
+        Files.createSymbolicLink(DIR.resolve("link.csv"), outside.toAbsolutePath());
+
+        for (String path : new String[] {"../meter-outside.csv", outside.toAbsolutePath().toString(), "link.csv"}) {
+            MeterImportRequest req = new MeterImportRequest();
+            req.setPath(path);
+            assertThatThrownBy(() -> meterReadingService.startImport(req))
+                    .isInstanceOf(MeterImportException.class)
+                    .hasMessageStartingWith("File must be inside the import directory");
+        }
+    }
+
+    @Test
+    void nonNumericConsumerIdsAreImported() throws Exception {
+        jdbc.update("INSERT INTO users (username, email, password, status, user_type) "
+                + "VALUES ('metertext', 'metertext@ebm.test', 'cGFzc3dvcmQ=', 'ACTIVE', 'CUSTOMER')");
+        jdbc.update("INSERT INTO customers (consumer_id, name, address, email, mobile, user_id) "
+                + "SELECT 'MTR-000000001', 'Text Id', 'Meter Street', 'metertext@ebm.test', '9000000000', id "
+                + "FROM users WHERE username = 'metertext'");
+        // no header: the first row starts with a letter but is data
+        Path file = Files.writeString(DIR.resolve("text-ids.csv"),
+                "MTR-000000001,2024-03-01,5\n"
+                + "MTR-000000001,2024-03-02,6\r\n"
+                + "MTR-00000001,2024-03-03,7\n"
+                + "MTR-000000002,2024-03-04,8\n");
+
+        MeterImportResponse done = await(meterReadingService.startImport(request(file, null)));
+
+        assertThat(done.getStatus()).isEqualTo("COMPLETED");
+        assertThat(done.getRowsImported()).isEqualTo(2);
+        assertThat(done.getRowsRejected()).isEqualTo(2);
+        assertThat(meterReadingService.getReadings("MTR-000000001", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)))
+                .extracting(r -> r.getUnits()).containsExactly(5L, 6L);
+        assertThat(Files.readAllLines(Path.of(done.getRejectsPath())))
+                .anySatisfy(r -> assertThat(r).contains("consumerId must be 13 characters"))
+                .anySatisfy(r -> assertThat(r).contains("Unknown consumerId"));
+    }
+
+    private static String consumerId(int i) {
+        return String.format("8%012d", i);
+    }
+
+    /** Header, ROWS valid rows (mixed LF and CRLF) with the bad rows spread through them */
+    private static void writeFile(Path file, List<String> bad) throws IOException {
+        StringBuilder sb = new StringBuilder("consumerId,readingDate,units\n");
+        LocalDate first = LocalDate.of(2023, 1, 1);
+        int step = ROWS / (bad.size() + 1);
+        int b = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (b < bad.size() && i == (b + 1) * step) {
+                sb.append(bad.get(b++)).append('\n');
+            }
+            int c = i % CUSTOMERS;
+            sb.append(consumerId(c)).append(',').append(first.plusDays(i / CUSTOMERS)).append(',').append(c);
+            sb.append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        Files.writeString(file, sb, StandardCharsets.US_ASCII);
+    }
+
+    private static MeterImportRequest request(Path file, Long offset) {
+        MeterImportRequest req = new MeterImportRequest();
+        req.setPath(file.getFileName().toString());
+        req.setStartOffset(offset);
+        return req;
+    }
+
+    private MeterImportResponse await(MeterImportResponse resp) throws InterruptedException {
+        while ("RUNNING".equals(resp.getStatus())) {
+            Thread.sleep(50);
+            resp = meterReadingService.getImport(resp.getImportId());
+        }
+        return resp;
+    }
+}
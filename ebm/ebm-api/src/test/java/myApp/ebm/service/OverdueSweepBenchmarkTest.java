@@ -0,0 +1,98 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.bill.OverdueSweepResponse;
+
+/**
+ * Overdue sweep over millions of bills on an in-memory database.
+ * Half of the bills are PENDING and past due; the rest must stay untouched.
+ *
+ * mvn test -Pbenchmark -Dtest=OverdueSweepBenchmarkTest [-Debm.bench.bills=5000000]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "ebm.overdue-sweep.max-rows-per-second=0")
+@ActiveProfiles("test")
+class OverdueSweepBenchmarkTest {
+
+    private static final int BILLS = Integer.getInteger("ebm.bench.bills", 2_000_000);
+    private static final int MONTHS = 100;
+
+    @Autowired
+    private OverdueSweepService sweepService;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void sweepsMillionsOfBills() {
+        seedBills(BILLS);
+        statsService.reconcile();
+
+        OverdueSweepResponse run = sweepService.sweepNow();
+
+        System.out.printf("OverdueSweep: %d bills, %d marked in %d chunks, longest chunk %d ms, %.0f bills/s%n",
+                BILLS, run.getBillsMarked(), run.getChunks(), run.getMaxChunkMillis(), run.getBillsPerSecond());
+        assertThat(run.getStatus()).isEqualTo("COMPLETED");
+        assertThat(run.getBillsMarked()).isEqualTo(BILLS / 2);
+        // short transactions: no slice should hold its locks for long
+        assertThat(run.getMaxChunkMillis()).isLessThan(2_000);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM bills WHERE status = 'PENDING' AND due_date < CURRENT_DATE",
+                Long.class)).isZero();
+        assertThat(statsService.getStats().get("overdueBills"))
+                .isEqualTo(jdbc.queryForObject("SELECT COUNT(*) FROM bills WHERE status = 'OVERDUE'", Long.class));
+    }
+
+    /** BILLS / MONTHS customers with MONTHS bills each; even rows past due */
+    private void seedBills(int n) {
+        int customers = n / MONTHS;
+        List<Object[]> users = new ArrayList<>(customers);
+        List<Object[]> rows = new ArrayList<>(customers);
+        for (int c = 0; c < customers; c++) {
+            users.add(new Object[] {"sweepbench" + c, "sweepbench" + c + "@ebm.test"});
+            rows.add(new Object[] {String.format("4%012d", c), "sweepbench" + c});
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, email, password, status, user_type) "
+                + "VALUES (?, ?, 'cGFzc3dvcmQ=', 'ACTIVE', 'CUSTOMER')", users);
+        jdbc.batchUpdate("INSERT INTO customers (consumer_id, name, address, email, mobile, user_id) "
+                + "SELECT ?, 'Bench', 'Bench Street', 'bench@ebm.test', '9000000000', id FROM users WHERE username = ?",
+                rows);
+        List<Long> ids = jdbc.queryForList(
+                "SELECT id FROM customers WHERE consumer_id LIKE '4%' ORDER BY id", Long.class);
+
+        // dense ids, as Hibernate's pooled sequence hands them out; the sequence moves past them afterwards
+        long baseId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM bills", Long.class);
+        Date pastDue = Date.valueOf(LocalDate.now().minusDays(5));
+        Date notDue = Date.valueOf(LocalDate.now().plusDays(5));
+        Date issued = Date.valueOf(LocalDate.now().minusDays(20));
+        int batch = 10_000;
+        List<Object[]> bills = new ArrayList<>(batch);
+        for (int i = 0; i < n; i++) {
+            long customerId = ids.get(i % ids.size());
+            String month = String.format("B%06d", i / ids.size());
+            bills.add(new Object[] {baseId + i + 1, "sb" + i, customerId, month, issued, i % 2 == 0 ? pastDue : notDue});
+            if (bills.size() == batch || i == n - 1) {
+                jdbc.batchUpdate("INSERT INTO bills (id, bill_id, customer_id, billing_month, amount_due, "
+                        + "issue_date, due_date, status) VALUES (?, ?, ?, ?, 100.00, ?, ?, 'PENDING')",
+                        bills);
+                bills.clear();
+            }
+        }
+        jdbc.execute("ALTER SEQUENCE bills_seq RESTART WITH " + (baseId + n + 50));
+    }
+}
@@ -0,0 +1,116 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.bill.OverdueSweepResponse;
+
+/**
+ * Only PENDING bills past their due date become OVERDUE, and the running
+ * statistics follow. A small chunk size makes the sweep span many chunks.
+ */
+@SpringBootTest(properties = {
+        "ebm.overdue-sweep.chunk-size=500",
+        "ebm.overdue-sweep.max-rows-per-second=0"})
+@ActiveProfiles("test")
+class OverdueSweepServiceTest {
+
+    @Autowired
+    private OverdueSweepService sweepService;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Test
+    void marksOnlyPendingBillsPastDue() {
+        jdbc.update("INSERT INTO users (username, email, password, status, user_type) "
+                + "VALUES ('sweeper', 'sweeper@ebm.test', 'cGFzc3dvcmQ=', 'ACTIVE', 'CUSTOMER')");
+        jdbc.update("INSERT INTO customers (consumer_id, name, address, email, mobile, user_id) "
+                + "SELECT '5000000000001', 'Sweep', 'Sweep Street', 'sweeper@ebm.test', '9000000000', id "
+                + "FROM users WHERE username = 'sweeper'");
+        long customerId = jdbc.queryForObject(
+                "SELECT id FROM customers WHERE consumer_id = '5000000000001'", Long.class);
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>();
+        int pastDuePending = 0;
+        for (int i = 0; i < 300; i++) {
+            String status;
+            LocalDate due;
+            switch (i % 4) {
+                case 0 -> { status = "PENDING"; due = today.minusDays(1 + i); pastDuePending++; }
+                case 1 -> { status = "PENDING"; due = today; }                  // due today: not yet overdue
+                case 2 -> { status = "PAID"; due = today.minusDays(30); }
+                default -> { status = "PENDING"; due = today.plusDays(10); }
+            }
+            rows.add(new Object[] {"sweep" + i, customerId, String.format("S%06d", i),
+                    Date.valueOf(due.minusDays(15)), Date.valueOf(due), status});
+        }
+        jdbc.batchUpdate("INSERT INTO bills (id, bill_id, customer_id, billing_month, amount_due, issue_date, due_date, status) "
+                + "VALUES (NEXT VALUE FOR bills_seq, ?, ?, ?, 100.00, ?, ?, ?)", rows);
+        // seeded behind the service's back
+        statsService.reconcile();
+        long overdueBefore = count("OVERDUE");
+
+        OverdueSweepResponse run = sweepService.sweepNow();
+
+        assertThat(run.getStatus()).isEqualTo("COMPLETED");
+        assertThat(run.getBillsMarked()).isEqualTo(pastDuePending);
+        assertThat(run.getChunks()).isGreaterThan(1);
+        assertThat(count("OVERDUE")).isEqualTo(overdueBefore + pastDuePending);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM bills WHERE status = 'PENDING' AND due_date < CURRENT_DATE",
+                Long.class)).isZero();
+        assertThat(statsService.getStats().get("overdueBills")).isEqualTo(count("OVERDUE"));
+        assertThat(statsService.getStats().get("pendingBills")).isEqualTo(count("PENDING"));
+        assertThat(sweepService.getLastSweep().getBillsMarked()).isEqualTo(pastDuePending);
+
+        // nothing left to do
+        assertThat(sweepService.sweepNow().getBillsMarked()).isZero();
+    }
+
+    @Test
+    void startedSweepDoesNotWaitForTheSharedScheduler() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        taskScheduler.schedule(() -> {
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, Instant.now());
+        try {
+            assertThat(sweepService.startSweep().getStatus()).isEqualTo("RUNNING");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ("RUNNING".equals(sweepService.getLastSweep().getStatus()) && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(sweepService.getLastSweep().getStatus()).isEqualTo("COMPLETED");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private long count(String status) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM bills WHERE status = ?", Long.class, status);
+    }
+}
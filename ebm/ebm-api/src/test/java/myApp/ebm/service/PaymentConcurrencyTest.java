@@ -0,0 +1,183 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.CursorPage;
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.dto.bill.BillResponse;
+import myApp.ebm.dto.bill.CreateBillRequest;
+import myApp.ebm.dto.bill.PaymentRecordResponse;
+import myApp.ebm.dto.bill.PaymentRequest;
+import myApp.ebm.dto.bill.PaymentResponse;
+
+/**
+ * Concurrent partial payments on a few bills, each request sent twice
+ * with the same idempotency key: no update may be lost, no payment may be
+ * applied twice, and every partial payment must be in the ledger.
+ */
+@SpringBootTest(properties = "ebm.payments.max-attempts=100")
+@ActiveProfiles("test")
+class PaymentConcurrencyTest {
+
+    private static final int BILLS = 4;
+    private static final int PAYMENTS = 200;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void concurrentPaymentsAndRetriesKeepBalancesExact() throws Exception {
+        register("7000000000001", "payuser");
+        String[] billIds = new String[BILLS];
+        for (int b = 0; b < BILLS; b++) {
+            billIds[b] = billService.createBill(bill("7000000000001", "2032-0" + (b + 1), "10000.00")).getBillId();
+        }
+
+        BigDecimal[] expectedPaid = new BigDecimal[BILLS];
+        Arrays.fill(expectedPaid, BigDecimal.ZERO);
+        List<PaymentRequest> requests = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            int b = i % BILLS;
+            BigDecimal amount = new BigDecimal(1 + i % 3 + ".25");
+            expectedPaid[b] = expectedPaid[b].add(amount);
+            // the same payment twice, as a client retrying after a timeout would
+            requests.add(payment("pay-" + i, billIds[b], amount));
+            requests.add(payment("pay-" + i, billIds[b], amount));
+        }
+        Collections.shuffle(requests, new Random(42));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<PaymentResponse>> results = new ArrayList<>();
+        try {
+            for (PaymentRequest req : requests) {
+                results.add(pool.submit(() -> billService.payBill(req)));
+            }
+            List<PaymentResponse> responses = new ArrayList<>();
+            for (Future<PaymentResponse> f : results) {
+                responses.add(f.get());
+            }
+            assertThat(responses).allSatisfy(r -> assertThat(r.getPaymentId()).isNotNull());
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int b = 0; b < BILLS; b++) {
+            BigDecimal due = jdbc.queryForObject(
+                    "SELECT amount_due FROM bills WHERE bill_id = ?", BigDecimal.class, billIds[b]);
+            assertThat(due).isEqualByComparingTo(new BigDecimal("10000.00").subtract(expectedPaid[b]));
+        }
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM payment_idempotency WHERE idempotency_key LIKE 'pay-%'", Long.class))
+                .isEqualTo(PAYMENTS);
+
+        // one ledger entry per payment; the last balanceAfter is the bill's balance
+        for (int b = 0; b < BILLS; b++) {
+            List<PaymentRecordResponse> ledger = billService.getBillPayments(billIds[b]);
+            assertThat(ledger).hasSize(PAYMENTS / BILLS);
+            assertThat(ledger.stream().map(PaymentRecordResponse::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                    .isEqualByComparingTo(expectedPaid[b]);
+            assertThat(ledger.get(ledger.size() - 1).getBalanceAfter())
+                    .isEqualByComparingTo(new BigDecimal("10000.00").subtract(expectedPaid[b]));
+        }
+    }
+
+    @Test
+    void replayReturnsStoredResponseWithoutPaying() {
+        register("7000000000002", "replayuser");
+        BillResponse bill = billService.createBill(bill("7000000000002", "2032-06", "100.00"));
+
+        PaymentResponse first = billService.payBill(payment("replay-1", bill.getBillId(), new BigDecimal("40.00")));
+        PaymentResponse again = billService.payBill(payment("replay-1", bill.getBillId(), new BigDecimal("40.00")));
+
+        assertThat(again.getPaymentId()).isEqualTo(first.getPaymentId());
+        assertThat(again.getMessage()).isEqualTo(first.getMessage());
+        assertThat(jdbc.queryForObject("SELECT amount_due FROM bills WHERE bill_id = ?",
+                BigDecimal.class, bill.getBillId())).isEqualByComparingTo("60.00");
+        assertThat(billService.getBillPayments(bill.getBillId())).hasSize(1);
+    }
+
+    @Test
+    void customerHistoryPagesThroughEveryPartialPayment() {
+        register("7000000000003", "historyuser");
+        BillResponse bill = billService.createBill(bill("7000000000003", "2032-07", "100.00"));
+        for (int i = 0; i < 5; i++) {
+            billService.payBill(payment(null, bill.getBillId(), new BigDecimal("10.00")));
+        }
+
+        CursorPage<PaymentRecordResponse> first = billService.getCustomerPaymentLedger("7000000000003", null, 3);
+        CursorPage<PaymentRecordResponse> second =
+                billService.getCustomerPaymentLedger("7000000000003", first.getNextCursor(), 3);
+
+        assertThat(first.getItems()).extracting(PaymentRecordResponse::getBalanceAfter)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("50"), new BigDecimal("60"), new BigDecimal("70"));
+        assertThat(second.getItems()).extracting(PaymentRecordResponse::getBalanceAfter)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("80"), new BigDecimal("90"));
+        assertThat(second.getNextCursor()).isNull();
+        // the list history (what the frontends read) has the partial payments too
+        assertThat(billService.getCustomerPaymentHistory("7000000000003"))
+                .hasSize(5)
+                .extracting(PaymentResponse::getStatus).containsOnly("PARTIAL");
+        assertThat(billService.getCustomerPaymentHistory("7000000000003").get(0).getMessage())
+                .isEqualTo("Partial payment received, remaining due: 50.00");
+
+        billService.payBill(payment(null, bill.getBillId(), new BigDecimal("50.00")));
+        List<PaymentResponse> history = billService.getCustomerPaymentHistory("7000000000003");
+        assertThat(history).hasSize(6);
+        assertThat(history.get(0).getStatus()).isEqualTo("PAID");
+        assertThat(history.get(0).getMessage()).isEqualTo("Bill fully paid");
+        assertThat(billService.getCustomerPaymentHistory("7099999999999")).isEmpty();
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Payment User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Payment Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+
+    private static CreateBillRequest bill(String consumerId, String month, String amount) {
+        CreateBillRequest req = new CreateBillRequest();
+        req.setConsumerId(consumerId);
+        req.setBillingMonth(month);
+        req.setAmountDue(new BigDecimal(amount));
+        return req;
+    }
+
+    private static PaymentRequest payment(String key, String billId, BigDecimal amount) {
+        PaymentRequest req = new PaymentRequest();
+        req.setIdempotencyKey(key);
+        req.setBillId(billId);
+        req.setAmountPaid(amount);
+        return req;
+    }
+}
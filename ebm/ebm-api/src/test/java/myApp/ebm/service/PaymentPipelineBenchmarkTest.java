@@ -0,0 +1,164 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.bill.PaymentRequest;
+import myApp.ebm.dto.bill.PaymentResponse;
+
+/**
+ * Payment latency and throughput under a burst: one transaction per payment
+ * (BillService.payBill) against group commit (PaymentPipeline).
+ * Runs on an H2 file database under target/ so commits hit the disk.
+ *
+ * mvn test -Pbenchmark -Dtest=PaymentPipelineBenchmarkTest
+ *     [-Debm.bench.payments=20000] [-Debm.bench.clients=64] [-Debm.bench.bills=1000]
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/payment-bench/ebm",
+        "ebm.payments.pipeline.enabled=true"
+})
+@ActiveProfiles("test")
+class PaymentPipelineBenchmarkTest {
+
+    private static final int PAYMENTS = Integer.getInteger("ebm.bench.payments", 20_000);
+    private static final int CLIENTS = Integer.getInteger("ebm.bench.clients", 64);
+    private static final int BILLS = Integer.getInteger("ebm.bench.bills", 1_000);
+
+    private static final BigDecimal START_BALANCE = new BigDecimal("10000000.00");
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private PaymentPipeline pipeline;
+
+    @Autowired
+    private BillStatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    /** Payment callable under test */
+    private interface PayCall {
+        PaymentResponse pay(PaymentRequest req) throws Exception;
+    }
+
+    @BeforeAll
+    static void freshDatabase() throws IOException {
+        Path dir = Path.of("target", "payment-bench");
+        if (Files.exists(dir)) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    void directVersusGroupCommit() throws Exception {
+        String[] billIds = seedBills(BILLS);
+        statsService.reconcile();
+        AtomicInteger keys = new AtomicInteger();
+
+        // warm up both paths
+        run("warmup", billIds, PAYMENTS / 10, keys, billService::payBill);
+        run("warmup", billIds, PAYMENTS / 10, keys, req -> pipeline.submit(req).get());
+
+        long batchesBefore = pipeline.getBatches();
+        long appliedBefore = pipeline.getApplied();
+        run("direct", billIds, PAYMENTS, keys, billService::payBill);
+        run("pipeline", billIds, PAYMENTS, keys, req -> pipeline.submit(req).get());
+        long batches = pipeline.getBatches() - batchesBefore;
+        System.out.printf("REPORT pipeline: %d batches, %.1f payments per commit, %d fell back to single commits%n",
+                batches, (pipeline.getApplied() - appliedBefore) / (double) Math.max(1, batches),
+                pipeline.getFallbacks());
+
+        BigDecimal paid = jdbc.queryForObject("SELECT SUM(amount) FROM payments", BigDecimal.class);
+        BigDecimal due = jdbc.queryForObject("SELECT SUM(amount_due) FROM bills", BigDecimal.class);
+        assertThat(paid).isEqualByComparingTo(BigDecimal.valueOf(keys.get()));
+        assertThat(due.add(paid)).isEqualByComparingTo(START_BALANCE.multiply(BigDecimal.valueOf(BILLS)));
+    }
+
+    /** CLIENTS threads pay 1.00 on random bills until n payments are done */
+    private void run(String label, String[] billIds, int n, AtomicInteger keys, PayCall call) throws Exception {
+        long[] latencies = new long[n];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                done.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < n; i = next.getAndIncrement()) {
+                        PaymentRequest req = new PaymentRequest();
+                        req.setBillId(billIds[ThreadLocalRandom.current().nextInt(billIds.length)]);
+                        req.setAmountPaid(BigDecimal.ONE);
+                        req.setIdempotencyKey("bench-" + keys.incrementAndGet());
+                        long t0 = System.nanoTime();
+                        call.pay(req);
+                        latencies[i] = System.nanoTime() - t0;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        System.out.printf("REPORT %-8s %d payments, %d clients: %.0f payments/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                label, n, CLIENTS, n / secs, millis(latencies, 0.50), millis(latencies, 0.99),
+                latencies[n - 1] / 1e6);
+    }
+
+    private static double millis(long[] sorted, double q) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1)] / 1e6;
+    }
+
+    private String[] seedBills(int n) {
+        jdbc.update("INSERT INTO users (username, email, password, status, user_type) "
+                + "VALUES ('benchpayer', 'benchpayer@ebm.test', 'cGFzc3dvcmQ=', 'ACTIVE', 'CUSTOMER')");
+        jdbc.update("INSERT INTO customers (consumer_id, name, address, email, mobile, user_id) "
+                + "SELECT '8000000000001', 'Bench Payer', 'Bench Street', 'bench@ebm.test', '9000000000', id "
+                + "FROM users WHERE username = 'benchpayer'");
+        long customerId = jdbc.queryForObject(
+                "SELECT id FROM customers WHERE consumer_id = '8000000000001'", Long.class);
+        String[] billIds = new String[n];
+        List<Object[]> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            billIds[i] = "benchpay" + i;
+            // one bill per month keeps uk_bills_customer_month happy
+            String month = String.format("%04d-%02d", 3000 + i / 12, i % 12 + 1);
+            rows.add(new Object[] {billIds[i], customerId, month, START_BALANCE});
+        }
+        jdbc.batchUpdate("INSERT INTO bills (id, bill_id, customer_id, billing_month, amount_due, issue_date, due_date, status) "
+                + "VALUES (NEXT VALUE FOR bills_seq, ?, ?, ?, ?, CURRENT_DATE, CURRENT_DATE + 30, 'PENDING')", rows);
+        return billIds;
+    }
+}
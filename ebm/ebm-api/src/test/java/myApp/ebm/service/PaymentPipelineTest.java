@@ -0,0 +1,174 @@
+package myApp.ebm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import myApp.ebm.dto.CustomerRegistrationRequest;
+import myApp.ebm.dto.bill.BillResponse;
+import myApp.ebm.dto.bill.CreateBillRequest;
+import myApp.ebm.dto.bill.PaymentRequest;
+import myApp.ebm.dto.bill.PaymentResponse;
+import myApp.ebm.exception.BillNotFoundException;
+
+/**
+ * Group-commit payments: concurrent submissions, retried keys and bad
+ * payments must leave the same balances as applying them one by one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ebm.payments.pipeline.enabled=true",
+        "ebm.payments.pipeline.max-batch=50"
+})
+@ActiveProfiles("test")
+class PaymentPipelineTest {
+
+    private static final int BILLS = 8;
+    private static final int PAYMENTS = 400;
+
+    @Autowired
+    private PaymentPipeline pipeline;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void groupCommittedPaymentsKeepBalancesExact() throws Exception {
+        register("7100000000001", "pipelineuser");
+        String[] billIds = new String[BILLS];
+        for (int b = 0; b < BILLS; b++) {
+            billIds[b] = billService.createBill(bill("7100000000001", "2033-0" + (b + 1), "5000.00")).getBillId();
+        }
+
+        BigDecimal[] expectedPaid = new BigDecimal[BILLS];
+        Arrays.fill(expectedPaid, BigDecimal.ZERO);
+        List<PaymentRequest> requests = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            int b = i % BILLS;
+            BigDecimal amount = new BigDecimal(1 + i % 4 + ".50");
+            expectedPaid[b] = expectedPaid[b].add(amount);
+            requests.add(payment("pipe-" + i, billIds[b], amount));
+            if (i % 10 == 0) {
+                requests.add(payment("pipe-" + i, billIds[b], amount)); // client retry
+            }
+        }
+        requests.add(payment(null, "ebm-no-such-bill", BigDecimal.ONE));
+        Collections.shuffle(requests, new Random(7));
+
+        long batchesBefore = pipeline.getBatches();
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        List<Future<PaymentResponse>> results = new ArrayList<>();
+        try {
+            for (PaymentRequest req : requests) {
+                results.add(clients.submit(() -> pipeline.submit(req).get()));
+            }
+            int notFound = 0;
+            for (Future<PaymentResponse> f : results) {
+                try {
+                    assertThat(f.get().getPaymentId()).isNotNull();
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(ExecutionException.class);
+                    assertThat(e.getCause().getCause()).isInstanceOf(BillNotFoundException.class);
+                    notFound++;
+                }
+            }
+            assertThat(notFound).isEqualTo(1);
+        } finally {
+            clients.shutdown();
+        }
+
+        for (int b = 0; b < BILLS; b++) {
+            BigDecimal due = jdbc.queryForObject(
+                    "SELECT amount_due FROM bills WHERE bill_id = ?", BigDecimal.class, billIds[b]);
+            assertThat(due).isEqualByComparingTo(new BigDecimal("5000.00").subtract(expectedPaid[b]));
+            assertThat(billService.getBillPayments(billIds[b])).hasSize(PAYMENTS / BILLS);
+        }
+        // payments were grouped, not committed one per transaction
+        assertThat(pipeline.getBatches() - batchesBefore).isLessThan(PAYMENTS);
+    }
+
+    @Test
+    void payEndpointAnswersOnceTheBatchCommits() {
+        register("7100000000002", "pipelinehttp");
+        BillResponse bill = billService.createBill(bill("7100000000002", "2033-09", "100.00"));
+
+        ResponseEntity<PaymentResponse> resp = rest.postForEntity("/api/bills/pay",
+                payment("pipe-http-1", bill.getBillId(), new BigDecimal("30.00")), PaymentResponse.class);
+        ResponseEntity<PaymentResponse> replay = rest.postForEntity("/api/bills/pay",
+                payment("pipe-http-1", bill.getBillId(), new BigDecimal("30.00")), PaymentResponse.class);
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resp.getBody().getStatus()).isEqualTo("PENDING");
+        assertThat(replay.getBody().getPaymentId()).isEqualTo(resp.getBody().getPaymentId());
+        assertThat(jdbc.queryForObject("SELECT amount_due FROM bills WHERE bill_id = ?",
+                BigDecimal.class, bill.getBillId())).isEqualByComparingTo("70.00");
+    }
+
+    @Test
+    void replayOfCommittedKeyCompletesWithoutQueueing() throws Exception {
+        register("7100000000003", "pipelinereplay");
+        BillResponse bill = billService.createBill(bill("7100000000003", "2033-10", "100.00"));
+        PaymentRequest req = payment("pipe-replay-1", bill.getBillId(), new BigDecimal("10.00"));
+        PaymentResponse first = pipeline.submit(req).get();
+
+        CompletableFuture<PaymentResponse> again = pipeline.submit(req);
+
+        assertThat(again).isDone();
+        assertThat(again.get().getPaymentId()).isEqualTo(first.getPaymentId());
+    }
+
+    private void register(String consumerId, String username) {
+        CustomerRegistrationRequest r = new CustomerRegistrationRequest();
+        r.setConsumerId(consumerId);
+        r.setUsername(username);
+        r.setName("Pipeline User");
+        r.setEmail(username + "@ebm.test");
+        r.setMobile("9000000000");
+        r.setAddress("Pipeline Street");
+        r.setPassword("password1");
+        registrationService.registerCustomer(r);
+    }
+
+    private static CreateBillRequest bill(String consumerId, String month, String amount) {
+        CreateBillRequest req = new CreateBillRequest();
+        req.setConsumerId(consumerId);
+        req.setBillingMonth(month);
+        req.setAmountDue(new BigDecimal(amount));
+        return req;
+    }
+
+    private static PaymentRequest payment(String key, String billId, BigDecimal amount) {
+        PaymentRequest req = new PaymentRequest();
+        req.setIdempotencyKey(key);
+        req.setBillId(billId);
+        req.setAmountPaid(amount);
+        return req;
+    }
+}
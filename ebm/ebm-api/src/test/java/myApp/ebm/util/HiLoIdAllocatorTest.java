@@ -0,0 +1,81 @@
+package myApp.ebm.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Uniqueness of hi/lo ids under contention. The block source stands in for
+ * a database sequence shared by several app instances.
+ */
+class HiLoIdAllocatorTest {
+
+    private static final int THREADS = 64;
+    private static final int IDS_PER_THREAD = 10_000_000 / THREADS;
+    private static final long BLOCK = 100;
+
+    @Test
+    void tenMillionIdsFromSixtyFourThreadsAreUnique() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        AtomicLong blocksFetched = new AtomicLong();
+        // two "nodes" drawing from one sequence, 32 threads each
+        HiLoIdAllocator[] nodes = new HiLoIdAllocator[2];
+        for (int n = 0; n < nodes.length; n++) {
+            nodes[n] = new HiLoIdAllocator(() -> {
+                blocksFetched.incrementAndGet();
+                return sequence.getAndAdd(BLOCK);
+            }, BLOCK);
+        }
+
+        long[][] ids = new long[THREADS][IDS_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            HiLoIdAllocator alloc = nodes[t % nodes.length];
+            long[] out = ids[t];
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < out.length; i++) {
+                    out[i] = alloc.next();
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        BitSet seen = new BitSet((int) sequence.get());
+        for (long[] out : ids) {
+            for (long id : out) {
+                assertFalse(seen.get((int) id), "duplicate id " + id);
+                seen.set((int) id);
+            }
+        }
+        assertEquals((long) THREADS * IDS_PER_THREAD, seen.cardinality());
+        // at most one partly used block per node is left over
+        assertTrue(blocksFetched.get() * BLOCK - seen.cardinality() < nodes.length * BLOCK);
+    }
+
+    @Test
+    void oneSourceCallPerBlock() {
+        AtomicLong calls = new AtomicLong();
+        HiLoIdAllocator alloc = new HiLoIdAllocator(() -> 1000 * calls.incrementAndGet(), 1000);
+        for (int i = 0; i < 2500; i++) {
+            assertEquals(1000 + i, alloc.next());
+        }
+        assertEquals(3, calls.get());
+    }
+}